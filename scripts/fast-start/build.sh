@@ -0,0 +1,32 @@
+#!/usr/bin/env bash
+# Builds the fast-start distribution into target/fast-start:
+#   1. packages the jar with the Spring AOT processing of the fast-start profile;
+#   2. extracts it into a layout the JVM can map a CDS archive for;
+#   3. trains an AppCDS archive with a run that stops right after the context refresh.
+# The training run connects to the database of the fast-start profile, whose schema must be up to date.
+#
+# Usage: scripts/fast-start/build.sh [extra JVM options for the training run, e.g. -Dspring.datasource.url=...]
+set -euo pipefail
+
+cd "$(dirname "$0")/../.."
+OUT=target/fast-start
+
+# mvnw is not checked in as executable, so run it through sh.
+sh ./mvnw -B -q -Pfast-start -DskipTests package
+
+JAR=$(ls target/max-doc-api-*.jar | grep -v original | head -n 1)
+rm -rf "$OUT"
+java -Djarmode=tools -jar "$JAR" extract --destination "$OUT"
+
+(
+  cd "$OUT"
+  java -XX:ArchiveClassesAtExit=application.jsa \
+    -Dspring.aot.enabled=true \
+    -Dspring.profiles.active=fast-start \
+    -Dspring.context.exit=onRefresh \
+    "$@" \
+    -jar "$(basename "$JAR")"
+)
+
+echo "Built $OUT; start it with:"
+echo "  cd $OUT && java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -Dspring.profiles.active=fast-start -jar $(basename "$JAR")"
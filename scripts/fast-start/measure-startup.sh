@@ -0,0 +1,53 @@
+#!/usr/bin/env bash
+# Measures the time to first request of the regular and the fast-start startup.
+# Each mode is started RUNS times; every run is timed from the launch of the JVM until
+# GET /api/documents answers, and the app's own measurement (FirstRequestTimingFilter) is shown next to it.
+#
+# Usage: scripts/fast-start/measure-startup.sh [RUNS] [extra JVM options, e.g. -Dspring.datasource.url=...]
+# Run scripts/fast-start/build.sh first; both modes use the jar it built.
+set -euo pipefail
+
+cd "$(dirname "$0")/../.."
+RUNS=${1:-5}
+shift || true
+PORT=${PORT:-18080}
+DIR=target/fast-start
+JAR=$(cd "$DIR" && ls max-doc-api-*.jar | head -n 1)
+URL="http://localhost:$PORT/api/documents?itemsPerPage=1"
+
+now_ms() { date +%s%3N; }
+
+measure() {
+  local mode=$1; shift
+  local total=0
+  for run in $(seq 1 "$RUNS"); do
+    local log
+    log=$(mktemp)
+    local start
+    start=$(now_ms)
+    (cd "$DIR" && exec java "$@" -Dserver.port="$PORT" -jar "$JAR") > "$log" 2>&1 &
+    local pid=$!
+
+    until curl -sf -o /dev/null "$URL"; do
+      if ! kill -0 "$pid" 2>/dev/null; then
+        echo "$mode run $run: the application stopped, see $log" >&2
+        exit 1
+      fi
+      sleep 0.05
+    done
+    local elapsed=$(( $(now_ms) - start ))
+    total=$(( total + elapsed ))
+
+    local reported
+    reported=$(grep -o 'First request served [0-9]* ms' "$log" | grep -o '[0-9]*' || echo '?')
+    printf '%-11s run %d: %6d ms to first request (%s ms reported by the app)\n' "$mode" "$run" "$elapsed" "$reported"
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    rm -f "$log"
+  done
+  printf '%-11s average: %6d ms\n' "$mode" $(( total / RUNS ))
+}
+
+measure regular "$@"
+measure fast-start -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -Dspring.profiles.active=fast-start "$@"
@@ -11,6 +11,30 @@ public class Routes {
             public static final String path = Documents.path + "/by-acronym";
         }
 
+        public static final class Acronyms {
+            public static final String path = Documents.path + "/acronyms";
+        }
+
+        public static final class Facets {
+            public static final String path = Documents.path + "/facets";
+        }
+
+        public static final class Batch {
+            public static final String path = Documents.path + "/batch";
+        }
+
+        public static final class Typeahead {
+            public static final String path = Documents.path + "/typeahead";
+        }
+
+        public static final class Changes {
+            public static final String path = Documents.path + "/changes";
+        }
+
+        public static final class Lineage {
+            public static final String path = Documents.path + "/lineage";
+        }
+
         public static final class ById {
             public static final String path = Documents.path + "/{id}";
 
@@ -21,6 +45,34 @@ public class Routes {
             public static final class GenerateVersion {
                 public static final String path = ById.path + "/generate-version";
             }
+
+            public static final class File {
+                public static final String path = ById.path + "/file";
+            }
+        }
+    }
+
+    public static final class Jobs {
+        public static final String path = Routes.root + "/jobs";
+
+        public static final class ById {
+            public static final String path = Jobs.path + "/{id}";
+
+            public static final class Cancel {
+                public static final String path = ById.path + "/cancel";
+            }
+        }
+    }
+
+    public static final class Admin {
+        public static final String path = Routes.root + "/admin";
+
+        public static final class SlowQueries {
+            public static final String path = Admin.path + "/slow-queries";
+        }
+
+        public static final class Latencies {
+            public static final String path = Admin.path + "/latencies";
         }
     }
 }
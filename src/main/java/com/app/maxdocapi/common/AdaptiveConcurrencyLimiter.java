@@ -0,0 +1,151 @@
+package com.app.maxdocapi.common;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A concurrency limit with a small bounded wait queue in front of it.
+ * <p>
+ * The limit adapts to the latency of the admitted work (AIMD): after each window of samples it is
+ * lowered by 10% when the average latency exceeded the target, and raised by one when the latency
+ * was fine and the limit was actually reached during the window.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    public enum Admission {
+        ACQUIRED,
+        QUEUE_FULL,
+        TIMED_OUT
+    }
+
+    private static final double DECREASE_FACTOR = 0.9;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotAvailable = lock.newCondition();
+    private final int minLimit;
+    private final int maxLimit;
+    private final int queueSize;
+    private final long maxWaitNanos;
+    private final long targetLatencyNanos;
+
+    private int limit;
+    private int inFlight;
+    private int waiting;
+    private int windowSamples;
+    private long windowLatencyNanos;
+    private boolean windowSaturated;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, int queueSize, Duration maxWait, Duration targetLatency) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+        this.queueSize = queueSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.targetLatencyNanos = targetLatency.toNanos();
+    }
+
+    /**
+     * Takes a slot, waiting in the queue up to the configured time when none is free.
+     * Every {@link Admission#ACQUIRED} result must be followed by a call to {@link #release(long)}.
+     *
+     * @return Whether a slot was taken, or why the request was rejected.
+     * @throws InterruptedException if the thread is interrupted while queued.
+     */
+    public Admission acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            if (inFlight < limit) {
+                return admit();
+            }
+            windowSaturated = true;
+            if (waiting >= queueSize) {
+                return Admission.QUEUE_FULL;
+            }
+
+            waiting++;
+            try {
+                var remainingNanos = maxWaitNanos;
+                while (inFlight >= limit) {
+                    if (remainingNanos <= 0) return Admission.TIMED_OUT;
+                    remainingNanos = slotAvailable.awaitNanos(remainingNanos);
+                }
+                return admit();
+            } finally {
+                waiting--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Frees a slot and feeds the latency of the finished work into the limit.
+     *
+     * @param latencyNanos How long the admitted work took.
+     */
+    public void release(long latencyNanos) {
+        lock.lock();
+        try {
+            inFlight--;
+            windowSamples++;
+            windowLatencyNanos += latencyNanos;
+
+            // One window holds as many samples as the current limit, so small limits adapt quickly.
+            if (windowSamples >= limit) {
+                adjustLimit(windowLatencyNanos / windowSamples);
+                windowSamples = 0;
+                windowLatencyNanos = 0;
+                windowSaturated = false;
+            }
+
+            // The limit may have grown by more than the slot just freed.
+            slotAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Admission admit() {
+        inFlight++;
+        return Admission.ACQUIRED;
+    }
+
+    private void adjustLimit(long averageLatencyNanos) {
+        if (averageLatencyNanos > targetLatencyNanos) {
+            limit = Math.max(minLimit, (int) (limit * DECREASE_FACTOR));
+        } else if (windowSaturated) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+}
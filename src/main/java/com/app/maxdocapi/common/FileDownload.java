@@ -0,0 +1,119 @@
+package com.app.maxdocapi.common;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A stored file written to the response without passing through the heap.
+ * <p>
+ * The content is never modified once stored, so its SHA-256 is a strong ETag: conditional requests get a 304,
+ * and a single byte range is served as a 206, also when resuming with If-Range. On Tomcat the connector sends
+ * the file itself with sendfile once the headers are written; elsewhere it is transferred from the file channel
+ * to the response, which the JDK also does without copying it into the heap.
+ *
+ * @param sha256 The hex SHA-256 of the content.
+ */
+public record FileDownload(Path path, long size, String sha256, String contentType, String fileName) {
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    public String etag() {
+        return "\"" + sha256 + "\"";
+    }
+
+    public void write(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.ETAG, etag());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (matchesAny(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = size - 1;
+        var range = requestedRange(request);
+        if (range != null) {
+            start = range.getRangeStart(size);
+            end = range.getRangeEnd(size);
+            if (start >= size || end < start) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+
+        var length = end - start + 1;
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(fileName, StandardCharsets.UTF_8).build().toString());
+        response.setContentLengthLong(length);
+        if (HttpMethod.HEAD.matches(request.getMethod())) return;
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            // The end of a sendfile range is exclusive.
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (var file = FileChannel.open(path, StandardOpenOption.READ)) {
+            var target = Channels.newChannel(response.getOutputStream());
+            var position = start;
+            while (position <= end) {
+                var transferred = file.transferTo(position, end + 1 - position, target);
+                if (transferred <= 0) throw new IOException("The file " + path + " ended before its stored size");
+                position += transferred;
+            }
+        }
+    }
+
+    /**
+     * The single range to serve, or null to serve the whole file: when no range was asked for, when the
+     * If-Range validator is stale, and when the ranges cannot be parsed or are more than one.
+     */
+    private HttpRange requestedRange(HttpServletRequest request) {
+        var header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null) return null;
+
+        var ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.trim().equals(etag())) return null;
+
+        try {
+            var ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.getFirst() : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Weak comparison, as If-None-Match requires.
+     */
+    private boolean matchesAny(String ifNoneMatch) {
+        if (ifNoneMatch == null) return false;
+
+        for (var tag : ifNoneMatch.split(",")) {
+            var candidate = tag.trim();
+            if (candidate.startsWith("W/")) candidate = candidate.substring(2);
+            if (candidate.equals("*") || candidate.equals(etag())) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,106 @@
+package com.app.maxdocapi.common;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of latencies in microseconds with HDR-style log-linear buckets: the values below 32 µs
+ * get a bucket each, and every power of two above that is split into 16 buckets, so a value is reported at most
+ * 1/16 above what was recorded. The counts are striped by thread, so concurrent requests rarely write the same
+ * cache line, and only added up when a snapshot is taken.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_BUCKETS = 2 * SUB_BUCKETS;
+    // About 71 minutes; longer values are recorded as this one.
+    public static final long MAX_MICROS = (1L << 32) - 1;
+    static final int BUCKETS = bucketOf(MAX_MICROS) + 1;
+
+    // A power of two, so the stripe is a mask of the thread id.
+    private static final int STRIPES = Integer.highestOneBit(Math.min(4, Runtime.getRuntime().availableProcessors()));
+    // The maximum of each stripe gets a cache line of its own.
+    private static final int MAX_PADDING = 8;
+
+    private final AtomicLongArray counts = new AtomicLongArray(STRIPES * BUCKETS);
+    private final AtomicLongArray maxima = new AtomicLongArray(STRIPES * MAX_PADDING);
+
+    /**
+     * The counts of all stripes added up at one point in time.
+     */
+    public record Snapshot(long[] counts, long total, long maxMicros) {
+        public static Snapshot empty() {
+            return new Snapshot(new long[BUCKETS], 0, 0);
+        }
+
+        public Snapshot merge(Snapshot other) {
+            var merged = counts.clone();
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] += other.counts[i];
+            }
+            return new Snapshot(merged, total + other.total, Math.max(maxMicros, other.maxMicros));
+        }
+
+        /**
+         * @param percentile Between 0 and 100.
+         * @return The highest value of the bucket that holds the percentile, but never more than the maximum.
+         */
+        public long percentileMicros(double percentile) {
+            if (total == 0) return 0;
+
+            var rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+            long seen = 0;
+            for (int bucket = 0; bucket < counts.length; bucket++) {
+                seen += counts[bucket];
+                if (seen >= rank) return Math.min(upperBoundOf(bucket), maxMicros);
+            }
+            return maxMicros;
+        }
+    }
+
+    public void record(long micros) {
+        var value = Math.max(0, Math.min(micros, MAX_MICROS));
+        var stripe = (int) (Thread.currentThread().threadId() & (STRIPES - 1));
+        counts.incrementAndGet(stripe * BUCKETS + bucketOf(value));
+
+        var maxIndex = stripe * MAX_PADDING;
+        long max;
+        while (value > (max = maxima.get(maxIndex)) && !maxima.compareAndSet(maxIndex, max, value)) {
+            // Another request of the same stripe raised the maximum in between; compare again.
+        }
+    }
+
+    /**
+     * Recordings made while the snapshot is taken may or may not be part of it.
+     */
+    public Snapshot snapshot() {
+        var bucketCounts = new long[BUCKETS];
+        long total = 0;
+        long max = 0;
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                var count = counts.get(stripe * BUCKETS + bucket);
+                bucketCounts[bucket] += count;
+                total += count;
+            }
+            max = Math.max(max, maxima.get(stripe * MAX_PADDING));
+        }
+        return new Snapshot(bucketCounts, total, max);
+    }
+
+    static int bucketOf(long micros) {
+        if (micros < LINEAR_BUCKETS) return (int) micros;
+
+        // The highest bit picks the power of two and the next SUB_BUCKET_BITS bits the bucket inside it.
+        var shift = 63 - Long.numberOfLeadingZeros(micros) - SUB_BUCKET_BITS;
+        var subBucket = (int) (micros >>> shift) - SUB_BUCKETS;
+        return LINEAR_BUCKETS + (shift - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBoundOf(int bucket) {
+        if (bucket < LINEAR_BUCKETS) return bucket;
+
+        var shift = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + 1;
+        var subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((long) (subBucket + 1) << shift) - 1;
+    }
+}
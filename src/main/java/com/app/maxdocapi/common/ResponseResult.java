@@ -6,8 +6,8 @@ import org.springframework.http.HttpStatus;
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class ResponseResult<T> {
 
-    private static final String STATUS_SUCCESS = "SUCCESS";
-    private static final String STATUS_ERROR = "ERROR";
+    static final String STATUS_SUCCESS = "SUCCESS";
+    static final String STATUS_ERROR = "ERROR";
 
     private String code;
     private String status;
@@ -29,6 +29,10 @@ public class ResponseResult<T> {
         return new ResponseResult<>(HttpStatus.OK.toString(), STATUS_SUCCESS, description, data);
     }
 
+    public static <T> ResponseResult<T> accepted(T data) {
+        return new ResponseResult<>(HttpStatus.ACCEPTED.toString(), STATUS_SUCCESS, null, data);
+    }
+
     public static <T> ResponseResult<T> error(String code, String description, T data) {
         return new ResponseResult<>(code, STATUS_ERROR, description, data);
     }
@@ -0,0 +1,43 @@
+package com.app.maxdocapi.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The JSON converter of the application: results of documents are written by the {@link ResponseResultJsonWriter}
+ * and everything else by Jackson, as before.
+ */
+public class ResponseResultHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+    private final ResponseResultJsonWriter writer;
+
+    public ResponseResultHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+        this.writer = new ResponseResultJsonWriter(objectMapper.getFactory());
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        if (object instanceof ResponseResult<?> result && isPlainUtf8(outputMessage.getHeaders().getContentType())
+                && writer.supports(result)) {
+            writer.write(result, outputMessage.getBody());
+            return;
+        }
+        super.writeInternal(object, type, outputMessage);
+    }
+
+    /**
+     * The writer only produces compact UTF-8, so indented output and other charsets go through Jackson.
+     */
+    private boolean isPlainUtf8(@Nullable MediaType contentType) {
+        if (getObjectMapper().isEnabled(SerializationFeature.INDENT_OUTPUT)) return false;
+        return contentType == null || contentType.getCharset() == null || StandardCharsets.UTF_8.equals(contentType.getCharset());
+    }
+}
@@ -0,0 +1,199 @@
+package com.app.maxdocapi.common;
+
+import com.app.maxdocapi.enums.Phase;
+import com.app.maxdocapi.models.projections.DocumentListProjection;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a {@link ResponseResult} holding a document, or a {@link ResultPageDto} of documents, straight to the
+ * output stream, producing the same JSON as Jackson would. Field names and constant values are encoded once,
+ * and dates are formatted into a buffer shared by the whole response, so writing a document allocates nothing.
+ * Documents are read through {@link DocumentListProjection}, so query projections can be written as they are.
+ */
+public class ResponseResultJsonWriter {
+    private static final SerializedString CODE = new SerializedString("code");
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString DESCRIPTION = new SerializedString("description");
+    private static final SerializedString DATA = new SerializedString("data");
+
+    private static final SerializedString TOTAL_RESULTS = new SerializedString("totalResults");
+    private static final SerializedString TOTAL_PAGES = new SerializedString("totalPages");
+    private static final SerializedString CURRENT_PAGE = new SerializedString("currentPage");
+    private static final SerializedString RESULT = new SerializedString("result");
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString TITLE = new SerializedString("title");
+    private static final SerializedString ACRONYM = new SerializedString("acronym");
+    private static final SerializedString VERSION = new SerializedString("version");
+    private static final SerializedString PHASE = new SerializedString("phase");
+    private static final SerializedString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializedString UPDATED_AT = new SerializedString("updatedAt");
+
+    private static final List<SerializedString> CONSTANT_VALUES = List.of(
+            new SerializedString(HttpStatus.OK.toString()),
+            new SerializedString(HttpStatus.ACCEPTED.toString()),
+            new SerializedString(ResponseResult.STATUS_SUCCESS),
+            new SerializedString(ResponseResult.STATUS_ERROR));
+    private static final Map<Phase, SerializedString> PHASES = new EnumMap<>(Phase.class);
+
+    static {
+        for (var phase : Phase.values()) {
+            PHASES.put(phase, new SerializedString(phase.name()));
+        }
+    }
+
+    // yyyy-MM-ddTHH:mm:ss.nnnnnnnnn
+    private static final int MAX_DATE_LENGTH = 29;
+
+    private final JsonFactory jsonFactory;
+
+    public ResponseResultJsonWriter(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * Whether the data of the result is a document or a page of documents; the other results are left to Jackson.
+     */
+    public boolean supports(ResponseResult<?> result) {
+        if (result.getData() instanceof DocumentListProjection) return true;
+        if (!(result.getData() instanceof ResultPageDto<?, ?> page) || page.getResult() == null) return false;
+
+        for (var item : page.getResult()) {
+            if (!(item instanceof DocumentListProjection)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Writes the result as UTF-8 JSON; the stream is flushed but not closed.
+     */
+    public void write(ResponseResult<?> result, OutputStream outputStream) throws IOException {
+        try (var generator = jsonFactory.createGenerator(outputStream, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            var dateBuffer = new char[MAX_DATE_LENGTH];
+
+            generator.writeStartObject();
+            writeConstantField(generator, CODE, result.getCode());
+            writeConstantField(generator, STATUS, result.getStatus());
+            // ResponseResult leaves out its null fields.
+            if (result.getDescription() != null) {
+                generator.writeFieldName(DESCRIPTION);
+                generator.writeString(result.getDescription());
+            }
+            generator.writeFieldName(DATA);
+            if (result.getData() instanceof ResultPageDto<?, ?> page) {
+                writePage(generator, page, dateBuffer);
+            } else {
+                writeDocument(generator, (DocumentListProjection) result.getData(), dateBuffer);
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    private static void writePage(JsonGenerator generator, ResultPageDto<?, ?> page, char[] dateBuffer) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(TOTAL_RESULTS);
+        generator.writeNumber(page.getTotalResults());
+        generator.writeFieldName(TOTAL_PAGES);
+        generator.writeNumber(page.getTotalPages());
+        generator.writeFieldName(CURRENT_PAGE);
+        generator.writeNumber(page.getCurrentPage());
+        generator.writeFieldName(RESULT);
+        generator.writeStartArray();
+        for (var item : page.getResult()) {
+            writeDocument(generator, (DocumentListProjection) item, dateBuffer);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private static void writeDocument(JsonGenerator generator, DocumentListProjection document, char[] dateBuffer) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        if (document.getId() == null) generator.writeNull();
+        else generator.writeNumber(document.getId());
+        generator.writeFieldName(TITLE);
+        generator.writeString(document.getTitle());
+        generator.writeFieldName(DESCRIPTION);
+        generator.writeString(document.getDescription());
+        generator.writeFieldName(ACRONYM);
+        generator.writeString(document.getAcronym());
+        generator.writeFieldName(VERSION);
+        generator.writeNumber(document.getVersion());
+        generator.writeFieldName(PHASE);
+        if (document.getPhase() == null) generator.writeNull();
+        else generator.writeString(PHASES.get(document.getPhase()));
+        generator.writeFieldName(CREATED_AT);
+        writeDate(generator, document.getCreatedAt(), dateBuffer);
+        generator.writeFieldName(UPDATED_AT);
+        writeDate(generator, document.getUpdatedAt(), dateBuffer);
+        generator.writeEndObject();
+    }
+
+    private static void writeConstantField(JsonGenerator generator, SerializedString name, String value) throws IOException {
+        if (value == null) return;
+
+        generator.writeFieldName(name);
+        for (var constant : CONSTANT_VALUES) {
+            if (constant.getValue().equals(value)) {
+                generator.writeString(constant);
+                return;
+            }
+        }
+        generator.writeString(value);
+    }
+
+    /**
+     * Writes the date like {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}, which Jackson uses for it:
+     * the seconds are always written and the fraction without its trailing zeros.
+     */
+    private static void writeDate(JsonGenerator generator, LocalDateTime date, char[] buffer) throws IOException {
+        if (date == null) {
+            generator.writeNull();
+            return;
+        }
+        // Years that need a sign or more than four digits are rare enough to be left to the formatter.
+        if (date.getYear() < 0 || date.getYear() > 9999) {
+            generator.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(date));
+            return;
+        }
+
+        var length = writeDigits(buffer, 0, date.getYear(), 4);
+        buffer[length++] = '-';
+        length = writeDigits(buffer, length, date.getMonthValue(), 2);
+        buffer[length++] = '-';
+        length = writeDigits(buffer, length, date.getDayOfMonth(), 2);
+        buffer[length++] = 'T';
+        length = writeDigits(buffer, length, date.getHour(), 2);
+        buffer[length++] = ':';
+        length = writeDigits(buffer, length, date.getMinute(), 2);
+        buffer[length++] = ':';
+        length = writeDigits(buffer, length, date.getSecond(), 2);
+        if (date.getNano() != 0) {
+            buffer[length++] = '.';
+            length = writeDigits(buffer, length, date.getNano(), 9);
+            while (buffer[length - 1] == '0') length--;
+        }
+        generator.writeString(buffer, 0, length);
+    }
+
+    private static int writeDigits(char[] buffer, int offset, int value, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return offset + digits;
+    }
+}
@@ -0,0 +1,39 @@
+package com.app.maxdocapi.common;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A {@link LatencyHistogram} per minute for the last {@link #MAX_WINDOW_MINUTES} minutes, in a ring: the first
+ * recording of a new minute replaces the histogram of the minute that left the window. A window of N minutes is
+ * the current minute and the N - 1 before it. Minutes are given as indexes that grow by one every minute.
+ */
+public class RollingLatencyHistogram {
+    public static final int MAX_WINDOW_MINUTES = 15;
+
+    private record Minute(long index, LatencyHistogram histogram) {
+    }
+
+    private final AtomicReferenceArray<Minute> minutes = new AtomicReferenceArray<>(MAX_WINDOW_MINUTES);
+
+    public void record(long micros, long minuteIndex) {
+        var slot = (int) Math.floorMod(minuteIndex, MAX_WINDOW_MINUTES);
+        var minute = minutes.get(slot);
+        if (minute == null || minute.index() < minuteIndex) {
+            var next = new Minute(minuteIndex, new LatencyHistogram());
+            // Whoever loses the race records into the histogram the winner put in place.
+            minute = minutes.compareAndSet(slot, minute, next) ? next : minutes.get(slot);
+        }
+        minute.histogram().record(micros);
+    }
+
+    public LatencyHistogram.Snapshot snapshot(int windowMinutes, long minuteIndex) {
+        var snapshot = LatencyHistogram.Snapshot.empty();
+        for (int slot = 0; slot < MAX_WINDOW_MINUTES; slot++) {
+            var minute = minutes.get(slot);
+            if (minute != null && minute.index() <= minuteIndex && minute.index() > minuteIndex - windowMinutes) {
+                snapshot = snapshot.merge(minute.histogram().snapshot());
+            }
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,29 @@
+package com.app.maxdocapi.common;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * The normalization applied to searchable text, both when it is stored and when it is searched for:
+ * accents are removed, letters are lower-cased and surrounding whitespace is trimmed.
+ * Stored values and search input must go through the same method for the comparisons to match.
+ */
+public final class SearchNormalizer {
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private SearchNormalizer() {
+    }
+
+    /**
+     * @param value The text to normalize.
+     * @return The normalized text, or an empty string when the value is null.
+     */
+    public static String normalize(String value) {
+        if (value == null) return "";
+
+        // Decomposes accented letters (é -> e + ´) so that the accents can be dropped.
+        var decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT).trim();
+    }
+}
@@ -0,0 +1,71 @@
+package com.app.maxdocapi.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key: the first caller runs the loader and every caller
+ * that arrives while it is still running waits for and shares its result (or its exception).
+ * Nothing is kept once the call completes, so this is not a cache.
+ * <p>
+ * Shared results must be safe to hand to several threads, i.e. not managed JPA entities.
+ *
+ * @param <K> The key type; it must implement equals and hashCode.
+ * @param <V> The result type.
+ */
+public class SingleFlight<K, V> {
+    public static final String METRIC_NAME = "app.single.flight.calls";
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter deduplicated;
+
+    public SingleFlight(String operation, MeterRegistry meterRegistry) {
+        this.executed = Counter.builder(METRIC_NAME)
+                .description("Calls that went through coalescing")
+                .tag("operation", operation)
+                .tag("result", "executed")
+                .register(meterRegistry);
+        this.deduplicated = Counter.builder(METRIC_NAME)
+                .description("Calls that went through coalescing")
+                .tag("operation", operation)
+                .tag("result", "deduplicated")
+                .register(meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        var call = new CompletableFuture<V>();
+        var existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            deduplicated.increment();
+            return await(existing);
+        }
+
+        executed.increment();
+        try {
+            var result = loader.get();
+            call.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            // Rethrow the leader's exception as is, so that e.g. a NotFoundException still maps to 404.
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.app.maxdocapi.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An inverted index from character trigrams to the ordinals of the entries containing them.
+ * Each posting list is a sorted primitive int array, so lookups intersect arrays instead of sets.
+ * <p>
+ * Besides the trigrams of the text itself, the start of every word is indexed as "  a" and " ab",
+ * which lets queries of one or two characters match word prefixes.
+ * Candidates are a superset of the matches and must be verified against the text.
+ * <p>
+ * Not thread-safe; callers guard it.
+ */
+public class TrigramIndex {
+    private static final int INITIAL_POSTINGS_CAPACITY = 4;
+    private static final int[] NO_ORDINALS = new int[0];
+
+    private final Map<Long, Postings> postingsByGram = new HashMap<>();
+
+    /**
+     * @param ordinal The entry ordinal.
+     * @param text The normalized text of the entry.
+     */
+    public void add(int ordinal, String text) {
+        for (var gram : gramsOf(text)) {
+            postingsByGram.computeIfAbsent(gram, it -> new Postings()).add(ordinal);
+        }
+    }
+
+    /**
+     * @param ordinal The entry ordinal.
+     * @param text The same normalized text the entry was added with.
+     */
+    public void remove(int ordinal, String text) {
+        for (var gram : gramsOf(text)) {
+            var postings = postingsByGram.get(gram);
+            if (postings == null) continue;
+
+            postings.remove(ordinal);
+            if (postings.size == 0) postingsByGram.remove(gram);
+        }
+    }
+
+    /**
+     * @param query The normalized query, at least one character long.
+     * @return The sorted ordinals of the entries that may contain the query
+     *         (or, for queries shorter than three characters, a word starting with it).
+     */
+    public int[] candidates(String query) {
+        var lists = new ArrayList<Postings>();
+        for (var gram : query.length() < 3 ? prefixGramsOf(query) : trigramsOf(query)) {
+            var postings = postingsByGram.get(gram);
+            if (postings == null) return NO_ORDINALS;
+            lists.add(postings);
+        }
+
+        // Intersecting from the shortest list keeps every step at most as long as that list.
+        lists.sort(Comparator.comparingInt(it -> it.size));
+        var result = Arrays.copyOf(lists.get(0).ordinals, lists.get(0).size);
+        var size = result.length;
+        for (int i = 1; i < lists.size() && size > 0; i++) {
+            size = intersect(result, size, lists.get(i));
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    public int gramCount() {
+        return postingsByGram.size();
+    }
+
+    /**
+     * Keeps in {@code result} only the ordinals also present in {@code other}.
+     *
+     * @return The new number of ordinals in {@code result}.
+     */
+    private static int intersect(int[] result, int size, Postings other) {
+        var kept = 0;
+        var from = 0;
+        for (int i = 0; i < size; i++) {
+            var position = Arrays.binarySearch(other.ordinals, from, other.size, result[i]);
+            if (position >= 0) {
+                result[kept++] = result[i];
+                from = position + 1;
+            } else {
+                from = -position - 1;
+            }
+        }
+        return kept;
+    }
+
+    private static Set<Long> gramsOf(String text) {
+        var grams = trigramsOf(text);
+        var wordStart = true;
+        for (int i = 0; i < text.length(); i++) {
+            var c = text.charAt(i);
+            if (c == ' ') {
+                wordStart = true;
+            } else if (wordStart) {
+                grams.addAll(prefixGramsOf(text.substring(i, Math.min(text.length(), i + 2))));
+                wordStart = false;
+            }
+        }
+        return grams;
+    }
+
+    private static Set<Long> trigramsOf(String text) {
+        var grams = new LinkedHashSet<Long>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            grams.add(gram(text.charAt(i), text.charAt(i + 1), text.charAt(i + 2)));
+        }
+        return grams;
+    }
+
+    private static Set<Long> prefixGramsOf(String prefix) {
+        var grams = new LinkedHashSet<Long>();
+        grams.add(gram(' ', ' ', prefix.charAt(0)));
+        if (prefix.length() > 1) grams.add(gram(' ', prefix.charAt(0), prefix.charAt(1)));
+        return grams;
+    }
+
+    private static long gram(char first, char second, char third) {
+        return ((long) first << 32) | ((long) second << 16) | third;
+    }
+
+    /**
+     * A sorted, growable array of ordinals.
+     */
+    private static final class Postings {
+        private int[] ordinals = new int[INITIAL_POSTINGS_CAPACITY];
+        private int size;
+
+        private void add(int ordinal) {
+            // New entries get increasing ordinals, so appending is the common case.
+            if (size == 0 || ordinals[size - 1] < ordinal) {
+                grow();
+                ordinals[size++] = ordinal;
+                return;
+            }
+
+            var position = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (position >= 0) return;
+
+            var insertAt = -position - 1;
+            grow();
+            System.arraycopy(ordinals, insertAt, ordinals, insertAt + 1, size - insertAt);
+            ordinals[insertAt] = ordinal;
+            size++;
+        }
+
+        private void remove(int ordinal) {
+            var position = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (position < 0) return;
+
+            System.arraycopy(ordinals, position + 1, ordinals, position, size - position - 1);
+            size--;
+        }
+
+        private void grow() {
+            if (size == ordinals.length) ordinals = Arrays.copyOf(ordinals, size * 2);
+        }
+    }
+}
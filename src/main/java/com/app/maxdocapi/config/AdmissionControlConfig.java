@@ -0,0 +1,23 @@
+package com.app.maxdocapi.config;
+
+import com.app.maxdocapi.Routes;
+import com.app.maxdocapi.filters.AdmissionControlFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(AdmissionControlProperties.class)
+public class AdmissionControlConfig {
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(AdmissionControlProperties properties, ObjectMapper objectMapper) {
+        var registration = new FilterRegistrationBean<>(new AdmissionControlFilter(properties, objectMapper));
+        registration.addUrlPatterns(Routes.root + "/*");
+        // Rejections must happen before any other filter does work for the request; only the latency is measured first.
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,45 @@
+package com.app.maxdocapi.config;
+
+import com.app.maxdocapi.enums.RouteGroup;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Limits of the admission-control layer, one entry per {@link RouteGroup}.
+ *
+ * @param enabled Whether requests go through admission control at all.
+ * @param groups The limits of each route group; groups without an entry use {@link GroupLimits#DEFAULT}.
+ */
+@ConfigurationProperties(prefix = "app.admission")
+public record AdmissionControlProperties(
+        @DefaultValue("true") boolean enabled,
+        Map<RouteGroup, GroupLimits> groups) {
+
+    public GroupLimits limitsOf(RouteGroup group) {
+        return groups == null ? GroupLimits.DEFAULT : groups.getOrDefault(group, GroupLimits.DEFAULT);
+    }
+
+    /**
+     * @param initialLimit The number of concurrent requests admitted before any latency is observed.
+     * @param minLimit The lower bound of the adaptive limit.
+     * @param maxLimit The upper bound of the adaptive limit.
+     * @param queueSize How many requests may wait for a slot; beyond that they are rejected with 429.
+     * @param maxWait How long a queued request waits for a slot before being rejected with 503.
+     * @param targetLatency The latency above which the limit is lowered.
+     * @param retryAfter The value of the Retry-After header sent with rejections.
+     */
+    public record GroupLimits(
+            @DefaultValue("10") int initialLimit,
+            @DefaultValue("1") int minLimit,
+            @DefaultValue("20") int maxLimit,
+            @DefaultValue("50") int queueSize,
+            @DefaultValue("500ms") Duration maxWait,
+            @DefaultValue("200ms") Duration targetLatency,
+            @DefaultValue("1s") Duration retryAfter) {
+
+        public static final GroupLimits DEFAULT = new GroupLimits(10, 1, 20, 50, Duration.ofMillis(500), Duration.ofMillis(200), Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,22 @@
+package com.app.maxdocapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the bulk jobs.
+ *
+ * @param workerThreads How many jobs run at the same time on each node.
+ * @param chunkSize How many items are handled between checks for cancellation.
+ * @param maxItems The largest number of items a job may have.
+ * @param lease How long a node keeps a job without renewing the lease before another node may take it over.
+ */
+@ConfigurationProperties(prefix = "app.jobs")
+public record BulkJobProperties(
+        @DefaultValue("2") int workerThreads,
+        @DefaultValue("50") int chunkSize,
+        @DefaultValue("10000") int maxItems,
+        @DefaultValue("1m") Duration lease) {
+}
@@ -0,0 +1,26 @@
+package com.app.maxdocapi.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheInvalidationProperties.class)
+public class CacheConfig {
+    public static final String DOCUMENT_FACETS = "documentFacets";
+    public static final String DOCUMENTS = "documents";
+
+    /**
+     * The document cache holds one entry per id, so it gets its own size instead of the shared spec.
+     */
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> documentCacheCustomizer(@Value("${app.cache.documents.spec}") String spec) {
+        return cacheManager -> cacheManager.registerCustomCache(DOCUMENTS, Caffeine.from(spec).build());
+    }
+}
@@ -0,0 +1,17 @@
+package com.app.maxdocapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the invalidations sent to the other app nodes.
+ *
+ * @param enabled Whether committed writes are broadcast to the other nodes and theirs applied here.
+ * @param maxPending How many document ids and acronyms may wait for the next batch; beyond that the other nodes
+ *                   are told to empty their caches entirely instead.
+ */
+@ConfigurationProperties(prefix = "app.cache-invalidation")
+public record CacheInvalidationProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10000") int maxPending) {
+}
@@ -0,0 +1,20 @@
+package com.app.maxdocapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * Settings of the files attached to the document versions.
+ *
+ * @param directory The root of the content-addressed store on the local disk; with several nodes, a volume
+ *                  shared by all of them.
+ * @param maxSize The largest file accepted; larger uploads are aborted once they reach it.
+ */
+@ConfigurationProperties(prefix = "app.documents.files")
+public record DocumentFileProperties(
+        @DefaultValue("document-files") Path directory,
+        @DefaultValue("512MB") DataSize maxSize) {
+}
@@ -0,0 +1,28 @@
+package com.app.maxdocapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of the job that deletes old OBSOLETE versions.
+ *
+ * @param enabled Whether the scheduled runs delete anything.
+ * @param keepObsolete How many of the most recent OBSOLETE versions of each acronym are kept.
+ * @param batchSize How many versions are deleted per transaction.
+ * @param pauseBetweenBatches How long the job waits after each batch, so that it never competes with the regular traffic for long.
+ * @param maxReplicationLag The replica lag above which the job waits before deleting the next batch; null to not check it.
+ * @param exportDirectory The directory where the deleted versions are written, one JSON line each, before they are deleted;
+ *                        null to delete without exporting.
+ */
+@ConfigurationProperties(prefix = "app.documents.retention")
+public record DocumentRetentionProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("10") int keepObsolete,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("200ms") Duration pauseBetweenBatches,
+        Duration maxReplicationLag,
+        Path exportDirectory) {
+}
@@ -0,0 +1,22 @@
+package com.app.maxdocapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of the snapshots of the in-memory document read model.
+ *
+ * @param enabled Whether snapshots are written and used to warm-start the node.
+ * @param file Where the snapshot is kept on the local disk.
+ * @param replayOverlap How far before the snapshot the changed documents are read again at startup, to cover the
+ *                      writes that committed late and the clock differences between the nodes.
+ */
+@ConfigurationProperties(prefix = "app.documents.snapshot")
+public record DocumentSnapshotProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("documents.snapshot") Path file,
+        @DefaultValue("1m") Duration replayOverlap) {
+}
@@ -0,0 +1,15 @@
+package com.app.maxdocapi.config;
+
+import com.app.maxdocapi.services.files.ContentAddressedFileStore;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(DocumentFileProperties.class)
+public class FileStorageConfig {
+    @Bean
+    public ContentAddressedFileStore contentAddressedFileStore(DocumentFileProperties properties) {
+        return new ContentAddressedFileStore(properties.directory(), properties.maxSize().toBytes());
+    }
+}
@@ -0,0 +1,17 @@
+package com.app.maxdocapi.config;
+
+import com.app.maxdocapi.common.ResponseResultHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JsonConfig {
+    /**
+     * Replaces the Jackson converter that Spring Boot would otherwise register.
+     */
+    @Bean
+    public ResponseResultHttpMessageConverter responseResultHttpMessageConverter(ObjectMapper objectMapper) {
+        return new ResponseResultHttpMessageConverter(objectMapper);
+    }
+}
@@ -0,0 +1,38 @@
+package com.app.maxdocapi.config;
+
+import com.app.maxdocapi.services.outbox.DocumentEventSink;
+import com.app.maxdocapi.services.outbox.FileDocumentEventSink;
+import com.app.maxdocapi.services.outbox.HttpDocumentEventSink;
+import com.app.maxdocapi.services.outbox.LogDocumentEventSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Selects the sink of the outbox with app.outbox.sink.
+ */
+@Configuration
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.outbox", name = "sink", havingValue = "log", matchIfMissing = true)
+    public DocumentEventSink logDocumentEventSink() {
+        return new LogDocumentEventSink();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.outbox", name = "sink", havingValue = "file")
+    public DocumentEventSink fileDocumentEventSink(OutboxProperties properties, ObjectMapper objectMapper) {
+        return new FileDocumentEventSink(properties.file(), objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.outbox", name = "sink", havingValue = "http")
+    public DocumentEventSink httpDocumentEventSink(OutboxProperties properties, RestClient.Builder restClientBuilder) {
+        return new HttpDocumentEventSink(properties.httpUrl(), properties.httpTimeout(), restClientBuilder);
+    }
+}
@@ -0,0 +1,32 @@
+package com.app.maxdocapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of the outbox of document changes.
+ *
+ * @param enabled Whether changes are written to the outbox and relayed.
+ * @param sink Where the changes are delivered: log, file or http.
+ * @param batchSize How many changes are claimed and delivered at once.
+ * @param retryBackoff How long a failed batch waits before its first retry; it doubles on every failure.
+ * @param maxRetryBackoff The longest wait between two retries.
+ * @param file The JSON lines file the file sink appends to.
+ * @param httpUrl The endpoint the http sink posts each batch to, as a JSON array.
+ * @param httpTimeout How long the http sink waits for the endpoint.
+ */
+@ConfigurationProperties(prefix = "app.outbox")
+public record OutboxProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("log") String sink,
+        @DefaultValue("100") int batchSize,
+        @DefaultValue("5s") Duration retryBackoff,
+        @DefaultValue("5m") Duration maxRetryBackoff,
+        @DefaultValue("document-events.jsonl") Path file,
+        URI httpUrl,
+        @DefaultValue("5s") Duration httpTimeout) {
+}
@@ -0,0 +1,23 @@
+package com.app.maxdocapi.config;
+
+import com.app.maxdocapi.Routes;
+import com.app.maxdocapi.filters.RouteLatencyFilter;
+import com.app.maxdocapi.services.RouteLatencyService;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(RouteLatencyProperties.class)
+public class RouteLatencyConfig {
+    @Bean
+    public FilterRegistrationBean<RouteLatencyFilter> routeLatencyFilter(RouteLatencyProperties properties, RouteLatencyService routeLatencyService) {
+        var registration = new FilterRegistrationBean<>(new RouteLatencyFilter(properties, routeLatencyService));
+        registration.addUrlPatterns(Routes.root + "/*");
+        // Around the admission control, so the time spent waiting for a slot and the rejections are recorded too.
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,14 @@
+package com.app.maxdocapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the per-route latency histograms.
+ *
+ * @param enabled Whether the latency of each request is recorded.
+ */
+@ConfigurationProperties(prefix = "app.route-latency")
+public record RouteLatencyProperties(
+        @DefaultValue("true") boolean enabled) {
+}
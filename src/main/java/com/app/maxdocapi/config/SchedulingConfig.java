@@ -0,0 +1,11 @@
+package com.app.maxdocapi.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties({DocumentRetentionProperties.class, BulkJobProperties.class, DocumentSnapshotProperties.class})
+public class SchedulingConfig {
+}
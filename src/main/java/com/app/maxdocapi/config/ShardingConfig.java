@@ -0,0 +1,123 @@
+package com.app.maxdocapi.config;
+
+import com.app.maxdocapi.database.sharding.HibernateMetadataCapture;
+import com.app.maxdocapi.database.sharding.ShardRouter;
+import com.app.maxdocapi.database.sharding.ShardRoutingDataSource;
+import com.app.maxdocapi.database.sharding.ShardSchemaInitializer;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.sql.init.DatabaseInitializationMode;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.ImportBeanDefinitionRegistrar;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    /**
+     * Replaces the regular datasource with one that routes each connection to the shard chosen by the {@link ShardRouter}.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+    @Import(ShardDataSourceRegistrar.class)
+    static class ShardedDataSourceConfig {
+        @Bean
+        @Primary
+        public DataSource dataSource(ShardingProperties properties, BeanFactory beanFactory) {
+            var shards = new ArrayList<DataSource>();
+            for (int i = 0; i < properties.shards().size(); i++) {
+                shards.add(beanFactory.getBean(ShardDataSourceRegistrar.beanNameOf(i), DataSource.class));
+            }
+            var routingDataSource = new ShardRoutingDataSource(shards);
+            routingDataSource.afterPropertiesSet();
+            return new LazyConnectionDataSourceProxy(routingDataSource);
+        }
+
+        @Bean
+        public HibernateMetadataCapture hibernateMetadataCapture() {
+            return new HibernateMetadataCapture();
+        }
+
+        @Bean
+        public HibernatePropertiesCustomizer hibernateMetadataCaptureCustomizer(HibernateMetadataCapture metadataCapture) {
+            return properties -> properties.put(JpaSettings.INTEGRATOR_PROVIDER, (IntegratorProvider) () -> List.of(metadataCapture));
+        }
+
+        @Bean
+        public ShardSchemaInitializer shardSchemaInitializer(ShardRouter shardRouter, DataSource dataSource, HibernateMetadataCapture metadataCapture,
+                                                             @Value("${spring.sql.init.mode:embedded}") DatabaseInitializationMode sqlInitMode) {
+            return new ShardSchemaInitializer(shardRouter, dataSource, metadataCapture, sqlInitMode != DatabaseInitializationMode.NEVER);
+        }
+    }
+
+    /**
+     * Registers one pooled datasource per shard, named shard0DataSource, shard1DataSource and so on.
+     * A datasource that is already defined under that name is kept.
+     */
+    static class ShardDataSourceRegistrar implements ImportBeanDefinitionRegistrar, EnvironmentAware {
+        private Environment environment;
+
+        static String beanNameOf(int shard) {
+            return "shard" + shard + "DataSource";
+        }
+
+        @Override
+        public void setEnvironment(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public void registerBeanDefinitions(AnnotationMetadata importingClassMetadata, BeanDefinitionRegistry registry) {
+            // A request-scoped EntityManager keeps the connection of the first shard it touches for the whole request.
+            if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+                throw new IllegalStateException("Sharding requires spring.jpa.open-in-view=false");
+            }
+
+            var properties = Binder.get(environment).bindOrCreate("app.sharding", ShardingProperties.class);
+            for (int i = 0; i < properties.shards().size(); i++) {
+                var beanName = beanNameOf(i);
+                if (registry.containsBeanDefinition(beanName)) continue;
+
+                var shard = properties.shards().get(i);
+                var definition = BeanDefinitionBuilder.genericBeanDefinition(HikariDataSource.class, () -> createDataSource(beanName, shard))
+                        .setDestroyMethodName(AbstractBeanDefinition.INFER_METHOD)
+                        .getBeanDefinition();
+                registry.registerBeanDefinition(beanName, definition);
+            }
+        }
+
+        private static HikariDataSource createDataSource(String poolName, ShardingProperties.Shard shard) {
+            var dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.url())
+                    .username(shard.username())
+                    .password(shard.password())
+                    .build();
+            dataSource.setPoolName(poolName);
+            dataSource.setMaximumPoolSize(shard.maximumPoolSize());
+            return dataSource;
+        }
+    }
+}
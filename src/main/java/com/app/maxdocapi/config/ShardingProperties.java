@@ -0,0 +1,36 @@
+package com.app.maxdocapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Databases the documents are split across when sharding is enabled.
+ *
+ * @param enabled Whether documents are split across the shards; otherwise the regular datasource is used.
+ * @param shards The connection settings of every shard, in shard order. The first one also coordinates
+ *               the nodes. The list cannot be reordered or resized without moving the documents.
+ */
+@ConfigurationProperties(prefix = "app.sharding")
+public record ShardingProperties(
+        @DefaultValue("false") boolean enabled,
+        List<Shard> shards) {
+
+    public ShardingProperties {
+        shards = shards == null ? List.of() : List.copyOf(shards);
+    }
+
+    /**
+     * @param url The JDBC URL of the shard.
+     * @param username The user of the shard.
+     * @param password The password of the shard.
+     * @param maximumPoolSize The size of the connection pool of the shard.
+     */
+    public record Shard(
+            String url,
+            String username,
+            String password,
+            @DefaultValue("10") int maximumPoolSize) {
+    }
+}
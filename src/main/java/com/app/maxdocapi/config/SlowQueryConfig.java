@@ -0,0 +1,64 @@
+package com.app.maxdocapi.config;
+
+import com.app.maxdocapi.database.monitoring.SlowQueryInterceptor;
+import com.app.maxdocapi.database.monitoring.StatementCapture;
+import com.app.maxdocapi.services.SlowQueryService;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(SlowQueryProperties.class)
+public class SlowQueryConfig {
+
+    /**
+     * Wraps the DataSource so that the statements run during a repository call, with their parameters, can be captured.
+     * Data sources that only hand out the connections of another one are skipped, so each statement is captured once.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.slow-queries", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public static BeanPostProcessor statementCaptureDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)
+                        && !(bean instanceof DelegatingDataSource) && !(bean instanceof AbstractRoutingDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new StatementCapture())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Adds the {@link SlowQueryInterceptor} to every Spring Data repository before it is created.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.slow-queries", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public static BeanPostProcessor slowQueryRepositoryPostProcessor(ObjectProvider<SlowQueryService> slowQueryService) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(
+                                    new SlowQueryInterceptor(repositoryInformation.getRepositoryInterface(), slowQueryService))));
+                }
+                return bean;
+            }
+        };
+    }
+}
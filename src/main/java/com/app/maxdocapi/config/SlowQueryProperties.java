@@ -0,0 +1,25 @@
+package com.app.maxdocapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the slow-query capture around the repositories.
+ *
+ * @param enabled Whether repository calls and their SQL statements are captured at all.
+ * @param threshold The duration from which a repository call is recorded.
+ * @param explainSampleRate The fraction of recorded calls, between 0 and 1, whose slowest SELECT is run again
+ *                          with EXPLAIN (ANALYZE, BUFFERS) to capture its plan.
+ * @param bufferSize How many recorded calls are kept; the oldest are dropped first.
+ * @param redactParameters Whether bound parameter values are hidden from the records.
+ */
+@ConfigurationProperties(prefix = "app.slow-queries")
+public record SlowQueryProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("500ms") Duration threshold,
+        @DefaultValue("0.1") double explainSampleRate,
+        @DefaultValue("100") int bufferSize,
+        @DefaultValue("true") boolean redactParameters) {
+}
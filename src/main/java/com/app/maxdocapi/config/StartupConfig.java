@@ -0,0 +1,38 @@
+package com.app.maxdocapi.config;
+
+import com.app.maxdocapi.Routes;
+import com.app.maxdocapi.filters.FirstRequestTimingFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class StartupConfig {
+
+    /**
+     * Keeps some beans eager when {@code spring.main.lazy-initialization} is on, as in the fast-start profile.
+     * The datasource and Hibernate are needed by the first request anyway and must fail the startup, not that request,
+     * when the schema does not match; the callbacks of a {@link SmartInitializingSingleton} only run for eager beans.
+     * Scheduled beans are already kept eager by Spring Boot.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(DataSource.class, EntityManagerFactory.class, SmartInitializingSingleton.class);
+    }
+
+    @Bean
+    public FilterRegistrationBean<FirstRequestTimingFilter> firstRequestTimingFilter(MeterRegistry meterRegistry) {
+        var registration = new FilterRegistrationBean<>(new FirstRequestTimingFilter(meterRegistry));
+        registration.addUrlPatterns(Routes.root + "/*");
+        // Right inside the admission control, so the first request is only counted once it is fully served.
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
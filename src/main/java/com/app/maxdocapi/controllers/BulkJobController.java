@@ -0,0 +1,42 @@
+package com.app.maxdocapi.controllers;
+
+import com.app.maxdocapi.Routes;
+import com.app.maxdocapi.common.ResponseResult;
+import com.app.maxdocapi.models.records.BulkJobDto;
+import com.app.maxdocapi.models.records.BulkJobRequestDto;
+import com.app.maxdocapi.services.BulkJobService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+@RestController
+public class BulkJobController {
+    private final BulkJobService bulkJobService;
+
+    public BulkJobController(final BulkJobService bulkJobService) {
+        this.bulkJobService = bulkJobService;
+    }
+
+    @PostMapping(value = Routes.Jobs.path)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ResponseResult<BulkJobDto> submit(@RequestBody @Valid BulkJobRequestDto dto) {
+        return ResponseResult.accepted(bulkJobService.submit(dto));
+    }
+
+    @GetMapping(value = Routes.Jobs.ById.path)
+    public ResponseResult<BulkJobDto> findById(@PathVariable Long id) {
+        return ResponseResult.success(bulkJobService.findById(id));
+    }
+
+    @PostMapping(value = Routes.Jobs.ById.Cancel.path)
+    public ResponseResult<BulkJobDto> cancel(@PathVariable Long id) {
+        return ResponseResult.success(bulkJobService.cancel(id));
+    }
+}
@@ -0,0 +1,25 @@
+package com.app.maxdocapi.controllers;
+
+import com.app.maxdocapi.Routes;
+import com.app.maxdocapi.services.DocumentChangeFeedService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+@RestController
+public class DocumentChangeController {
+    private final DocumentChangeFeedService documentChangeFeedService;
+
+    public DocumentChangeController(final DocumentChangeFeedService documentChangeFeedService) {
+        this.documentChangeFeedService = documentChangeFeedService;
+    }
+
+    @GetMapping(value = Routes.Documents.Changes.path, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return documentChangeFeedService.subscribe(lastEventId);
+    }
+}
@@ -5,10 +5,17 @@ import com.app.maxdocapi.common.ResponseResult;
 import com.app.maxdocapi.common.ResultPageDto;
 import com.app.maxdocapi.models.dtos.DocumentCreateDto;
 import com.app.maxdocapi.models.projections.AcronymGroupListProjection;
-import com.app.maxdocapi.models.projections.DocumentListProjection;
 import com.app.maxdocapi.models.dtos.DocumentListDto;
+import com.app.maxdocapi.models.records.AcronymSuggestionDto;
+import com.app.maxdocapi.models.records.DocumentBatchDto;
+import com.app.maxdocapi.models.records.DocumentBatchRequestDto;
 import com.app.maxdocapi.models.records.DocumentEditInfoDto;
+import com.app.maxdocapi.models.records.DocumentFacetsDto;
+import com.app.maxdocapi.models.records.DocumentLineageDto;
+import com.app.maxdocapi.models.records.DocumentSuggestionDto;
+import com.app.maxdocapi.services.AcronymAutocompleteService;
 import com.app.maxdocapi.services.DocumentService;
+import com.app.maxdocapi.services.DocumentTypeaheadService;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Sort;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -20,25 +27,47 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @CrossOrigin(origins = "*", allowedHeaders = "*")
 @RestController
 public class DocumentController {
     private final DocumentService documentService;
+    private final DocumentTypeaheadService documentTypeaheadService;
+    private final AcronymAutocompleteService acronymAutocompleteService;
 
-    public DocumentController(final DocumentService documentService) {
+    public DocumentController(final DocumentService documentService,
+                              final DocumentTypeaheadService documentTypeaheadService,
+                              final AcronymAutocompleteService acronymAutocompleteService) {
         this.documentService = documentService;
+        this.documentTypeaheadService = documentTypeaheadService;
+        this.acronymAutocompleteService = acronymAutocompleteService;
     }
 
     @GetMapping(value = Routes.Documents.path)
-    public ResponseResult<ResultPageDto<DocumentListProjection, DocumentListProjection>> findAllPaginated(
+    public ResponseResult<ResultPageDto<?, ?>> findAllPaginated(
             @RequestParam(required = false, defaultValue = "") String title,
             @RequestParam(required = false, defaultValue = "") String acronym,
             @RequestParam(required = false, defaultValue = "") String phase,
+            @RequestParam(required = false, defaultValue = "") String fields,
             @RequestParam(required = false, defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "10") int itemsPerPage,
             @RequestParam(required = false, defaultValue = "DESC") Sort.Direction sortDirection
     ) {
-        return ResponseResult.success(new ResultPageDto<>(documentService.findAllPaginated(title, acronym, phase, page, itemsPerPage, sortDirection)));
+        if (fields.isBlank()) {
+            return ResponseResult.success(new ResultPageDto<>(documentService.findAllPaginated(title, acronym, phase, page, itemsPerPage, sortDirection)));
+        }
+        return ResponseResult.success(new ResultPageDto<>(documentService.findAllPaginated(title, acronym, phase, fields, page, itemsPerPage, sortDirection)));
+    }
+
+    @GetMapping(value = Routes.Documents.path, params = "ids")
+    public ResponseResult<DocumentBatchDto> findAllByIds(@RequestParam List<Long> ids) {
+        return ResponseResult.success(documentService.findAllByIds(ids));
+    }
+
+    @PostMapping(value = Routes.Documents.Batch.path)
+    public ResponseResult<DocumentBatchDto> findAllByIds(@RequestBody @Valid DocumentBatchRequestDto dto) {
+        return ResponseResult.success(documentService.findAllByIds(dto.ids()));
     }
 
     @GetMapping(value = Routes.Documents.Acronym.path)
@@ -50,28 +79,62 @@ public class DocumentController {
         return ResponseResult.success(new ResultPageDto<>(documentService.findAllGroupedByAcronym(page, itemsPerPage, sortDirection)));
     }
 
+    @GetMapping(value = Routes.Documents.Acronyms.path)
+    public ResponseResult<List<AcronymSuggestionDto>> suggestAcronyms(
+            @RequestParam(required = false, defaultValue = "") String prefix,
+            @RequestParam(required = false, defaultValue = "10") int limit
+    ) {
+        return ResponseResult.success(acronymAutocompleteService.suggest(prefix, limit));
+    }
+
+    @GetMapping(value = Routes.Documents.Facets.path)
+    public ResponseResult<DocumentFacetsDto> findFacets(
+            @RequestParam(required = false, defaultValue = "") String title,
+            @RequestParam(required = false, defaultValue = "") String acronym,
+            @RequestParam(required = false, defaultValue = "10") int acronymLimit
+    ) {
+        return ResponseResult.success(documentService.findFacets(title, acronym, acronymLimit));
+    }
+
+    @GetMapping(value = Routes.Documents.Typeahead.path)
+    public ResponseResult<List<DocumentSuggestionDto>> suggest(
+            @RequestParam(required = false, defaultValue = "") String q,
+            @RequestParam(required = false, defaultValue = "10") int limit
+    ) {
+        return ResponseResult.success(documentTypeaheadService.suggest(q, limit));
+    }
+
+    @GetMapping(value = Routes.Documents.Lineage.path)
+    public ResponseResult<DocumentLineageDto> findLineage(
+            @RequestParam String acronym,
+            @RequestParam(required = false, defaultValue = "0") int afterVersion,
+            @RequestParam(required = false, defaultValue = "50") int limit
+    ) {
+        return ResponseResult.success(documentService.findLineage(acronym, afterVersion, limit));
+    }
+
     @GetMapping(value = Routes.Documents.ById.path)
     public ResponseResult<DocumentListDto> findById(@PathVariable Long id) {
-        return ResponseResult.success(new DocumentListDto(documentService.findById(id)));
+        return ResponseResult.success(documentService.findById(id));
     }
 
     @PostMapping(value = Routes.Documents.path)
     public ResponseResult<DocumentListDto> save(@RequestBody @Valid DocumentCreateDto dto) {
-        return ResponseResult.success(new DocumentListDto(documentService.save(dto)));
+        return ResponseResult.success(documentService.save(dto));
     }
 
     @PatchMapping(value = Routes.Documents.ById.Submit.path)
     public ResponseResult<DocumentListDto> submit(@PathVariable Long id) {
-        return ResponseResult.success(new DocumentListDto(documentService.submit(id)));
+        return ResponseResult.success(documentService.submit(id));
     }
 
     @PostMapping(value = Routes.Documents.ById.GenerateVersion.path)
     public ResponseResult<DocumentListDto> generateVersion(@PathVariable Long id) {
-        return ResponseResult.success(new DocumentListDto(documentService.generateVersion(id)));
+        return ResponseResult.success(documentService.generateVersion(id));
     }
 
     @PatchMapping(value = Routes.Documents.ById.path)
     public ResponseResult<DocumentListDto> editInfo(@PathVariable Long id, @RequestBody @Valid DocumentEditInfoDto dto) {
-        return ResponseResult.success(new DocumentListDto(documentService.editInfo(id, dto)));
+        return ResponseResult.success(documentService.editInfo(id, dto));
     }
 }
@@ -0,0 +1,46 @@
+package com.app.maxdocapi.controllers;
+
+import com.app.maxdocapi.Routes;
+import com.app.maxdocapi.common.ResponseResult;
+import com.app.maxdocapi.models.records.DocumentFileDto;
+import com.app.maxdocapi.services.files.DocumentFileService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@CrossOrigin(origins = "*", allowedHeaders = "*", exposedHeaders = {HttpHeaders.ETAG, HttpHeaders.CONTENT_RANGE, HttpHeaders.CONTENT_DISPOSITION})
+@RestController
+public class DocumentFileController {
+    private final DocumentFileService documentFileService;
+
+    public DocumentFileController(final DocumentFileService documentFileService) {
+        this.documentFileService = documentFileService;
+    }
+
+    /**
+     * The file is the raw request body, so it is streamed to the file store as it arrives.
+     */
+    @PutMapping(value = Routes.Documents.ById.File.path)
+    public ResponseResult<DocumentFileDto> upload(
+            @PathVariable Long id,
+            @RequestParam(required = false) String fileName,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            HttpServletRequest request
+    ) throws IOException {
+        return ResponseResult.success(documentFileService.upload(id, fileName, contentType, request.getInputStream()));
+    }
+
+    @GetMapping(value = Routes.Documents.ById.File.path)
+    public void download(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        documentFileService.download(id).write(request, response);
+    }
+}
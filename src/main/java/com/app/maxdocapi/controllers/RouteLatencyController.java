@@ -0,0 +1,33 @@
+package com.app.maxdocapi.controllers;
+
+import com.app.maxdocapi.Routes;
+import com.app.maxdocapi.common.ResponseResult;
+import com.app.maxdocapi.models.records.RouteLatencyDto;
+import com.app.maxdocapi.services.RouteLatencyService;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+@RestController
+public class RouteLatencyController {
+    private final RouteLatencyService routeLatencyService;
+
+    public RouteLatencyController(final RouteLatencyService routeLatencyService) {
+        this.routeLatencyService = routeLatencyService;
+    }
+
+    @GetMapping(value = Routes.Admin.Latencies.path)
+    public ResponseResult<List<RouteLatencyDto>> findAll() {
+        return ResponseResult.success(routeLatencyService.findAll());
+    }
+
+    @DeleteMapping(value = Routes.Admin.Latencies.path)
+    public ResponseResult<Void> clear() {
+        routeLatencyService.clear();
+        return ResponseResult.success(null);
+    }
+}
@@ -0,0 +1,33 @@
+package com.app.maxdocapi.controllers;
+
+import com.app.maxdocapi.Routes;
+import com.app.maxdocapi.common.ResponseResult;
+import com.app.maxdocapi.models.records.SlowQueryDto;
+import com.app.maxdocapi.services.SlowQueryService;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+@RestController
+public class SlowQueryController {
+    private final SlowQueryService slowQueryService;
+
+    public SlowQueryController(final SlowQueryService slowQueryService) {
+        this.slowQueryService = slowQueryService;
+    }
+
+    @GetMapping(value = Routes.Admin.SlowQueries.path)
+    public ResponseResult<List<SlowQueryDto>> findAll() {
+        return ResponseResult.success(slowQueryService.findAll());
+    }
+
+    @DeleteMapping(value = Routes.Admin.SlowQueries.path)
+    public ResponseResult<Void> clear() {
+        slowQueryService.clear();
+        return ResponseResult.success(null);
+    }
+}
@@ -0,0 +1,190 @@
+package com.app.maxdocapi.database.entities;
+
+import com.app.maxdocapi.enums.BulkJobStatus;
+import com.app.maxdocapi.enums.BulkJobType;
+import jakarta.persistence.Basic;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.time.LocalDateTime;
+
+/**
+ * A bulk operation over many documents and its progress. The items are processed in order,
+ * and {@code position} is the index of the next one, so a job resumes where it stopped.
+ * <p>
+ * The worker writes its progress with queries fenced by the owner, so the entity only writes the columns
+ * it changed and never puts back a stale position.
+ */
+@Entity
+@DynamicUpdate
+@Table(name = "bulk_jobs")
+public class BulkJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BulkJobType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BulkJobStatus status;
+
+    // The items as a JSON array; only read by the worker that runs the job.
+    @Basic(fetch = FetchType.LAZY)
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String items;
+
+    @Column(nullable = false)
+    private int total;
+
+    @Column(nullable = false)
+    private int position;
+
+    @Column(nullable = false)
+    private int processed;
+
+    @Column(nullable = false)
+    private int failed;
+
+    // The first failures as a JSON array of {position, item, message}.
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String errors;
+
+    @Column(nullable = false)
+    private boolean cancelRequested;
+
+    // The node running the job, which must renew the lease or let another node take over.
+    private String owner;
+
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public BulkJob() {
+    }
+
+    public BulkJob(BulkJobType type, String items, int total) {
+        this.type = type;
+        this.status = BulkJobStatus.QUEUED;
+        this.items = items;
+        this.total = total;
+        this.errors = "[]";
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Hands the job to a node until the lease expires.
+     */
+    public void claim(String owner, LocalDateTime leaseExpiresAt) {
+        this.status = BulkJobStatus.RUNNING;
+        this.owner = owner;
+        this.leaseExpiresAt = leaseExpiresAt;
+        if (this.startedAt == null) this.startedAt = LocalDateTime.now();
+    }
+
+    public void finish(BulkJobStatus status) {
+        this.status = status;
+        this.owner = null;
+        this.leaseExpiresAt = null;
+        this.finishedAt = LocalDateTime.now();
+    }
+
+    public void requestCancel() {
+        this.cancelRequested = true;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public BulkJobType getType() {
+        return type;
+    }
+
+    public BulkJobStatus getStatus() {
+        return status;
+    }
+
+    public String getItems() {
+        return items;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public int getProcessed() {
+        return processed;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public String getErrors() {
+        return errors;
+    }
+
+    public boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public LocalDateTime getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -1,10 +1,13 @@
 package com.app.maxdocapi.database.entities;
 
+import com.app.maxdocapi.common.SearchNormalizer;
 import com.app.maxdocapi.enums.Phase;
+import jakarta.persistence.Basic;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -28,7 +31,9 @@ public class Document {
     @Column(nullable = false)
     private String title;
 
-    @Column(nullable = false)
+    // Often several kilobytes, so it is only read when actually accessed.
+    @Basic(fetch = FetchType.LAZY)
+    @Column(nullable = false, columnDefinition = "TEXT")
     private String description;
 
     @Column(nullable = false)
@@ -40,6 +45,12 @@ public class Document {
     @Enumerated(EnumType.STRING)
     private Phase phase;
 
+    // Normalized copies of title and acronym, kept in sync on every write, so that searches compare
+    // against indexed values instead of normalizing each row. Nullable only until the backfill runs.
+    private String titleNorm;
+
+    private String acronymNorm;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -62,11 +73,18 @@ public class Document {
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
+        normalizeSearchColumns();
     }
 
     @PreUpdate
     protected void onUpdate() {
         this.updatedAt = LocalDateTime.now();
+        normalizeSearchColumns();
+    }
+
+    private void normalizeSearchColumns() {
+        this.titleNorm = SearchNormalizer.normalize(title);
+        this.acronymNorm = SearchNormalizer.normalize(acronym);
     }
 
     public Long getId() {
@@ -117,6 +135,14 @@ public class Document {
         this.phase = phase;
     }
 
+    public String getTitleNorm() {
+        return titleNorm;
+    }
+
+    public String getAcronymNorm() {
+        return acronymNorm;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,86 @@
+package com.app.maxdocapi.database.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * The file attached to a document version. The content lives in the content-addressed store under its SHA-256,
+ * so the versions that share a file, like the ones created by generateVersion, share its bytes as well.
+ */
+@Entity
+@Table(name = "document_files")
+public class DocumentFile {
+
+    // One file per document version, so the document id is the key.
+    @Id
+    private Long documentId;
+
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    @Column(nullable = false)
+    private long size;
+
+    @Column(nullable = false)
+    private String contentType;
+
+    @Column(nullable = false)
+    private String fileName;
+
+    @Column(nullable = false)
+    private LocalDateTime uploadedAt;
+
+    public DocumentFile() {
+    }
+
+    public DocumentFile(Long documentId, String sha256, long size, String contentType, String fileName) {
+        this.documentId = documentId;
+        this.sha256 = sha256;
+        this.size = size;
+        this.contentType = contentType;
+        this.fileName = fileName;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        this.uploadedAt = LocalDateTime.now();
+    }
+
+    /**
+     * The same file attached to another document version.
+     */
+    public DocumentFile copyFor(Long otherDocumentId) {
+        return new DocumentFile(otherDocumentId, sha256, size, contentType, fileName);
+    }
+
+    public Long getDocumentId() {
+        return documentId;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public LocalDateTime getUploadedAt() {
+        return uploadedAt;
+    }
+}
@@ -0,0 +1,135 @@
+package com.app.maxdocapi.database.entities;
+
+import com.app.maxdocapi.enums.DocumentEventType;
+import com.app.maxdocapi.enums.Phase;
+import com.app.maxdocapi.models.records.DocumentChangedEvent;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A document change waiting to be delivered downstream. It is written in the transaction of the change
+ * and deleted once delivered, so the table only holds what is still pending.
+ */
+@Entity
+@Table(name = "document_outbox")
+public class DocumentOutboxEvent {
+
+    // Increases with every change written to the same database, which orders the changes of an acronym.
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Unique across shards, so that consumers can drop the events delivered more than once.
+    @Column(nullable = false, updatable = false)
+    private UUID eventId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DocumentEventType type;
+
+    @Column(nullable = false)
+    private Long documentId;
+
+    @Column(nullable = false)
+    private String acronym;
+
+    @Column(nullable = false)
+    private int version;
+
+    @Enumerated(EnumType.STRING)
+    private Phase phase;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime occurredAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    // The event is not claimed before this time, which delays the retries of failed deliveries.
+    @Column(nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    public DocumentOutboxEvent() {
+    }
+
+    public DocumentOutboxEvent(DocumentChangedEvent event) {
+        this.eventId = UUID.randomUUID();
+        this.type = event.type();
+        this.documentId = event.documentId();
+        this.acronym = event.acronym();
+        this.version = event.version();
+        this.phase = event.phase();
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        this.occurredAt = LocalDateTime.now();
+        this.availableAt = this.occurredAt;
+    }
+
+    /**
+     * Records a failed delivery and hides the event until the retry.
+     */
+    public void retryAt(LocalDateTime availableAt, String error) {
+        this.attempts++;
+        this.availableAt = availableAt;
+        this.lastError = error == null || error.length() <= 1000 ? error : error.substring(0, 1000);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public UUID getEventId() {
+        return eventId;
+    }
+
+    public DocumentEventType getType() {
+        return type;
+    }
+
+    public Long getDocumentId() {
+        return documentId;
+    }
+
+    public String getAcronym() {
+        return acronym;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public LocalDateTime getAvailableAt() {
+        return availableAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+}
@@ -0,0 +1,54 @@
+package com.app.maxdocapi.database.monitoring;
+
+import com.app.maxdocapi.services.SlowQueryService;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Times every call of a repository and hands it, with the statements it executed, to the {@link SlowQueryService}.
+ */
+public class SlowQueryInterceptor implements MethodInterceptor {
+    private final String repositoryName;
+    private final ObjectProvider<SlowQueryService> slowQueryService;
+
+    public SlowQueryInterceptor(Class<?> repositoryInterface, ObjectProvider<SlowQueryService> slowQueryService) {
+        this.repositoryName = repositoryInterface.getSimpleName();
+        // Repositories are created before the services, so the service is looked up on first use.
+        this.slowQueryService = slowQueryService;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        // Repository methods calling each other are recorded as the outermost call.
+        if (!StatementCapture.start()) return invocation.proceed();
+
+        var start = System.nanoTime();
+        Object result = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } finally {
+            var statements = StatementCapture.stop();
+            slowQueryService.getObject().record(
+                    repositoryName + "." + invocation.getMethod().getName(),
+                    System.nanoTime() - start,
+                    rowsOf(result),
+                    statements);
+        }
+    }
+
+    private static Long rowsOf(Object result) {
+        return switch (result) {
+            case Slice<?> slice -> (long) slice.getNumberOfElements();
+            case Collection<?> collection -> (long) collection.size();
+            case Optional<?> optional -> optional.isPresent() ? 1L : 0L;
+            // Streams are consumed after the call returns, and scalar results are not rows.
+            case null, default -> null;
+        };
+    }
+}
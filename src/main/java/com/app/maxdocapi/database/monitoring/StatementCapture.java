@@ -0,0 +1,70 @@
+package com.app.maxdocapi.database.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Collects the SQL statements executed by the current thread between {@link #start()} and {@link #stop()}.
+ * Statements executed outside of a capture are ignored, so the listener costs one thread-local read for them.
+ */
+public class StatementCapture implements QueryExecutionListener {
+    private static final ThreadLocal<List<Statement>> captured = new ThreadLocal<>();
+
+    /**
+     * @param sql The SQL as sent to the driver, with ? placeholders.
+     * @param parameters The bound values in placeholder order.
+     * @param durationMillis How long the driver took to execute it.
+     */
+    public record Statement(String sql, List<Object> parameters, long durationMillis) {
+    }
+
+    /**
+     * @return False when a capture is already running on this thread, in which case it keeps collecting.
+     */
+    public static boolean start() {
+        if (captured.get() != null) return false;
+        captured.set(new ArrayList<>());
+        return true;
+    }
+
+    /**
+     * @return The statements collected since {@link #start()}.
+     */
+    public static List<Statement> stop() {
+        var statements = captured.get();
+        captured.remove();
+        return statements == null ? List.of() : statements;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        var statements = captured.get();
+        if (statements == null) return;
+
+        for (var queryInfo : queryInfoList) {
+            // Batches bind one parameter set per execution; the first one is representative.
+            var parameterSets = queryInfo.getParametersList();
+            var parameters = parameterSets.isEmpty() ? List.of() : parametersOf(parameterSets.get(0));
+            statements.add(new Statement(queryInfo.getQuery(), parameters, execInfo.getElapsedTime()));
+        }
+    }
+
+    private static List<Object> parametersOf(List<ParameterSetOperation> operations) {
+        var parameters = new ArrayList<>();
+        operations.stream()
+                .filter(it -> it.getArgs().length > 1 && it.getArgs()[0] instanceof Integer)
+                .sorted(Comparator.comparingInt(it -> (Integer) it.getArgs()[0]))
+                .forEach(it -> parameters.add(ParameterSetOperation.isSetNullParameterOperation(it) ? null : it.getArgs()[1]));
+        return parameters;
+    }
+}
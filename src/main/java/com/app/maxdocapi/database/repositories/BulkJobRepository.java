@@ -0,0 +1,76 @@
+package com.app.maxdocapi.database.repositories;
+
+import com.app.maxdocapi.database.entities.BulkJob;
+import com.app.maxdocapi.enums.BulkJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface BulkJobRepository extends JpaRepository<BulkJob, Long> {
+    /**
+     * Finds the oldest job that is waiting, or whose node stopped renewing its lease, and locks it.
+     * Jobs locked by another claim are skipped instead of waited for.
+     */
+    @Query(nativeQuery = true, value = """
+            SELECT j.id
+            FROM bulk_jobs j
+            WHERE j.status = 'QUEUED' OR (j.status = 'RUNNING' AND j.lease_expires_at < :now)
+            ORDER BY j.id
+            LIMIT 1
+            FOR UPDATE SKIP LOCKED
+        """)
+    Optional<Long> findNextClaimableId(@Param("now") LocalDateTime now);
+
+    @Query(value = "SELECT j.cancelRequested FROM BulkJob j WHERE j.id = :id")
+    boolean isCancelRequested(@Param("id") Long id);
+
+    @Query(value = "SELECT j.errors FROM BulkJob j WHERE j.id = :id")
+    String findErrorsById(@Param("id") Long id);
+
+    /**
+     * Moves the job past the items just handled, as long as the given node still owns it.
+     * The errors, when given, replace the recorded ones.
+     *
+     * @return 1, or 0 if another node has taken the job over.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE BulkJob j
+            SET j.position = j.position + :processed + :failed, j.processed = j.processed + :processed,
+                j.failed = j.failed + :failed, j.errors = COALESCE(:errors, j.errors), j.updatedAt = :now
+            WHERE j.id = :id AND j.owner = :owner AND j.status = com.app.maxdocapi.enums.BulkJobStatus.RUNNING
+        """)
+    int advance(@Param("id") Long id, @Param("owner") String owner, @Param("processed") int processed, @Param("failed") int failed,
+                @Param("errors") String errors, @Param("now") LocalDateTime now);
+
+    /**
+     * Finishes the job, as long as the given node still owns it.
+     *
+     * @return 1, or 0 if another node has taken the job over.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE BulkJob j
+            SET j.status = :status, j.owner = NULL, j.leaseExpiresAt = NULL, j.finishedAt = :now, j.updatedAt = :now
+            WHERE j.id = :id AND j.owner = :owner AND j.status = com.app.maxdocapi.enums.BulkJobStatus.RUNNING
+        """)
+    int finish(@Param("id") Long id, @Param("owner") String owner, @Param("status") BulkJobStatus status, @Param("now") LocalDateTime now);
+
+    /**
+     * Extends the leases of the given jobs that the given node still owns.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE BulkJob j
+            SET j.leaseExpiresAt = :leaseExpiresAt
+            WHERE j.id IN :ids AND j.owner = :owner AND j.status = com.app.maxdocapi.enums.BulkJobStatus.RUNNING
+        """)
+    int renewLeases(@Param("ids") Collection<Long> ids, @Param("owner") String owner, @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+}
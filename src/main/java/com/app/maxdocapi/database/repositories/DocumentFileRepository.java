@@ -0,0 +1,24 @@
+package com.app.maxdocapi.database.repositories;
+
+import com.app.maxdocapi.database.entities.DocumentFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface DocumentFileRepository extends JpaRepository<DocumentFile, Long> {
+    /**
+     * Deletes the files of the given documents that no longer exist. The stored content is kept, since other
+     * versions may still share it.
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM DocumentFile f
+            WHERE f.documentId IN :ids AND NOT EXISTS (SELECT 1 FROM Document d WHERE d.id = f.documentId)
+        """)
+    int deleteOrphansByDocumentIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,27 @@
+package com.app.maxdocapi.database.repositories;
+
+import com.app.maxdocapi.database.entities.DocumentOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DocumentOutboxRepository extends JpaRepository<DocumentOutboxEvent, Long> {
+    /**
+     * Finds and locks the oldest events that are due. Events locked by the relay of another node are skipped
+     * instead of waited for, so every node delivers a different batch.
+     */
+    @Query(nativeQuery = true, value = """
+            SELECT o.*
+            FROM document_outbox o
+            WHERE o.available_at <= :now
+            ORDER BY o.id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+        """)
+    List<DocumentOutboxEvent> claimDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
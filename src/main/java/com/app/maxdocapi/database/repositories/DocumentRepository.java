@@ -1,29 +1,53 @@
 package com.app.maxdocapi.database.repositories;
 
 import com.app.maxdocapi.database.entities.Document;
+import com.app.maxdocapi.enums.Phase;
+import com.app.maxdocapi.models.dtos.DocumentListDto;
 import com.app.maxdocapi.models.projections.AcronymGroupListProjection;
+import com.app.maxdocapi.models.projections.DocumentFacetProjection;
+import com.app.maxdocapi.models.projections.DocumentLineageProjection;
 import com.app.maxdocapi.models.projections.DocumentListProjection;
+import com.app.maxdocapi.models.projections.RetentionCandidateProjection;
+import com.app.maxdocapi.models.records.AcronymSuggestionDto;
+import com.app.maxdocapi.models.records.DocumentSuggestionDto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface DocumentRepository extends JpaRepository<Document, Long>, PagingAndSortingRepository<Document, Long> {
+public interface DocumentRepository extends JpaRepository<Document, Long>, PagingAndSortingRepository<Document, Long>, DocumentRepositoryCustom {
+    /**
+     * Filters on the normalized title and acronym columns, so the filter values must already be normalized
+     * with {@link com.app.maxdocapi.common.SearchNormalizer}; an empty value disables its filter. The phase
+     * filter is resolved to the matching phases beforehand; when it is empty, documents without a phase match too.
+     */
+    @ReadOnlyQuery
     @Query(value = """
-            SELECT d FROM Document d
+            SELECT new com.app.maxdocapi.models.dtos.DocumentListDto(
+                d.id, d.title, d.description, d.acronym, d.version, d.phase, d.createdAt, d.updatedAt)
+            FROM Document d
             WHERE
-            (:title IS NULL OR :title = '' OR trim(lower(function('unaccent', d.title))) LIKE trim(lower(function('unaccent', concat('%', :title, '%'))))) AND
-            (:acronym IS NULL OR :acronym = '' OR trim(lower(function('unaccent', d.acronym))) LIKE trim(lower(function('unaccent', concat('%', :acronym, '%'))))) AND
-            (:phase IS NULL OR :phase = '' OR trim(lower(function('unaccent', d.phase))) LIKE trim(lower(function('unaccent', concat('%', :phase, '%')))))
+            (:title = '' OR d.titleNorm LIKE concat('%', :title, '%')) AND
+            (:acronym = '' OR d.acronymNorm LIKE concat('%', :acronym, '%')) AND
+            (:phase = '' OR d.phase IN :phases)
         """)
-    Page<DocumentListProjection> findAllWithFilters(@Param("title") String title, @Param("acronym") String acronym, @Param("phase") String phase, Pageable pageable);
+    Page<DocumentListDto> findAllWithFilters(@Param("title") String title, @Param("acronym") String acronym, @Param("phase") String phase, @Param("phases") Collection<Phase> phases, Pageable pageable);
 
+    @ReadOnlyQuery
     @Query(value = """
             SELECT d.acronym AS acronym, COUNT(d) AS quantity
             FROM Document d
@@ -31,7 +55,176 @@ public interface DocumentRepository extends JpaRepository<Document, Long>, Pagin
         """)
     Page<AcronymGroupListProjection> findAllGroupedByAcronym(Pageable pageable);
 
+    /**
+     * Counts documents per phase, per acronym and in total in a single scan using GROUPING SETS.
+     * The kind column is the GROUPING() bitmask: 1 for phase rows, 2 for acronym rows and 3 for the total row.
+     * Acronym rows are limited to the most frequent ones. The filters work like in {@link #findAllWithFilters}.
+     */
+    @ReadOnlyQuery
+    @Query(nativeQuery = true, value = """
+            SELECT f.phase AS phase, f.acronym AS acronym, f.quantity AS quantity, f.kind AS kind
+            FROM (
+                SELECT d.phase AS phase, d.acronym AS acronym, COUNT(*) AS quantity,
+                       GROUPING(d.phase, d.acronym) AS kind,
+                       ROW_NUMBER() OVER (PARTITION BY GROUPING(d.phase, d.acronym) ORDER BY COUNT(*) DESC, d.acronym) AS position
+                FROM documents d
+                WHERE
+                (:title = '' OR d.title_norm LIKE concat('%', :title, '%')) AND
+                (:acronym = '' OR d.acronym_norm LIKE concat('%', :acronym, '%'))
+                GROUP BY GROUPING SETS ((d.phase), (d.acronym), ())
+            ) f
+            WHERE f.kind <> 2 OR f.position <= :acronymLimit
+        """)
+    List<DocumentFacetProjection> findFacetsWithFilters(@Param("title") String title, @Param("acronym") String acronym, @Param("acronymLimit") int acronymLimit);
+
+    @ReadOnlyQuery
+    @Query(nativeQuery = true, value = """
+            SELECT d.id AS "id", d.title AS "title", d.description AS "description", d.acronym AS "acronym",
+                   d.version AS "version", d.phase AS "phase", d.created_at AS "createdAt", d.updated_at AS "updatedAt"
+            FROM documents d
+            WHERE d.id = ANY(:ids)
+        """)
+    List<DocumentListProjection> findAllByIdIn(@Param("ids") Long[] ids);
+
+    @ReadOnlyQuery
+    @Query(value = """
+            SELECT new com.app.maxdocapi.models.dtos.DocumentListDto(
+                d.id, d.title, d.description, d.acronym, d.version, d.phase, d.createdAt, d.updatedAt)
+            FROM Document d
+            WHERE d.id = :id
+        """)
+    Optional<DocumentListDto> findProjectedById(@Param("id") Long id);
+
+    @Query(value = """
+            SELECT new com.app.maxdocapi.models.records.DocumentSuggestionDto(d.id, d.title, d.acronym, d.version, d.phase)
+            FROM Document d
+        """)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<DocumentSuggestionDto> streamAllSuggestions();
+
+    @Query(value = """
+            SELECT new com.app.maxdocapi.models.records.DocumentSuggestionDto(d.id, d.title, d.acronym, d.version, d.phase)
+            FROM Document d
+            WHERE d.id = :id
+        """)
+    Optional<DocumentSuggestionDto> findSuggestionById(@Param("id") Long id);
+
+    @Query(value = """
+            SELECT new com.app.maxdocapi.models.records.DocumentSuggestionDto(d.id, d.title, d.acronym, d.version, d.phase)
+            FROM Document d
+            WHERE d.updatedAt > :since
+        """)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<DocumentSuggestionDto> streamSuggestionsUpdatedSince(@Param("since") LocalDateTime since);
+
+    @Query(value = "SELECT d.id FROM Document d")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "10000"))
+    Stream<Long> streamAllIds();
+
+    @Query(value = """
+            SELECT new com.app.maxdocapi.models.records.AcronymSuggestionDto(
+                d.acronym, COUNT(d), MAX(CASE WHEN d.phase = com.app.maxdocapi.enums.Phase.ACTIVE THEN d.version END))
+            FROM Document d
+            GROUP BY d.acronym
+        """)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<AcronymSuggestionDto> streamAllAcronymSummaries();
+
+    @ReadOnlyQuery
+    @Query(value = """
+            SELECT new com.app.maxdocapi.models.records.AcronymSuggestionDto(
+                d.acronym, COUNT(d), MAX(CASE WHEN d.phase = com.app.maxdocapi.enums.Phase.ACTIVE THEN d.version END))
+            FROM Document d
+            WHERE d.acronym = :acronym
+            GROUP BY d.acronym
+        """)
+    Optional<AcronymSuggestionDto> findAcronymSummary(@Param("acronym") String acronym);
+
+    /**
+     * Finds a page of the versions of exactly one acronym, in version order, each with the ID and version of
+     * its neighbours. Keyset paging: the page starts after the given version, so the index on (acronym, version)
+     * is only read from there on, plus one version on each side for the neighbours of the first and last rows.
+     * The ACTIVE version and the number of versions are the same on every row.
+     */
+    @ReadOnlyQuery
+    @Query(nativeQuery = true, value = """
+            SELECT l.id AS "id", l.title AS "title", l.version AS "version", l.phase AS "phase",
+                   l.created_at AS "createdAt", l.updated_at AS "updatedAt",
+                   l.previous_id AS "previousId", l.previous_version AS "previousVersion",
+                   l.next_id AS "nextId", l.next_version AS "nextVersion",
+                   (SELECT MAX(a.version) FROM documents a WHERE a.acronym = :acronym AND a.phase = 'ACTIVE') AS "activeVersion",
+                   (SELECT COUNT(*) FROM documents c WHERE c.acronym = :acronym) AS "total"
+            FROM (
+                SELECT w.id, w.title, w.version, w.phase, w.created_at, w.updated_at,
+                       LAG(w.id) OVER versions AS previous_id, LAG(w.version) OVER versions AS previous_version,
+                       LEAD(w.id) OVER versions AS next_id, LEAD(w.version) OVER versions AS next_version
+                FROM (
+                    SELECT d.id, d.title, d.version, d.phase, d.created_at, d.updated_at
+                    FROM documents d
+                    WHERE d.acronym = :acronym AND d.version >= COALESCE(
+                        (SELECT MAX(p.version) FROM documents p WHERE p.acronym = :acronym AND p.version <= :afterVersion), 0)
+                    ORDER BY d.version
+                    LIMIT :limit + 2
+                ) w
+                WINDOW versions AS (ORDER BY w.version)
+            ) l
+            WHERE l.version > :afterVersion
+            ORDER BY l.version
+            LIMIT :limit
+        """)
+    List<DocumentLineageProjection> findLineage(@Param("acronym") String acronym, @Param("afterVersion") int afterVersion, @Param("limit") int limit);
+
+    @Query(value = "SELECT d.acronym FROM Document d WHERE d.id = :id")
+    Optional<String> findAcronymById(@Param("id") Long id);
+
+    @Query(value = "SELECT DISTINCT d.acronym FROM Document d WHERE d.id IN :ids")
+    List<String> findAcronymsByIdIn(@Param("ids") Collection<Long> ids);
+
     List<Document> findAllByAcronym(String acronym);
 
+    List<Document> findAllByTitleNormIsNullOrAcronymNormIsNull(Pageable pageable);
+
+    @Modifying
+    @Query(value = "UPDATE Document d SET d.titleNorm = :titleNorm, d.acronymNorm = :acronymNorm WHERE d.id = :id")
+    void updateSearchColumns(@Param("id") Long id, @Param("titleNorm") String titleNorm, @Param("acronymNorm") String acronymNorm);
+
     Boolean existsByAcronymAndVersion(String acronym, int version);
+
+    /**
+     * Finds the next acronyms with OBSOLETE versions, in order, from the given acronym on; it is included only
+     * when {@code inclusive} is set. Reads no more of the partial OBSOLETE index than the versions of these acronyms.
+     */
+    @Query(nativeQuery = true, value = """
+            SELECT DISTINCT d.acronym
+            FROM documents d
+            WHERE d.phase = 'OBSOLETE' AND d.acronym >= :fromAcronym AND (d.acronym > :fromAcronym OR :inclusive)
+            ORDER BY d.acronym
+            LIMIT :limit
+        """)
+    List<String> findObsoleteAcronymsFrom(@Param("fromAcronym") String fromAcronym, @Param("inclusive") boolean inclusive, @Param("limit") int limit);
+
+    /**
+     * Finds the OBSOLETE versions of the given acronyms beyond the most recent {@code keep} of each, oldest first.
+     * Each acronym is read on its own, from the newest version down, so the cost follows the given acronyms only.
+     * Once the returned versions are deleted, the next batch can start at the acronym of the last one,
+     * because the deleted versions of an acronym are always its oldest.
+     */
+    @Query(nativeQuery = true, value = """
+            SELECT r.id AS "id", r.acronym AS "acronym", r.version AS "version"
+            FROM unnest(CAST(:acronyms AS text[])) AS a(acronym)
+            CROSS JOIN LATERAL (
+                SELECT d.id, d.acronym, d.version
+                FROM documents d
+                WHERE d.phase = 'OBSOLETE' AND d.acronym = a.acronym
+                ORDER BY d.version DESC
+                OFFSET :keep
+            ) r
+            ORDER BY r.acronym, r.version
+            LIMIT :limit
+        """)
+    List<RetentionCandidateProjection> findObsoleteBeyondRetention(@Param("acronyms") String[] acronyms, @Param("keep") int keep, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM Document d WHERE d.id IN :ids AND d.phase = com.app.maxdocapi.enums.Phase.OBSOLETE")
+    int deleteObsoleteByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,20 @@
+package com.app.maxdocapi.database.repositories;
+
+import com.app.maxdocapi.enums.DocumentField;
+import com.app.maxdocapi.enums.Phase;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+public interface DocumentRepositoryCustom {
+    /**
+     * Same filters as {@link DocumentRepository#findAllWithFilters}, but only the requested columns are selected.
+     *
+     * @return One map per document, keyed by field property name in the declaration order of {@link DocumentField}.
+     */
+    @ReadOnlyQuery
+    Page<Map<String, Object>> findAllWithFilters(String title, String acronym, String phase, Collection<Phase> phases, Set<DocumentField> fields, Pageable pageable);
+}
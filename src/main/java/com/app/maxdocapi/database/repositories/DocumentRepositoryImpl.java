@@ -0,0 +1,82 @@
+package com.app.maxdocapi.database.repositories;
+
+import com.app.maxdocapi.database.entities.Document;
+import com.app.maxdocapi.enums.DocumentField;
+import com.app.maxdocapi.enums.Phase;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class DocumentRepositoryImpl implements DocumentRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Map<String, Object>> findAllWithFilters(String title, String acronym, String phase, Collection<Phase> phases, Set<DocumentField> fields, Pageable pageable) {
+        var cb = entityManager.getCriteriaBuilder();
+
+        // The id is always selected so that clients can address the documents they list.
+        var selectedFields = EnumSet.of(DocumentField.ID);
+        selectedFields.addAll(fields);
+
+        var query = cb.createTupleQuery();
+        var root = query.from(Document.class);
+        query.multiselect(selectedFields.stream().<Selection<?>>map(it -> root.get(it.getProperty()).alias(it.getProperty())).toList())
+                .where(filters(cb, root, title, acronym, phase, phases))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        var rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        var content = new ArrayList<Map<String, Object>>(rows.size());
+        for (Tuple row : rows) {
+            var item = new LinkedHashMap<String, Object>();
+            selectedFields.forEach(it -> item.put(it.getProperty(), row.get(it.getProperty())));
+            content.add(item);
+        }
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(title, acronym, phase, phases));
+    }
+
+    private long count(String title, String acronym, String phase, Collection<Phase> phases) {
+        var cb = entityManager.getCriteriaBuilder();
+        var query = cb.createQuery(Long.class);
+        var root = query.from(Document.class);
+        query.select(cb.count(root)).where(filters(cb, root, title, acronym, phase, phases));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private Predicate[] filters(CriteriaBuilder cb, Root<Document> root, String title, String acronym, String phase, Collection<Phase> phases) {
+        var predicates = new ArrayList<Predicate>();
+        addContains(cb, predicates, root.get("titleNorm"), title);
+        addContains(cb, predicates, root.get("acronymNorm"), acronym);
+        // Without a phase filter, documents without a phase are listed too.
+        if (!phase.isEmpty()) predicates.add(root.get("phase").in(phases));
+        return predicates.toArray(Predicate[]::new);
+    }
+
+    private void addContains(CriteriaBuilder cb, List<Predicate> predicates, Expression<String> column, String value) {
+        if (value.isEmpty()) return;
+        predicates.add(cb.like(column, "%" + value + "%"));
+    }
+}
@@ -0,0 +1,26 @@
+package com.app.maxdocapi.database.repositories;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a repository query served to the read endpoints. Called on its own, the query runs in a read-only
+ * transaction of its own, so it holds a connection only while it runs, and Hibernate neither flushes
+ * (flush mode MANUAL) nor keeps snapshots of what it loads for dirty checking. Called inside a write
+ * transaction, it simply joins it.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Transactional(readOnly = true)
+@QueryHints(@QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"))
+public @interface ReadOnlyQuery {
+}
@@ -0,0 +1,35 @@
+package com.app.maxdocapi.database.sharding;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Keeps the mapping metadata Hibernate built at startup, which is needed to manage the schema of the other shards.
+ */
+public class HibernateMetadataCapture implements Integrator {
+    private volatile Metadata metadata;
+    private volatile SessionFactoryImplementor sessionFactory;
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        this.metadata = metadata;
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    public Metadata metadata() {
+        if (metadata == null) throw new IllegalStateException("Hibernate has not been started yet");
+        return metadata;
+    }
+
+    public SessionFactoryImplementor sessionFactory() {
+        if (sessionFactory == null) throw new IllegalStateException("Hibernate has not been started yet");
+        return sessionFactory;
+    }
+}
@@ -0,0 +1,47 @@
+package com.app.maxdocapi.database.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * The shard that the connections obtained by the current thread are routed to.
+ * Without a shard, connections go to the coordination shard.
+ */
+public final class ShardContext {
+    private static final ThreadLocal<Integer> current = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * @return The shard of the current thread, or null when none was chosen.
+     */
+    public static Integer current() {
+        return current.get();
+    }
+
+    /**
+     * Runs the task with the connections of the current thread routed to the shard,
+     * then restores the previous shard.
+     */
+    public static <T> T call(int shard, Supplier<T> task) {
+        var previous = current.get();
+        current.set(shard);
+        try {
+            return task.get();
+        } finally {
+            set(previous);
+        }
+    }
+
+    public static void run(int shard, Runnable task) {
+        call(shard, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    static void set(Integer shard) {
+        if (shard == null) current.remove();
+        else current.set(shard);
+    }
+}
@@ -0,0 +1,171 @@
+package com.app.maxdocapi.database.sharding;
+
+import com.app.maxdocapi.config.ShardingProperties;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Decides which shard holds a document and runs work on one or on every shard.
+ * <p>
+ * Every version of an acronym lives on the shard of the acronym's hash, so that the writes of an acronym
+ * stay local to one database. Ids are generated by each shard with a step of the shard count and an offset
+ * of the shard number, which keeps them unique across shards and makes the shard of an id its remainder.
+ * The shard count therefore cannot change without moving the documents.
+ * <p>
+ * When sharding is disabled there is a single shard and the work runs on the calling thread as before.
+ */
+@Component
+public class ShardRouter {
+    /**
+     * The shard holding what is not split by acronym, such as the change notifications.
+     */
+    public static final int COORDINATION_SHARD = 0;
+
+    private final int shardCount;
+
+    public ShardRouter(ShardingProperties properties) {
+        this.shardCount = properties.enabled() ? properties.shards().size() : 1;
+        if (shardCount < 1) {
+            throw new IllegalStateException("Sharding is enabled but no shard is configured");
+        }
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    /**
+     * @return The shard holding the documents of the acronym.
+     */
+    public int shardOf(String acronym) {
+        return Math.floorMod(acronym.hashCode(), shardCount);
+    }
+
+    /**
+     * @return The shard holding the document with the id.
+     */
+    public int shardOf(long id) {
+        return (int) Math.floorMod(id, (long) shardCount);
+    }
+
+    /**
+     * Routes the current transaction to the shard. Must be called before its first statement;
+     * the previous shard of the thread is restored when the transaction ends.
+     *
+     * @throws IllegalStateException if there is no active transaction.
+     */
+    public void routeTransaction(int shard) {
+        if (!isSharded()) return;
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Only a transaction can be routed to a shard");
+        }
+
+        var previous = ShardContext.current();
+        ShardContext.set(shard);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                ShardContext.set(previous);
+            }
+        });
+    }
+
+    /**
+     * Runs the task against one shard, on the calling thread. A transaction started by the task is
+     * routed to the shard; a transaction already running on the thread keeps its own shard.
+     */
+    public <T> T onShard(int shard, Supplier<T> task) {
+        return isSharded() ? ShardContext.call(shard, task) : task.get();
+    }
+
+    public void onShard(int shard, Runnable task) {
+        if (isSharded()) ShardContext.run(shard, task);
+        else task.run();
+    }
+
+    /**
+     * Runs the task against each shard in turn, on the calling thread.
+     */
+    public void forEachShard(IntConsumer task) {
+        for (int shard = 0; shard < shardCount; shard++) {
+            var current = shard;
+            onShard(shard, () -> task.accept(current));
+        }
+    }
+
+    /**
+     * Runs the task against every shard at the same time, one virtual thread per shard.
+     *
+     * @return The results in shard order.
+     */
+    public <T> List<T> onEveryShard(IntFunction<T> task) {
+        if (!isSharded()) return List.of(task.apply(COORDINATION_SHARD));
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var futures = new ArrayList<Future<T>>(shardCount);
+            for (int shard = 0; shard < shardCount; shard++) {
+                var current = shard;
+                futures.add(executor.submit(() -> ShardContext.call(current, () -> task.apply(current))));
+            }
+
+            var results = new ArrayList<T>(shardCount);
+            for (var future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying the shards", e);
+        }
+    }
+
+    /**
+     * Reads one page of a query spread over every shard. Any shard may hold all the rows up to the end of the page,
+     * so each one is asked for them; the rows are then merged in the order of the query and the totals are added up.
+     * Deep pages are therefore as expensive as their offset on every shard.
+     *
+     * @param pageable The requested page; its sort is passed on to the shards.
+     * @param order The order of the rows, which must match the sort of the query.
+     * @param query Reads a page of one shard.
+     * @return The requested page of the merged rows.
+     */
+    public <T> Page<T> scatterPage(Pageable pageable, Comparator<? super T> order, Function<Pageable, Page<T>> query) {
+        if (!isSharded()) return query.apply(pageable);
+
+        var rowsUpToPageEnd = (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize());
+        var perShard = PageRequest.of(0, rowsUpToPageEnd, pageable.getSort());
+        var pages = onEveryShard(shard -> query.apply(perShard));
+
+        var total = pages.stream().mapToLong(Page::getTotalElements).sum();
+        var content = pages.stream()
+                .flatMap(it -> it.getContent().stream())
+                .sorted(order)
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .toList();
+        return new PageImpl<>(content, pageable, total);
+    }
+}
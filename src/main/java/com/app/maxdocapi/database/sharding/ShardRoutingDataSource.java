@@ -0,0 +1,34 @@
+package com.app.maxdocapi.database.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Hands out connections of the shard chosen in the {@link ShardContext}, or of the coordination shard when none was chosen.
+ * It must be wrapped in a lazy connection proxy: a transaction asks for its connection when it begins,
+ * and the proxy delays that until the first statement, once the shard is known.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * @param shards The data sources of the shards, in shard order.
+     */
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        var targets = new HashMap<Object, Object>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(ShardRouter.COORDINATION_SHARD));
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        var shard = ShardContext.current();
+        return shard == null ? ShardRouter.COORDINATION_SHARD : shard;
+    }
+}
@@ -0,0 +1,76 @@
+package com.app.maxdocapi.database.sharding;
+
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Objects;
+
+/**
+ * Prepares the shards once the application context is started.
+ * <p>
+ * Hibernate and the SQL initialization only see the coordination shard, so the same schema management
+ * and data.sql, unless spring.sql.init.mode is never, are applied to the other shards here. Then the id column of every shard is set to step
+ * by the shard count from an offset equal to the shard number, which keeps ids unique across shards.
+ */
+public class ShardSchemaInitializer implements SmartInitializingSingleton {
+    private static final Logger log = LoggerFactory.getLogger(ShardSchemaInitializer.class);
+
+    private final ShardRouter shardRouter;
+    private final DataSource dataSource;
+    private final HibernateMetadataCapture metadataCapture;
+    private final boolean runDataSql;
+    private final JdbcTemplate jdbcTemplate;
+
+    public ShardSchemaInitializer(ShardRouter shardRouter, DataSource dataSource, HibernateMetadataCapture metadataCapture, boolean runDataSql) {
+        this.shardRouter = shardRouter;
+        this.dataSource = dataSource;
+        this.metadataCapture = metadataCapture;
+        this.runDataSql = runDataSql;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        shardRouter.forEachShard(shard -> {
+            if (shard != ShardRouter.COORDINATION_SHARD) {
+                updateSchema();
+                if (runDataSql) DatabasePopulatorUtils.execute(new ResourceDatabasePopulator(new ClassPathResource("data.sql")), dataSource);
+            }
+            alignIds(shard);
+        });
+    }
+
+    private void updateSchema() {
+        // Runs the action configured for Hibernate (spring.jpa.hibernate.ddl-auto) against the shard of the current thread.
+        var sessionFactory = metadataCapture.sessionFactory();
+        SchemaManagementToolCoordinator.process(
+                metadataCapture.metadata(),
+                sessionFactory.getServiceRegistry(),
+                new HashMap<>(sessionFactory.getProperties()),
+                action -> {
+                });
+    }
+
+    private void alignIds(int shard) {
+        var shardCount = shardRouter.shardCount();
+        var increment = Objects.requireNonNull(jdbcTemplate.queryForObject(
+                "SELECT s.seqincrement FROM pg_sequence s WHERE s.seqrelid = pg_get_serial_sequence('documents', 'id')::regclass",
+                Long.class));
+        if (increment == shardCount) return;
+
+        // The next id is the first one above the current ones that belongs to this shard.
+        var maxId = Objects.requireNonNull(jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM documents", Long.class));
+        var nextId = maxId + 1 + Math.floorMod(shard - (maxId + 1), (long) shardCount);
+        jdbcTemplate.execute(String.format("ALTER TABLE documents ALTER COLUMN id SET INCREMENT BY %d RESTART WITH %d", shardCount, nextId));
+
+        log.info("Documents of shard {} now get ids {} + {}n", shard, nextId, shardCount);
+    }
+}
@@ -0,0 +1,23 @@
+package com.app.maxdocapi.enums;
+
+public enum BulkJobStatus {
+    QUEUED("Queued"),
+    RUNNING("Running"),
+    COMPLETED("Completed"),
+    CANCELLED("Cancelled"),
+    FAILED("Failed");
+
+    private final String description;
+
+    BulkJobStatus(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == CANCELLED || this == FAILED;
+    }
+}
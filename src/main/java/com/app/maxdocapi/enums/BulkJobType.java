@@ -0,0 +1,17 @@
+package com.app.maxdocapi.enums;
+
+public enum BulkJobType {
+    GENERATE_VERSION("Generate version"),
+    SUBMIT("Submit"),
+    IMPORT("Import");
+
+    private final String description;
+
+    BulkJobType(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
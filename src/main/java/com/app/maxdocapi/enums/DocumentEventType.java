@@ -0,0 +1,20 @@
+package com.app.maxdocapi.enums;
+
+public enum DocumentEventType {
+    CREATED("Created"),
+    EDITED("Edited"),
+    SUBMITTED("Submitted"),
+    OBSOLETED("Obsoleted"),
+    VERSION_GENERATED("Version generated"),
+    DELETED("Deleted");
+
+    private final String description;
+
+    DocumentEventType(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,31 @@
+package com.app.maxdocapi.enums;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+public enum DocumentField {
+    ID("id"),
+    TITLE("title"),
+    DESCRIPTION("description"),
+    ACRONYM("acronym"),
+    VERSION("version"),
+    PHASE("phase"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt");
+
+    private final String property;
+
+    DocumentField(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public static Optional<DocumentField> fromProperty(String property) {
+        return Arrays.stream(values())
+                .filter(it -> it.property.equalsIgnoreCase(property))
+                .findFirst();
+    }
+}
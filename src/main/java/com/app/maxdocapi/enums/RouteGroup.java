@@ -0,0 +1,17 @@
+package com.app.maxdocapi.enums;
+
+public enum RouteGroup {
+    READS("Reads"),
+    WRITES("Writes"),
+    BULK("Bulk");
+
+    private final String description;
+
+    RouteGroup(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -2,6 +2,7 @@ package com.app.maxdocapi.exceptions;
 
 import com.app.maxdocapi.exceptions.errors.BadRequestException;
 import com.app.maxdocapi.exceptions.errors.NotFoundException;
+import com.app.maxdocapi.exceptions.errors.ServiceUnavailableException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -19,4 +20,9 @@ public class AppExceptionHandler {
     public ResponseEntity<Object> handleBadRequestException(BadRequestException ex) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
     }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<Object> handleServiceUnavailableException(ServiceUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ex.getMessage());
+    }
 }
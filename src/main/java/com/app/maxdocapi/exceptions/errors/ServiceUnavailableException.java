@@ -0,0 +1,7 @@
+package com.app.maxdocapi.exceptions.errors;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String errorMassage) {
+        super(errorMassage);
+    }
+}
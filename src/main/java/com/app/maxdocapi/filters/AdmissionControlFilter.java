@@ -0,0 +1,134 @@
+package com.app.maxdocapi.filters;
+
+import com.app.maxdocapi.Routes;
+import com.app.maxdocapi.common.AdaptiveConcurrencyLimiter;
+import com.app.maxdocapi.common.ResponseResult;
+import com.app.maxdocapi.config.AdmissionControlProperties;
+import com.app.maxdocapi.enums.RouteGroup;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulkheads in front of the connection pool: each {@link RouteGroup} gets its own adaptive
+ * concurrency limit and wait queue, so a spike of list queries cannot starve the writes.
+ * Requests that cannot be admitted are rejected right away with a Retry-After header:
+ * 429 when the group's queue is full, 503 when the wait for a slot times out.
+ * <p>
+ * File transfers are not admitted through the groups: they last as long as the client takes to send or read
+ * the file, which would hold a slot for minutes and drive the group's limit down for every other request.
+ * Only their short metadata transaction uses the pool.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(AdmissionControlFilter.class);
+
+    // Full-table aggregates and batch lookups are isolated from the point reads of the list screens.
+    private static final List<String> BULK_PATHS = List.of(
+            Routes.Documents.Acronym.path,
+            Routes.Documents.Facets.path,
+            Routes.Documents.Batch.path
+    );
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final AdmissionControlProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Map<RouteGroup, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(RouteGroup.class);
+
+    public AdmissionControlFilter(AdmissionControlProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        for (var group : RouteGroup.values()) {
+            var limits = properties.limitsOf(group);
+            limiters.put(group, new AdaptiveConcurrencyLimiter(
+                    limits.initialLimit(),
+                    limits.minLimit(),
+                    limits.maxLimit(),
+                    limits.queueSize(),
+                    limits.maxWait(),
+                    limits.targetLatency()));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.enabled() || isFileTransfer(request);
+    }
+
+    static boolean isFileTransfer(HttpServletRequest request) {
+        return PATH_MATCHER.match(Routes.Documents.ById.File.path, pathOf(request));
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        var group = classify(request);
+        var limiter = limiters.get(group);
+
+        AdaptiveConcurrencyLimiter.Admission admission;
+        try {
+            admission = limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admission = AdaptiveConcurrencyLimiter.Admission.TIMED_OUT;
+        }
+
+        switch (admission) {
+            case QUEUE_FULL -> reject(response, group, HttpStatus.TOO_MANY_REQUESTS);
+            case TIMED_OUT -> reject(response, group, HttpStatus.SERVICE_UNAVAILABLE);
+            case ACQUIRED -> {
+                var start = System.nanoTime();
+                try {
+                    filterChain.doFilter(request, response);
+                } finally {
+                    limiter.release(System.nanoTime() - start);
+                }
+            }
+        }
+    }
+
+    static RouteGroup classify(HttpServletRequest request) {
+        var path = pathOf(request);
+        var method = HttpMethod.valueOf(request.getMethod());
+        if (BULK_PATHS.stream().anyMatch(path::startsWith)) {
+            return RouteGroup.BULK;
+        }
+        if (method == HttpMethod.GET && path.equals(Routes.Documents.path) && request.getParameter("ids") != null) {
+            return RouteGroup.BULK;
+        }
+
+        return method == HttpMethod.GET || method == HttpMethod.HEAD || method == HttpMethod.OPTIONS
+                ? RouteGroup.READS
+                : RouteGroup.WRITES;
+    }
+
+    private void reject(HttpServletResponse response, RouteGroup group, HttpStatus status) throws IOException {
+        log.debug("Rejected a {} request with {}", group, status);
+
+        var retryAfter = properties.limitsOf(group).retryAfter();
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ResponseResult.error(
+                status.toString(),
+                String.format("Too many concurrent %s requests, retry later", group.getDescription().toLowerCase())));
+    }
+}
@@ -0,0 +1,56 @@
+package com.app.maxdocapi.filters;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the time from the start of the JVM until the first request has been served,
+ * which is what a redeploy or a new instance actually costs: with lazy initialization part
+ * of the startup moves from the context refresh into that first request.
+ * The time is logged and published as the {@code app.startup.first-request} gauge.
+ */
+public class FirstRequestTimingFilter extends OncePerRequestFilter {
+    public static final String METRIC_NAME = "app.startup.first-request";
+
+    private static final Logger log = LoggerFactory.getLogger(FirstRequestTimingFilter.class);
+
+    private final AtomicBoolean measured = new AtomicBoolean();
+    private final AtomicLong firstRequestMillis = new AtomicLong(-1);
+
+    public FirstRequestTimingFilter(MeterRegistry meterRegistry) {
+        TimeGauge.builder(METRIC_NAME, firstRequestMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Time from the JVM start until the first request was served, or -1 before that")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return measured.get();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (measured.compareAndSet(false, true)) {
+                var millis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+                firstRequestMillis.set(millis);
+                log.info("First request served {} ms after the JVM started", millis);
+            }
+        }
+    }
+}
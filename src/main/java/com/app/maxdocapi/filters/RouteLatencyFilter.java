@@ -0,0 +1,56 @@
+package com.app.maxdocapi.filters;
+
+import com.app.maxdocapi.config.RouteLatencyProperties;
+import com.app.maxdocapi.services.RouteLatencyService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how long each request took in the {@link RouteLatencyService}, under the route pattern that handled it,
+ * so the latencies of "/api/documents/{id}" are not split per document. Requests that go asynchronous, like the
+ * change stream, are left out: their duration is how long the client stayed connected.
+ */
+public class RouteLatencyFilter extends OncePerRequestFilter {
+    private final RouteLatencyProperties properties;
+    private final RouteLatencyService routeLatencyService;
+
+    public RouteLatencyFilter(RouteLatencyProperties properties, RouteLatencyService routeLatencyService) {
+        this.properties = properties;
+        this.routeLatencyService = routeLatencyService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.enabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        var start = System.nanoTime();
+        var failed = false;
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            // The container turns what escapes the filters into a 500, which the response does not show yet.
+            failed = true;
+            throw e;
+        } finally {
+            if (!request.isAsyncStarted()) {
+                var route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                routeLatencyService.record(
+                        request.getMethod(),
+                        route instanceof String pattern ? pattern : RouteLatencyService.UNMATCHED_ROUTE,
+                        failed ? HttpStatus.INTERNAL_SERVER_ERROR.value() : response.getStatus(),
+                        start,
+                        System.nanoTime());
+            }
+        }
+    }
+}
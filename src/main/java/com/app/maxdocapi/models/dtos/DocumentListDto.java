@@ -2,10 +2,11 @@ package com.app.maxdocapi.models.dtos;
 
 import com.app.maxdocapi.database.entities.Document;
 import com.app.maxdocapi.enums.Phase;
+import com.app.maxdocapi.models.projections.DocumentListProjection;
 
 import java.time.LocalDateTime;
 
-public class DocumentListDto {
+public class DocumentListDto implements DocumentListProjection {
     private Long id;
     private String title;
     private String description;
@@ -18,6 +19,21 @@ public class DocumentListDto {
     public DocumentListDto() {
     }
 
+    /**
+     * Used by the queries that select the DTO directly, with a constructor expression.
+     */
+    public DocumentListDto(Long id, String title, String description, String acronym, int version, Phase phase,
+                           LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.acronym = acronym;
+        this.version = version;
+        this.phase = phase;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
     public DocumentListDto(Document document) {
         this.id = document.getId();
         this.title = document.getTitle();
@@ -29,6 +45,17 @@ public class DocumentListDto {
         this.updatedAt = document.getUpdatedAt();
     }
 
+    public DocumentListDto(DocumentListProjection document) {
+        this.id = document.getId();
+        this.title = document.getTitle();
+        this.description = document.getDescription();
+        this.acronym = document.getAcronym();
+        this.version = document.getVersion();
+        this.phase = document.getPhase();
+        this.createdAt = document.getCreatedAt();
+        this.updatedAt = document.getUpdatedAt();
+    }
+
     public Long getId() {
         return id;
     }
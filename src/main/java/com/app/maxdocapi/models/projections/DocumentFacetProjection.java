@@ -0,0 +1,8 @@
+package com.app.maxdocapi.models.projections;
+
+public interface DocumentFacetProjection {
+    String getPhase();
+    String getAcronym();
+    long getQuantity();
+    int getKind();
+}
@@ -0,0 +1,20 @@
+package com.app.maxdocapi.models.projections;
+
+import com.app.maxdocapi.enums.Phase;
+
+import java.time.LocalDateTime;
+
+public interface DocumentLineageProjection {
+    Long getId();
+    String getTitle();
+    int getVersion();
+    Phase getPhase();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+    Long getPreviousId();
+    Integer getPreviousVersion();
+    Long getNextId();
+    Integer getNextVersion();
+    Integer getActiveVersion();
+    long getTotal();
+}
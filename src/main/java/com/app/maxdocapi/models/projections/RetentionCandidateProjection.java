@@ -0,0 +1,7 @@
+package com.app.maxdocapi.models.projections;
+
+public interface RetentionCandidateProjection {
+    Long getId();
+    String getAcronym();
+    int getVersion();
+}
@@ -0,0 +1,6 @@
+package com.app.maxdocapi.models.records;
+
+public record AcronymFacetDto(
+        String acronym,
+        long quantity) {
+}
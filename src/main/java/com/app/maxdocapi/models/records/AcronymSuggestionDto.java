@@ -0,0 +1,10 @@
+package com.app.maxdocapi.models.records;
+
+/**
+ * @param activeVersion The version currently in the ACTIVE phase, or null when there is none.
+ */
+public record AcronymSuggestionDto(
+        String acronym,
+        long quantity,
+        Integer activeVersion) {
+}
@@ -0,0 +1,27 @@
+package com.app.maxdocapi.models.records;
+
+import com.app.maxdocapi.enums.BulkJobStatus;
+import com.app.maxdocapi.enums.BulkJobType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * @param itemsPerSecond The items handled per second since the job started, or null before it starts.
+ * @param errors The first failed items.
+ */
+public record BulkJobDto(
+        Long id,
+        BulkJobType type,
+        BulkJobStatus status,
+        boolean cancelRequested,
+        int total,
+        int processed,
+        int failed,
+        int remaining,
+        Double itemsPerSecond,
+        List<BulkJobErrorDto> errors,
+        LocalDateTime createdAt,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt) {
+}
@@ -0,0 +1,12 @@
+package com.app.maxdocapi.models.records;
+
+/**
+ * @param position The index of the item in the job.
+ * @param item The item as JSON.
+ * @param message Why the item failed.
+ */
+public record BulkJobErrorDto(
+        int position,
+        String item,
+        String message) {
+}
@@ -0,0 +1,19 @@
+package com.app.maxdocapi.models.records;
+
+import com.app.maxdocapi.enums.BulkJobType;
+import com.app.maxdocapi.models.dtos.DocumentCreateDto;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * @param type The operation to run on every item.
+ * @param ids The documents to submit or to generate a version of.
+ * @param documents The documents to import.
+ */
+public record BulkJobRequestDto(
+        @NotNull(message = "Type is required")
+        BulkJobType type,
+        List<Long> ids,
+        List<DocumentCreateDto> documents) {
+}
@@ -0,0 +1,16 @@
+package com.app.maxdocapi.models.records;
+
+import java.util.List;
+
+/**
+ * @param node The node that sent the invalidation, which ignores its own.
+ * @param all Whether the caches must be emptied entirely, in which case the lists are empty.
+ * @param documentIds The documents written since the previous invalidation.
+ * @param acronyms Their acronyms.
+ */
+public record CacheInvalidationDto(
+        String node,
+        boolean all,
+        List<Long> documentIds,
+        List<String> acronyms) {
+}
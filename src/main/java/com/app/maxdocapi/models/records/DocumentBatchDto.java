@@ -0,0 +1,10 @@
+package com.app.maxdocapi.models.records;
+
+import com.app.maxdocapi.models.dtos.DocumentListDto;
+
+import java.util.List;
+
+public record DocumentBatchDto(
+        List<DocumentListDto> result,
+        List<Long> missing) {
+}
@@ -0,0 +1,10 @@
+package com.app.maxdocapi.models.records;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record DocumentBatchRequestDto(
+        @NotEmpty(message = "Ids are required")
+        List<Long> ids) {
+}
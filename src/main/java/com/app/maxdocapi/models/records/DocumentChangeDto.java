@@ -0,0 +1,16 @@
+package com.app.maxdocapi.models.records;
+
+import com.app.maxdocapi.enums.DocumentEventType;
+import com.app.maxdocapi.enums.Phase;
+
+import java.time.LocalDateTime;
+
+public record DocumentChangeDto(
+        long eventId,
+        DocumentEventType type,
+        Long documentId,
+        String acronym,
+        int version,
+        Phase phase,
+        LocalDateTime occurredAt) {
+}
@@ -0,0 +1,21 @@
+package com.app.maxdocapi.models.records;
+
+import com.app.maxdocapi.database.entities.Document;
+import com.app.maxdocapi.enums.DocumentEventType;
+import com.app.maxdocapi.enums.Phase;
+
+/**
+ * Application event published by {@link com.app.maxdocapi.services.DocumentService} for every document write.
+ * Listeners that only care about committed data must use a transactional event listener.
+ */
+public record DocumentChangedEvent(
+        DocumentEventType type,
+        Long documentId,
+        String acronym,
+        int version,
+        Phase phase) {
+
+    public static DocumentChangedEvent of(DocumentEventType type, Document document) {
+        return new DocumentChangedEvent(type, document.getId(), document.getAcronym(), document.getVersion(), document.getPhase());
+    }
+}
@@ -0,0 +1,12 @@
+package com.app.maxdocapi.models.records;
+
+import com.app.maxdocapi.enums.Phase;
+
+import java.util.List;
+import java.util.Map;
+
+public record DocumentFacetsDto(
+        long total,
+        Map<Phase, Long> phases,
+        List<AcronymFacetDto> acronyms) {
+}
@@ -0,0 +1,21 @@
+package com.app.maxdocapi.models.records;
+
+import com.app.maxdocapi.database.entities.DocumentFile;
+
+import java.time.LocalDateTime;
+
+/**
+ * @param sha256 The hex SHA-256 of the content, which is also its strong ETag.
+ */
+public record DocumentFileDto(
+        Long documentId,
+        String fileName,
+        String contentType,
+        long size,
+        String sha256,
+        LocalDateTime uploadedAt) {
+
+    public DocumentFileDto(DocumentFile file) {
+        this(file.getDocumentId(), file.getFileName(), file.getContentType(), file.getSize(), file.getSha256(), file.getUploadedAt());
+    }
+}
@@ -0,0 +1,18 @@
+package com.app.maxdocapi.models.records;
+
+import java.util.List;
+
+/**
+ * A page of the version history of an acronym.
+ *
+ * @param total How many versions the acronym has.
+ * @param activeVersion The ACTIVE version of the acronym, or null when none is active.
+ * @param nextAfterVersion The value of afterVersion that requests the next page, or null on the last page.
+ */
+public record DocumentLineageDto(
+        String acronym,
+        long total,
+        Integer activeVersion,
+        List<DocumentLineageEntryDto> versions,
+        Integer nextAfterVersion) {
+}
@@ -0,0 +1,31 @@
+package com.app.maxdocapi.models.records;
+
+import com.app.maxdocapi.enums.Phase;
+import com.app.maxdocapi.models.projections.DocumentLineageProjection;
+
+import java.time.LocalDateTime;
+
+/**
+ * One version of an acronym, linked to the versions right before and after it.
+ *
+ * @param previousId The ID of the previous version, or null for the first one.
+ * @param nextId The ID of the next version, or null for the latest one.
+ */
+public record DocumentLineageEntryDto(
+        Long id,
+        String title,
+        int version,
+        Phase phase,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Long previousId,
+        Integer previousVersion,
+        Long nextId,
+        Integer nextVersion) {
+
+    public DocumentLineageEntryDto(DocumentLineageProjection projection) {
+        this(projection.getId(), projection.getTitle(), projection.getVersion(), projection.getPhase(),
+                projection.getCreatedAt(), projection.getUpdatedAt(), projection.getPreviousId(),
+                projection.getPreviousVersion(), projection.getNextId(), projection.getNextVersion());
+    }
+}
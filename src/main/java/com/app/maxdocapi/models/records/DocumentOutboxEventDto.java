@@ -0,0 +1,30 @@
+package com.app.maxdocapi.models.records;
+
+import com.app.maxdocapi.database.entities.DocumentOutboxEvent;
+import com.app.maxdocapi.enums.DocumentEventType;
+import com.app.maxdocapi.enums.Phase;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A document change as delivered downstream. Delivery is at least once: an event may be delivered again,
+ * with the same event id, when its delivery failed or the node stopped before deleting it.
+ *
+ * @param sequence Orders the changes of an acronym; it is not comparable across acronyms.
+ */
+public record DocumentOutboxEventDto(
+        UUID eventId,
+        long sequence,
+        DocumentEventType type,
+        Long documentId,
+        String acronym,
+        int version,
+        Phase phase,
+        LocalDateTime occurredAt) {
+
+    public DocumentOutboxEventDto(DocumentOutboxEvent event) {
+        this(event.getEventId(), event.getId(), event.getType(), event.getDocumentId(), event.getAcronym(),
+                event.getVersion(), event.getPhase(), event.getOccurredAt());
+    }
+}
@@ -0,0 +1,11 @@
+package com.app.maxdocapi.models.records;
+
+import com.app.maxdocapi.enums.Phase;
+
+public record DocumentSuggestionDto(
+        Long id,
+        String title,
+        String acronym,
+        int version,
+        Phase phase) {
+}
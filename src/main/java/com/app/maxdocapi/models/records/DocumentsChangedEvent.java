@@ -0,0 +1,19 @@
+package com.app.maxdocapi.models.records;
+
+import java.util.List;
+
+/**
+ * Application event published once for a batch of document writes made in one transaction, such as the versions
+ * deleted by the retention job, instead of one {@link DocumentChangedEvent} per document. Listeners of
+ * {@link DocumentChangedEvent} must listen to this one as well.
+ */
+public record DocumentsChangedEvent(List<DocumentChangedEvent> changes) {
+
+    public List<Long> documentIds() {
+        return changes.stream().map(DocumentChangedEvent::documentId).toList();
+    }
+
+    public List<String> acronyms() {
+        return changes.stream().map(DocumentChangedEvent::acronym).distinct().toList();
+    }
+}
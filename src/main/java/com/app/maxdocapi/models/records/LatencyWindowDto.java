@@ -0,0 +1,17 @@
+package com.app.maxdocapi.models.records;
+
+/**
+ * The latency distribution of a route over the last minutes; the percentiles are accurate to about 6%.
+ *
+ * @param minutes The length of the window.
+ * @param count How many requests completed in the window.
+ */
+public record LatencyWindowDto(
+        int minutes,
+        long count,
+        double p50Ms,
+        double p90Ms,
+        double p99Ms,
+        double p999Ms,
+        double maxMs) {
+}
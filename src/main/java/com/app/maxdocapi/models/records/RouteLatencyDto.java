@@ -0,0 +1,14 @@
+package com.app.maxdocapi.models.records;
+
+import java.util.List;
+
+/**
+ * @param route The route pattern, e.g. "/api/documents/{id}", or "unmatched" for requests no route handled.
+ * @param windows The 1, 5 and 15 minute windows.
+ */
+public record RouteLatencyDto(
+        String method,
+        String route,
+        int status,
+        List<LatencyWindowDto> windows) {
+}
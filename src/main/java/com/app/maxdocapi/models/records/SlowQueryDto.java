@@ -0,0 +1,18 @@
+package com.app.maxdocapi.models.records;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * @param operation The repository method, e.g. "DocumentRepository.findAllWithFilters".
+ * @param rows The number of rows returned, or null when not known (streams and scalar results).
+ * @param plan The EXPLAIN (ANALYZE, BUFFERS) output of the slowest SELECT, or null when it was not sampled.
+ */
+public record SlowQueryDto(
+        String operation,
+        LocalDateTime occurredAt,
+        long durationMs,
+        Long rows,
+        List<SlowStatementDto> statements,
+        String plan) {
+}
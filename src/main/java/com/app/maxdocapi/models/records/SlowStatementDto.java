@@ -0,0 +1,9 @@
+package com.app.maxdocapi.models.records;
+
+import java.util.List;
+
+public record SlowStatementDto(
+        String sql,
+        List<String> parameters,
+        long durationMs) {
+}
@@ -0,0 +1,188 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.common.SearchNormalizer;
+import com.app.maxdocapi.database.repositories.DocumentRepository;
+import com.app.maxdocapi.database.sharding.ShardRouter;
+import com.app.maxdocapi.enums.Phase;
+import com.app.maxdocapi.exceptions.errors.BadRequestException;
+import com.app.maxdocapi.models.records.AcronymSuggestionDto;
+import com.app.maxdocapi.models.records.DocumentChangedEvent;
+import com.app.maxdocapi.models.records.DocumentsChangedEvent;
+import com.app.maxdocapi.models.records.DocumentSuggestionDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Acronym autocomplete answered from memory, with the document count and ACTIVE version of each acronym.
+ * <p>
+ * The directory is loaded at startup by the {@link DocumentSnapshotService}, or by {@link #reload()} with one grouped
+ * scan, and each committed write refreshes only the acronym it touched. Acronyms written while the directory is being
+ * loaded are refreshed again once it is ready.
+ */
+@Service
+public class AcronymAutocompleteService {
+    public static final int MAX_SUGGESTIONS = 50;
+
+    private static final Logger log = LoggerFactory.getLogger(AcronymAutocompleteService.class);
+
+    private final DocumentRepository documentRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final int overflowLimit;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private AcronymDirectory directory;
+    // Not null while the directory is being loaded: acronyms written in the meantime.
+    private Set<String> writtenDuringLoad;
+
+    public AcronymAutocompleteService(DocumentRepository documentRepository,
+                                      ShardRouter shardRouter,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${app.documents.acronym-autocomplete.overflow-limit:4096}") int overflowLimit) {
+        this.documentRepository = documentRepository;
+        this.shardRouter = shardRouter;
+        // Changes are applied after the write transaction commits, so the reads need a transaction of their own.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.overflowLimit = overflowLimit;
+        this.directory = new AcronymDirectory(overflowLimit);
+    }
+
+    /**
+     * Returns the acronyms starting with the prefix, ignoring case and accents, in alphabetical order.
+     *
+     * @param prefix The text typed so far; an empty prefix lists the first acronyms.
+     * @param limit The maximum number of acronyms, between 1 and {@value #MAX_SUGGESTIONS}.
+     * @return The matching acronyms with their document count and ACTIVE version.
+     * @throws BadRequestException if the limit is out of range.
+     */
+    public List<AcronymSuggestionDto> suggest(String prefix, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new BadRequestException(String.format("Limit must be between 1 and %s", MAX_SUGGESTIONS));
+        }
+
+        var normalizedPrefix = SearchNormalizer.normalize(prefix);
+        lock.readLock().lock();
+        try {
+            return directory.search(normalizedPrefix, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the directory with one loaded from the database, one shard after the other.
+     */
+    public void reload() {
+        lock.writeLock().lock();
+        try {
+            writtenDuringLoad = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        var start = System.nanoTime();
+        // Every acronym lives on a single shard, so the summaries of the shards never overlap.
+        var summaries = new ArrayList<AcronymSuggestionDto>();
+        shardRouter.forEachShard(shard -> transactionTemplate.executeWithoutResult(status -> {
+            try (var shardSummaries = documentRepository.streamAllAcronymSummaries()) {
+                shardSummaries.forEach(summaries::add);
+            }
+        }));
+        var loaded = AcronymDirectory.of(summaries, overflowLimit);
+
+        Set<String> written;
+        lock.writeLock().lock();
+        try {
+            directory = loaded;
+            written = writtenDuringLoad;
+            writtenDuringLoad = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        written.forEach(this::refresh);
+
+        log.info("Loaded {} acronyms for autocomplete in {} ms", loaded.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Replaces the directory with one summarizing the given documents. Writes that committed after the documents
+     * were read must be applied again through {@link #onDocumentChanged}.
+     */
+    public void reload(Collection<DocumentSuggestionDto> documents) {
+        var start = System.nanoTime();
+        var summaries = new HashMap<String, AcronymSuggestionDto>();
+        for (var document : documents) {
+            var activeVersion = document.phase() == Phase.ACTIVE ? Integer.valueOf(document.version()) : null;
+            summaries.merge(document.acronym(), new AcronymSuggestionDto(document.acronym(), 1, activeVersion),
+                    (a, b) -> new AcronymSuggestionDto(a.acronym(), a.quantity() + b.quantity(),
+                            a.activeVersion() != null ? a.activeVersion() : b.activeVersion()));
+        }
+        var loaded = AcronymDirectory.of(summaries.values(), overflowLimit);
+
+        lock.writeLock().lock();
+        try {
+            directory = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Loaded {} acronyms for autocomplete in {} ms", loaded.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Refreshes the acronym of the written document once its transaction has committed.
+     *
+     * @param event The change published by the document service.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentChanged(DocumentChangedEvent event) {
+        refresh(List.of(event.acronym()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentsChanged(DocumentsChangedEvent event) {
+        refresh(event.acronyms());
+    }
+
+    /**
+     * Refreshes acronyms written on another node.
+     */
+    public void refresh(Collection<String> acronyms) {
+        lock.writeLock().lock();
+        try {
+            if (writtenDuringLoad != null) writtenDuringLoad.addAll(acronyms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        acronyms.forEach(this::refresh);
+    }
+
+    private void refresh(String acronym) {
+        var summary = shardRouter.onShard(shardRouter.shardOf(acronym),
+                        () -> transactionTemplate.execute(status -> documentRepository.findAcronymSummary(acronym)))
+                .orElse(new AcronymSuggestionDto(acronym, 0, null));
+
+        lock.writeLock().lock();
+        try {
+            directory.put(summary);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
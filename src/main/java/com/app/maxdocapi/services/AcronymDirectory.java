@@ -0,0 +1,143 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.common.SearchNormalizer;
+import com.app.maxdocapi.models.records.AcronymSuggestionDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Acronyms with their document count and ACTIVE version, searchable by prefix.
+ * <p>
+ * The acronyms live in a sorted array of keys with parallel primitive arrays for the counts and versions,
+ * so a lookup is one binary search followed by a sequential scan. Changes to known acronyms are made in place.
+ * New acronyms first go to a small sorted overflow map. The overflow is merged into the arrays once it is full,
+ * so the arrays are not copied on every insert.
+ * <p>
+ * Not thread-safe; callers guard it.
+ */
+class AcronymDirectory {
+    // Sorts case and accent variants of an acronym next to each other while keeping them distinct.
+    private static final char KEY_SEPARATOR = '\0';
+    private static final int NO_VERSION = 0;
+
+    private final int overflowLimit;
+    private String[] keys = new String[0];
+    private int[] quantities = new int[0];
+    private int[] activeVersions = new int[0];
+    private final TreeMap<String, AcronymSuggestionDto> overflow = new TreeMap<>();
+
+    AcronymDirectory(int overflowLimit) {
+        this.overflowLimit = overflowLimit;
+    }
+
+    /**
+     * @param summaries The acronyms to start with, in any order.
+     * @param overflowLimit How many new acronyms are collected before they are merged into the arrays.
+     */
+    static AcronymDirectory of(Collection<AcronymSuggestionDto> summaries, int overflowLimit) {
+        var directory = new AcronymDirectory(overflowLimit);
+        var sorted = summaries.stream()
+                .map(it -> Map.entry(keyOf(it.acronym()), it))
+                .sorted(Map.Entry.comparingByKey())
+                .toList();
+        directory.replaceArrays(sorted);
+        return directory;
+    }
+
+    /**
+     * Adds or replaces an acronym. A quantity of zero removes it.
+     */
+    void put(AcronymSuggestionDto summary) {
+        var key = keyOf(summary.acronym());
+        var position = Arrays.binarySearch(keys, key);
+        if (position >= 0) {
+            // Removed acronyms keep their slot with a zero count until the next merge.
+            quantities[position] = (int) summary.quantity();
+            activeVersions[position] = summary.activeVersion() == null ? NO_VERSION : summary.activeVersion();
+            return;
+        }
+
+        if (summary.quantity() == 0) {
+            overflow.remove(key);
+            return;
+        }
+        overflow.put(key, summary);
+        if (overflow.size() >= overflowLimit) merge();
+    }
+
+    /**
+     * @param prefix The normalized prefix; an empty prefix matches every acronym.
+     * @param limit The maximum number of acronyms to return.
+     * @return The matching acronyms in alphabetical order.
+     */
+    List<AcronymSuggestionDto> search(String prefix, int limit) {
+        var result = new ArrayList<AcronymSuggestionDto>(Math.min(limit, 16));
+        var i = lowerBound(prefix);
+        var fromOverflow = overflow.tailMap(prefix, true).entrySet().iterator();
+        var next = fromOverflow.hasNext() ? fromOverflow.next() : null;
+
+        // Both sources are sorted, so they are merged like two sorted lists.
+        while (result.size() < limit) {
+            var arrayMatches = i < keys.length && keys[i].startsWith(prefix);
+            var overflowMatches = next != null && next.getKey().startsWith(prefix);
+            if (!arrayMatches && !overflowMatches) break;
+
+            if (arrayMatches && (!overflowMatches || keys[i].compareTo(next.getKey()) < 0)) {
+                if (quantities[i] > 0) result.add(summaryAt(i));
+                i++;
+            } else {
+                result.add(next.getValue());
+                next = fromOverflow.hasNext() ? fromOverflow.next() : null;
+            }
+        }
+        return result;
+    }
+
+    int size() {
+        return (int) Arrays.stream(quantities).filter(it -> it > 0).count() + overflow.size();
+    }
+
+    private AcronymSuggestionDto summaryAt(int position) {
+        var key = keys[position];
+        var acronym = key.substring(key.indexOf(KEY_SEPARATOR) + 1);
+        return new AcronymSuggestionDto(acronym, quantities[position], activeVersions[position] == NO_VERSION ? null : activeVersions[position]);
+    }
+
+    private int lowerBound(String prefix) {
+        var position = Arrays.binarySearch(keys, prefix);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    private void merge() {
+        var merged = new ArrayList<Map.Entry<String, AcronymSuggestionDto>>(keys.length + overflow.size());
+        for (int i = 0; i < keys.length; i++) {
+            if (quantities[i] > 0) merged.add(Map.entry(keys[i], summaryAt(i)));
+        }
+        overflow.forEach((key, summary) -> merged.add(Map.entry(key, summary)));
+        merged.sort(Map.Entry.comparingByKey());
+        overflow.clear();
+
+        replaceArrays(merged);
+    }
+
+    private void replaceArrays(List<Map.Entry<String, AcronymSuggestionDto>> sorted) {
+        keys = new String[sorted.size()];
+        quantities = new int[sorted.size()];
+        activeVersions = new int[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            var summary = sorted.get(i).getValue();
+            keys[i] = sorted.get(i).getKey();
+            quantities[i] = (int) summary.quantity();
+            activeVersions[i] = summary.activeVersion() == null ? NO_VERSION : summary.activeVersion();
+        }
+    }
+
+    private static String keyOf(String acronym) {
+        return SearchNormalizer.normalize(acronym) + KEY_SEPARATOR + acronym;
+    }
+}
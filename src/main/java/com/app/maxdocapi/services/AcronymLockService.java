@@ -0,0 +1,64 @@
+package com.app.maxdocapi.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes the writes of one acronym while letting writes of different acronyms run in parallel.
+ * <p>
+ * Within a node, writers first queue on a striped in-JVM lock, which is cheap and keeps them from
+ * piling up inside Postgres. Across nodes, {@code pg_advisory_xact_lock(hashtextextended(acronym, 0))}
+ * then provides the actual guarantee. Both locks are held until the surrounding transaction ends.
+ * Two acronyms may share a stripe or an advisory key, which only costs some needless waiting.
+ */
+@Service
+public class AcronymLockService {
+    private final JdbcTemplate jdbcTemplate;
+    private final ReentrantLock[] stripes;
+
+    public AcronymLockService(JdbcTemplate jdbcTemplate, @Value("${app.documents.acronym-lock-stripes:256}") int stripeCount) {
+        if (Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalArgumentException("The number of acronym lock stripes must be a power of two");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Blocks until the current transaction holds the lock of the acronym.
+     * The lock is released when the transaction commits or rolls back.
+     *
+     * @param acronym The acronym whose writes must be serialized.
+     * @throws IllegalStateException if there is no active transaction.
+     */
+    public void lock(String acronym) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Acronym locks can only be taken inside a transaction");
+        }
+
+        var stripe = stripes[stripeIndex(acronym)];
+        stripe.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                stripe.unlock();
+            }
+        });
+
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(hashtextextended(?, 0))", rs -> null, acronym);
+    }
+
+    int stripeIndex(String acronym) {
+        // Spreads the hash bits so that similar acronyms do not pile up on the same stripes.
+        var hash = acronym.hashCode();
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+}
@@ -0,0 +1,385 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.config.BulkJobProperties;
+import com.app.maxdocapi.database.entities.BulkJob;
+import com.app.maxdocapi.database.repositories.BulkJobRepository;
+import com.app.maxdocapi.database.repositories.DocumentRepository;
+import com.app.maxdocapi.database.sharding.ShardRouter;
+import com.app.maxdocapi.enums.BulkJobStatus;
+import com.app.maxdocapi.enums.BulkJobType;
+import com.app.maxdocapi.exceptions.errors.BadRequestException;
+import com.app.maxdocapi.exceptions.errors.NotFoundException;
+import com.app.maxdocapi.models.dtos.DocumentCreateDto;
+import com.app.maxdocapi.models.records.BulkJobDto;
+import com.app.maxdocapi.models.records.BulkJobErrorDto;
+import com.app.maxdocapi.models.records.BulkJobRequestDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs bulk operations over many documents in the background.
+ * <p>
+ * A submitted job is stored in Postgres and picked up by the first node with a free worker. The worker
+ * handles each item in a transaction of its own that also moves the job's position forward, so an item only
+ * holds the lock of its own acronym, and a job survives restarts: when its node stops renewing the lease,
+ * another node resumes it from the position of the last committed item. An item that fails is recorded and
+ * skipped without failing the job. Cancellation is checked between chunks of items.
+ * <p>
+ * Leases are renewed on a timer of their own, independently of how long an item takes. Every progress write
+ * is fenced by the owner, so a worker whose job was taken over rolls its item back and stops instead of
+ * applying it a second time.
+ * <p>
+ * When the documents are sharded, an item and the job's progress live on different databases, so each item
+ * is committed on its own and the progress right after it; an item interrupted in between is applied again
+ * when the job resumes.
+ */
+@Service
+public class BulkJobService implements DisposableBean {
+    public static final int MAX_RECORDED_ERRORS = 100;
+
+    private static final Logger log = LoggerFactory.getLogger(BulkJobService.class);
+    private static final TypeReference<List<Long>> ID_ITEMS = new TypeReference<>() {};
+    private static final TypeReference<List<DocumentCreateDto>> DOCUMENT_ITEMS = new TypeReference<>() {};
+    private static final TypeReference<List<BulkJobErrorDto>> ERRORS = new TypeReference<>() {};
+
+    private final BulkJobRepository bulkJobRepository;
+    private final DocumentRepository documentRepository;
+    private final DocumentService documentService;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final BulkJobProperties properties;
+    private final String owner = UUID.randomUUID().toString();
+    private final ThreadPoolExecutor workers;
+    private final Semaphore freeWorkers;
+    private final Set<Long> runningJobs = ConcurrentHashMap.newKeySet();
+
+    public BulkJobService(BulkJobRepository bulkJobRepository,
+                          DocumentRepository documentRepository,
+                          DocumentService documentService,
+                          ShardRouter shardRouter,
+                          TransactionTemplate transactionTemplate,
+                          ObjectMapper objectMapper,
+                          Validator validator,
+                          BulkJobProperties properties) {
+        if (properties.workerThreads() < 1 || properties.chunkSize() < 1) {
+            throw new IllegalArgumentException("Bulk jobs need at least one worker and one item per chunk");
+        }
+        this.bulkJobRepository = bulkJobRepository;
+        this.documentRepository = documentRepository;
+        this.documentService = documentService;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.properties = properties;
+
+        // Jobs are only claimed for a free worker, so the queue never holds more than one job per worker.
+        var threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(properties.workerThreads(), properties.workerThreads(), 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(properties.workerThreads()),
+                runnable -> new Thread(runnable, "bulk-job-" + threadCount.incrementAndGet()));
+        this.freeWorkers = new Semaphore(properties.workerThreads());
+    }
+
+    /**
+     * Stores a new job and starts it when a worker is free.
+     *
+     * @param dto The operation and its items.
+     * @return The queued job.
+     * @throws BadRequestException if the items do not match the operation or are too many.
+     */
+    public BulkJobDto submit(BulkJobRequestDto dto) {
+        var items = dto.type() == BulkJobType.IMPORT ? validateDocuments(dto.documents()) : validateIds(dto.ids());
+        if (items.size() > properties.maxItems()) {
+            throw new BadRequestException("A job accepts at most " + properties.maxItems() + " items");
+        }
+
+        var job = bulkJobRepository.save(new BulkJob(dto.type(), toJson(items), items.size()));
+        dispatch();
+        return toDto(job);
+    }
+
+    /**
+     * @throws NotFoundException if no job is found with the given ID.
+     */
+    public BulkJobDto findById(Long id) {
+        return toDto(bulkJobRepository.findById(id).orElseThrow(() -> new NotFoundException("Job not found")));
+    }
+
+    /**
+     * Cancels a job. A queued job is cancelled right away; a running one stops after its current chunk.
+     *
+     * @throws NotFoundException if no job is found with the given ID.
+     * @throws BadRequestException if the job has already finished.
+     */
+    public BulkJobDto cancel(Long id) {
+        return transactionTemplate.execute(status -> {
+            var job = bulkJobRepository.findById(id).orElseThrow(() -> new NotFoundException("Job not found"));
+            if (job.getStatus().isFinished()) {
+                throw new BadRequestException("The job has already finished");
+            }
+
+            if (job.getStatus() == BulkJobStatus.QUEUED) job.finish(BulkJobStatus.CANCELLED);
+            else job.requestCancel();
+            return toDto(job);
+        });
+    }
+
+    /**
+     * Hands waiting jobs, and jobs whose node stopped renewing the lease, to the free workers of this node.
+     */
+    @Scheduled(fixedDelayString = "${app.jobs.poll-interval-ms:5000}")
+    public void dispatch() {
+        while (!workers.isShutdown() && freeWorkers.tryAcquire()) {
+            Optional<Long> claimed;
+            try {
+                claimed = transactionTemplate.execute(status -> claimNext());
+            } catch (RuntimeException e) {
+                freeWorkers.release();
+                throw e;
+            }
+
+            if (claimed == null || claimed.isEmpty()) {
+                freeWorkers.release();
+                return;
+            }
+
+            var jobId = claimed.get();
+            workers.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    freeWorkers.release();
+                }
+            });
+        }
+    }
+
+    /**
+     * Extends the leases of the jobs running on this node.
+     */
+    @Scheduled(fixedDelayString = "${app.jobs.lease-renewal-interval-ms:15000}")
+    public void renewLeases() {
+        if (runningJobs.isEmpty()) return;
+
+        var leaseExpiresAt = LocalDateTime.now().plus(properties.lease());
+        transactionTemplate.executeWithoutResult(status -> bulkJobRepository.renewLeases(Set.copyOf(runningJobs), owner, leaseExpiresAt));
+    }
+
+    @Override
+    public void destroy() {
+        // The running jobs stay RUNNING and are resumed by the next node once their lease expires.
+        workers.shutdownNow();
+    }
+
+    private Optional<Long> claimNext() {
+        var now = LocalDateTime.now();
+        var claimed = bulkJobRepository.findNextClaimableId(now).flatMap(bulkJobRepository::findById);
+        claimed.ifPresent(job -> job.claim(owner, now.plus(properties.lease())));
+        return claimed.map(BulkJob::getId);
+    }
+
+    private void run(Long jobId) {
+        runningJobs.add(jobId);
+        try {
+            var job = Objects.requireNonNull(transactionTemplate.execute(status -> {
+                var found = bulkJobRepository.findById(jobId).orElseThrow();
+                return new ClaimedJob(found.getType(), parseItems(found.getType(), found.getItems()), found.getPosition());
+            }));
+            log.info("Running {} job {} from item {} of {}", job.type(), jobId, job.position(), job.items().size());
+
+            var position = job.position();
+            while (position < job.items().size()) {
+                if (Thread.currentThread().isInterrupted()) return;
+                if (bulkJobRepository.isCancelRequested(jobId)) {
+                    finish(jobId, BulkJobStatus.CANCELLED);
+                    return;
+                }
+
+                var end = Math.min(position + properties.chunkSize(), job.items().size());
+                processChunk(jobId, job.type(), job.items().subList(position, end), position);
+                position = end;
+            }
+            finish(jobId, BulkJobStatus.COMPLETED);
+        } catch (LeaseLostException e) {
+            log.warn("Job {} was taken over by another node, stopping", jobId);
+        } catch (RuntimeException e) {
+            if (workers.isShutdown()) return;
+            log.error("Job {} failed", jobId, e);
+            finish(jobId, BulkJobStatus.FAILED);
+        } finally {
+            runningJobs.remove(jobId);
+        }
+    }
+
+    /**
+     * Applies each item of a chunk in a transaction of its own together with the job's progress, so the lock
+     * of its acronym is held for that item only. A failing item is rolled back and recorded.
+     */
+    private void processChunk(Long jobId, BulkJobType type, List<?> chunk, int firstPosition) {
+        for (int i = 0; i < chunk.size(); i++) {
+            var item = chunk.get(i);
+            try {
+                if (shardRouter.isSharded()) {
+                    transactionTemplate.executeWithoutResult(status -> apply(type, item));
+                    transactionTemplate.executeWithoutResult(status -> advance(jobId, 1, List.of()));
+                } else {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        apply(type, item);
+                        advance(jobId, 1, List.of());
+                    });
+                }
+            } catch (LeaseLostException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                var error = new BulkJobErrorDto(firstPosition + i, toJson(item), Objects.requireNonNullElse(e.getMessage(), e.getClass().getSimpleName()));
+                transactionTemplate.executeWithoutResult(status -> advance(jobId, 0, List.of(error)));
+            }
+        }
+    }
+
+    private void apply(BulkJobType type, Object item) {
+        switch (type) {
+            case GENERATE_VERSION -> documentService.generateVersion((Long) item);
+            case SUBMIT -> documentService.submit((Long) item);
+            case IMPORT -> documentService.save((DocumentCreateDto) item);
+        }
+    }
+
+    /**
+     * @throws LeaseLostException if another node has taken the job over, which rolls back the current item.
+     */
+    private void advance(Long jobId, int processed, List<BulkJobErrorDto> newErrors) {
+        String errors = null;
+        if (!newErrors.isEmpty()) {
+            var recorded = new ArrayList<>(parseErrors(bulkJobRepository.findErrorsById(jobId)));
+            newErrors.stream().limit(Math.max(0, MAX_RECORDED_ERRORS - recorded.size())).forEach(recorded::add);
+            errors = toJson(recorded);
+        }
+        if (bulkJobRepository.advance(jobId, owner, processed, newErrors.size(), errors, LocalDateTime.now()) == 0) {
+            throw new LeaseLostException();
+        }
+    }
+
+    private void finish(Long jobId, BulkJobStatus status) {
+        var finished = transactionTemplate.execute(it -> bulkJobRepository.finish(jobId, owner, status, LocalDateTime.now()));
+        if (Objects.equals(finished, 0)) {
+            log.warn("Job {} was taken over by another node before it could be marked {}", jobId, status.getDescription().toLowerCase());
+            return;
+        }
+        log.info("Job {} {}", jobId, status.getDescription().toLowerCase());
+    }
+
+    private List<Long> validateIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new BadRequestException("Ids are required");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new BadRequestException("Ids must not be null");
+        }
+        return ids;
+    }
+
+    private List<DocumentCreateDto> validateDocuments(List<DocumentCreateDto> documents) {
+        if (documents == null || documents.isEmpty()) {
+            throw new BadRequestException("Documents are required");
+        }
+        for (int i = 0; i < documents.size(); i++) {
+            var document = documents.get(i);
+            if (document == null) {
+                throw new BadRequestException("Document " + i + " must not be null");
+            }
+            var violation = validator.validate(document).stream().findFirst();
+            if (violation.isPresent()) {
+                throw new BadRequestException("Document " + i + ": " + violation.get().getMessage());
+            }
+        }
+        return documents;
+    }
+
+    private BulkJobDto toDto(BulkJob job) {
+        var handled = job.getProcessed() + job.getFailed();
+        Double itemsPerSecond = null;
+        if (job.getStartedAt() != null) {
+            var end = job.getFinishedAt() != null ? job.getFinishedAt() : LocalDateTime.now();
+            var seconds = Math.max(Duration.between(job.getStartedAt(), end).toMillis(), 1) / 1000.0;
+            itemsPerSecond = handled / seconds;
+        }
+
+        return new BulkJobDto(
+                job.getId(),
+                job.getType(),
+                job.getStatus(),
+                job.isCancelRequested(),
+                job.getTotal(),
+                job.getProcessed(),
+                job.getFailed(),
+                job.getTotal() - handled,
+                itemsPerSecond,
+                parseErrors(job.getErrors()),
+                job.getCreatedAt(),
+                job.getStartedAt(),
+                job.getFinishedAt());
+    }
+
+    private List<?> parseItems(BulkJobType type, String items) {
+        try {
+            return type == BulkJobType.IMPORT ? objectMapper.readValue(items, DOCUMENT_ITEMS) : objectMapper.readValue(items, ID_ITEMS);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read the items of a job", e);
+        }
+    }
+
+    private List<BulkJobErrorDto> parseErrors(String errors) {
+        try {
+            return objectMapper.readValue(errors, ERRORS);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read the errors of a job", e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize a job", e);
+        }
+    }
+
+    private record ClaimedJob(BulkJobType type, List<?> items, int position) {
+    }
+
+    /**
+     * Thrown when a progress write finds that this node no longer owns the job.
+     */
+    private static class LeaseLostException extends RuntimeException {
+        LeaseLostException() {
+            super("The lease of the job was lost", null, false, false);
+        }
+    }
+}
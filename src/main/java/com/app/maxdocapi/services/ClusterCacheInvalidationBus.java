@@ -0,0 +1,224 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.config.CacheInvalidationProperties;
+import com.app.maxdocapi.database.sharding.ShardRouter;
+import com.app.maxdocapi.models.records.CacheInvalidationDto;
+import com.app.maxdocapi.models.records.DocumentChangedEvent;
+import com.app.maxdocapi.models.records.DocumentsChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps the in-memory reads of the other app nodes in line with the writes of this one: the cached documents and
+ * facets, the typeahead index and the acronym directory. The documents and acronyms written on this node are
+ * collected after each commit and broadcast in batches through Postgres NOTIFY, so a burst of writes costs
+ * the other nodes one message per batch. Each node applies the batches of the others to its own caches.
+ * <p>
+ * A NOTIFY is lost for a node that is not listening at that moment, so a node whose listening connection
+ * came back empties and reloads everything; so does every other node when a node had too many writes pending.
+ */
+@Service
+public class ClusterCacheInvalidationBus {
+    public static final String CHANNEL = "cache_invalidations";
+    public static final String METRIC_NAME = "app.cache.invalidations";
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterCacheInvalidationBus.class);
+    // Postgres rejects payloads of 8000 bytes or more.
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+
+    private final CacheInvalidationProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final DocumentCacheInvalidator documentCacheInvalidator;
+    private final DocumentTypeaheadService documentTypeaheadService;
+    private final AcronymAutocompleteService acronymAutocompleteService;
+    private final MeterRegistry meterRegistry;
+    private final String node = UUID.randomUUID().toString();
+
+    // Guarded by this.
+    private Set<Long> pendingDocumentIds = new LinkedHashSet<>();
+    private Set<String> pendingAcronyms = new LinkedHashSet<>();
+    private boolean pendingAll;
+
+    public ClusterCacheInvalidationBus(CacheInvalidationProperties properties,
+                                       JdbcTemplate jdbcTemplate,
+                                       ShardRouter shardRouter,
+                                       ObjectMapper objectMapper,
+                                       PlatformTransactionManager transactionManager,
+                                       PostgresNotificationListener notificationListener,
+                                       DocumentCacheInvalidator documentCacheInvalidator,
+                                       DocumentTypeaheadService documentTypeaheadService,
+                                       AcronymAutocompleteService acronymAutocompleteService,
+                                       MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.objectMapper = objectMapper;
+        // Batches are sent long after the writes committed, so the NOTIFY needs a transaction of its own.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.documentCacheInvalidator = documentCacheInvalidator;
+        this.documentTypeaheadService = documentTypeaheadService;
+        this.acronymAutocompleteService = acronymAutocompleteService;
+        this.meterRegistry = meterRegistry;
+
+        if (properties.enabled()) {
+            notificationListener.subscribe(CHANNEL, this::onNotification);
+            notificationListener.onReconnect(this::invalidateAll);
+        }
+    }
+
+    /**
+     * Queues the written document for the next batch once its transaction has committed.
+     *
+     * @param event The change published by the document service.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onDocumentChanged(DocumentChangedEvent event) {
+        if (!properties.enabled()) return;
+
+        queue(List.of(event.documentId()), List.of(event.acronym()), false);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onDocumentsChanged(DocumentsChangedEvent event) {
+        if (!properties.enabled()) return;
+
+        queue(event.documentIds(), event.acronyms(), false);
+    }
+
+    /**
+     * Broadcasts what was written since the previous batch, in as few notifications as the payload limit allows.
+     * The writes themselves have already succeeded, so a failure is logged and the batch is queued again for the
+     * next flush; the notifications are sent in one transaction, so none of them went out.
+     */
+    @Scheduled(fixedDelayString = "${app.cache-invalidation.flush-interval-ms:100}")
+    public void publish() {
+        List<Long> documentIds;
+        List<String> acronyms;
+        boolean all;
+        synchronized (this) {
+            if (!pendingAll && pendingDocumentIds.isEmpty()) return;
+
+            documentIds = List.copyOf(pendingDocumentIds);
+            acronyms = List.copyOf(pendingAcronyms);
+            all = pendingAll;
+            pendingAll = false;
+            pendingDocumentIds = new LinkedHashSet<>();
+            pendingAcronyms = new LinkedHashSet<>();
+        }
+
+        var messages = all
+                ? List.of(new CacheInvalidationDto(node, true, List.of(), List.of()))
+                : split(documentIds, acronyms);
+        try {
+            // The nodes listen on the coordination shard, whichever shard the documents were written to.
+            shardRouter.onShard(ShardRouter.COORDINATION_SHARD, () -> transactionTemplate.executeWithoutResult(status ->
+                    messages.forEach(message -> jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, CHANNEL, write(message)))));
+            count("sent", messages.size());
+        } catch (RuntimeException e) {
+            count("failed", messages.size());
+            log.warn("Could not broadcast {} cache invalidations, retrying with the next batch", messages.size(), e);
+            synchronized (this) {
+                queue(documentIds, acronyms, all);
+            }
+        }
+    }
+
+    /**
+     * Adds to the next batch; once too much is pending, the other nodes are told to reload everything instead.
+     * Callers hold the lock of this.
+     */
+    private void queue(Collection<Long> documentIds, Collection<String> acronyms, boolean all) {
+        if (pendingAll) return;
+
+        pendingDocumentIds.addAll(documentIds);
+        pendingAcronyms.addAll(acronyms);
+        if (all || pendingDocumentIds.size() + pendingAcronyms.size() > properties.maxPending()) {
+            pendingAll = true;
+            pendingDocumentIds = new LinkedHashSet<>();
+            pendingAcronyms = new LinkedHashSet<>();
+        }
+    }
+
+    private void onNotification(String payload) {
+        CacheInvalidationDto message;
+        try {
+            message = objectMapper.readValue(payload, CacheInvalidationDto.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (node.equals(message.node())) return;
+
+        count("received", 1);
+        if (message.all()) {
+            invalidateAll();
+            return;
+        }
+        documentCacheInvalidator.evict(message.documentIds());
+        documentTypeaheadService.refresh(message.documentIds());
+        acronymAutocompleteService.refresh(message.acronyms());
+    }
+
+    private void invalidateAll() {
+        log.info("Reloading the caches, writes made on other nodes may have been missed");
+        count("full", 1);
+        documentCacheInvalidator.clear();
+        documentTypeaheadService.rebuild();
+        acronymAutocompleteService.reload();
+    }
+
+    /**
+     * Splits the batch in halves until each half fits in one notification.
+     */
+    private List<CacheInvalidationDto> split(List<Long> documentIds, List<String> acronyms) {
+        var message = new CacheInvalidationDto(node, false, documentIds, acronyms);
+        if (write(message).getBytes(StandardCharsets.UTF_8).length <= MAX_PAYLOAD_BYTES
+                || documentIds.size() + acronyms.size() <= 1) {
+            return List.of(message);
+        }
+
+        var messages = new ArrayList<CacheInvalidationDto>();
+        messages.addAll(split(documentIds.subList(0, documentIds.size() / 2), acronyms.subList(0, acronyms.size() / 2)));
+        messages.addAll(split(documentIds.subList(documentIds.size() / 2, documentIds.size()), acronyms.subList(acronyms.size() / 2, acronyms.size())));
+        return messages;
+    }
+
+    private String write(CacheInvalidationDto message) {
+        try {
+            return objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize cache invalidation", e);
+        }
+    }
+
+    private void count(String outcome, int messages) {
+        Counter.builder(METRIC_NAME)
+                .description("Cache invalidation messages between the app nodes")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment(messages);
+    }
+}
@@ -0,0 +1,99 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.config.CacheConfig;
+import com.app.maxdocapi.models.dtos.DocumentListDto;
+import com.app.maxdocapi.models.records.DocumentChangedEvent;
+import com.app.maxdocapi.models.records.DocumentsChangedEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Evicts the cached reads touched by a document write once the write has committed.
+ * Evicting before the commit would let a concurrent read cache the old row again.
+ * <p>
+ * A read may still load a row just before a write commits and cache it just after the eviction, so reads only
+ * cache documents through {@link #cacheIfCurrent}, which drops the row when an eviction happened since the load.
+ * Evictions are counted per stripe of ids rather than per id, so that the counters take a fixed amount of memory;
+ * an eviction of another id of the same stripe only costs a cache miss.
+ */
+@Service
+public class DocumentCacheInvalidator {
+    private static final int GENERATION_STRIPES = 4096;
+
+    private final Cache documents;
+    private final Cache documentFacets;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public DocumentCacheInvalidator(CacheManager cacheManager) {
+        this.documents = Objects.requireNonNull(cacheManager.getCache(CacheConfig.DOCUMENTS));
+        this.documentFacets = Objects.requireNonNull(cacheManager.getCache(CacheConfig.DOCUMENT_FACETS));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentChanged(DocumentChangedEvent event) {
+        evict(List.of(event.documentId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentsChanged(DocumentsChangedEvent event) {
+        evict(event.documentIds());
+    }
+
+    /**
+     * Evicts the cached reads touched by documents written on another node.
+     */
+    public void evict(Collection<Long> documentIds) {
+        for (var id : documentIds) {
+            generations.incrementAndGet(stripeOf(id));
+            documents.evict(id);
+        }
+        documentFacets.clear();
+    }
+
+    /**
+     * Empties the caches, for when writes made on other nodes may have been missed.
+     */
+    public void clear() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        documents.clear();
+        documentFacets.clear();
+    }
+
+    /**
+     * @return The generation to hand to {@link #cacheIfCurrent}, taken before the document is read from the database.
+     */
+    public long generationOf(Long id) {
+        return generations.get(stripeOf(id));
+    }
+
+    /**
+     * Caches a document read from the database, unless it was evicted since the read started.
+     * The generation is checked again after the put, so that an eviction racing with the put cannot be lost.
+     *
+     * @param generation The generation {@link #generationOf} returned before the read.
+     * @return Whether the document stayed in the cache.
+     */
+    public boolean cacheIfCurrent(DocumentListDto document, long generation) {
+        var stripe = stripeOf(document.getId());
+        if (generations.get(stripe) != generation) return false;
+
+        documents.put(document.getId(), document);
+        if (generations.get(stripe) == generation) return true;
+
+        documents.evict(document.getId());
+        return false;
+    }
+
+    private static int stripeOf(Long id) {
+        return Math.floorMod(Long.hashCode(id) * 0x9E3779B9, GENERATION_STRIPES);
+    }
+}
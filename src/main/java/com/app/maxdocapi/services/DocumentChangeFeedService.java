@@ -0,0 +1,207 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.models.records.DocumentChangeDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans document changes received through {@link PostgresNotificationListener} out to SSE subscribers.
+ * <p>
+ * The most recent changes are kept in a bounded replay buffer so that reconnecting clients can resume
+ * from their Last-Event-ID. Postgres delivers notifications in commit order to every listener, so the
+ * buffer order is the same on all nodes. Event ids are not in that order, though, so a client whose
+ * Last-Event-ID is no longer in the buffer gets a {@value #RESET_EVENT} event telling it to reload
+ * instead of the changes with greater ids, which could skip some. Each subscriber has its own bounded
+ * queue drained on a small shared pool; a subscriber whose queue overflows is disconnected instead of
+ * slowing everyone down.
+ */
+@Service
+public class DocumentChangeFeedService {
+    public static final String RESET_EVENT = "reset";
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentChangeFeedService.class);
+
+    private final ObjectMapper objectMapper;
+    private final int replaySize;
+    private final int subscriberBufferSize;
+    private final long emitterTimeoutMillis;
+    private final ExecutorService senders;
+    private final Deque<DocumentChangeDto> recentChanges = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    public DocumentChangeFeedService(PostgresNotificationListener notificationListener,
+                                     ObjectMapper objectMapper,
+                                     @Value("${app.documents.change-feed.replay-size:1000}") int replaySize,
+                                     @Value("${app.documents.change-feed.subscriber-buffer-size:1024}") int subscriberBufferSize,
+                                     @Value("${app.documents.change-feed.timeout-ms:1800000}") long emitterTimeoutMillis,
+                                     @Value("${app.documents.change-feed.sender-threads:4}") int senderThreads) {
+        this.objectMapper = objectMapper;
+        this.replaySize = replaySize;
+        this.subscriberBufferSize = subscriberBufferSize;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.senders = Executors.newFixedThreadPool(senderThreads, Thread.ofPlatform().name("change-feed-", 0).daemon().factory());
+        notificationListener.subscribe(DocumentChangeNotifier.CHANNEL, this::onNotification);
+    }
+
+    /**
+     * Opens a change stream for one client.
+     *
+     * @param lastEventId The id of the last change the client has seen, or null to receive only new changes.
+     * @return The emitter bound to the client's response.
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        var subscriber = new Subscriber(new SseEmitter(emitterTimeoutMillis));
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(e -> subscribers.remove(subscriber));
+
+        // Registering and replaying under the buffer lock keeps the replayed and the live changes in order.
+        synchronized (recentChanges) {
+            subscribers.add(subscriber);
+            if (lastEventId != null) {
+                changesAfter(lastEventId).ifPresentOrElse(changes -> changes.forEach(subscriber::enqueue), subscriber::reset);
+            }
+        }
+
+        return subscriber.emitter;
+    }
+
+    /**
+     * Sends a comment line to every subscriber so that dead connections are detected and proxies keep them open.
+     */
+    @Scheduled(fixedDelayString = "${app.documents.change-feed.heartbeat-ms:15000}")
+    public void sendHeartbeats() {
+        subscribers.forEach(Subscriber::heartbeat);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(it -> it.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private void onNotification(String payload) {
+        DocumentChangeDto change;
+        try {
+            change = objectMapper.readValue(payload, DocumentChangeDto.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed document change {}", payload, e);
+            return;
+        }
+
+        synchronized (recentChanges) {
+            recentChanges.addLast(change);
+            if (recentChanges.size() > replaySize) recentChanges.removeFirst();
+
+            subscribers.forEach(it -> it.enqueue(change));
+        }
+    }
+
+    /**
+     * Returns the buffered changes that follow the given event, or nothing when the event is no longer buffered.
+     */
+    private Optional<List<DocumentChangeDto>> changesAfter(long lastEventId) {
+        var result = new ArrayList<DocumentChangeDto>();
+        var found = false;
+        for (var change : recentChanges) {
+            if (found) result.add(change);
+            else if (change.eventId() == lastEventId) found = true;
+        }
+        return found ? Optional.of(result) : Optional.empty();
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<DocumentChangeDto> queue = new ArrayBlockingQueue<>(subscriberBufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean resetPending;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void enqueue(DocumentChangeDto change) {
+            if (!queue.offer(change)) {
+                log.info("Disconnecting a slow change feed subscriber");
+                drop();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        /**
+         * Tells the client, before any other change, that the changes it missed cannot be replayed.
+         */
+        private void reset() {
+            resetPending = true;
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                if (resetPending) {
+                    resetPending = false;
+                    emitter.send(SseEmitter.event().name(RESET_EVENT).data("Missed changes cannot be replayed, reload the documents"));
+                }
+
+                DocumentChangeDto change;
+                while ((change = queue.poll()) != null) {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(change.eventId()))
+                            .name(change.type().name())
+                            .data(change));
+                }
+            } catch (IOException | IllegalStateException e) {
+                drop();
+            } finally {
+                draining.set(false);
+            }
+
+            // A change may have been queued after the last poll but before the flag was cleared.
+            if ((resetPending || !queue.isEmpty()) && subscribers.contains(this)) scheduleDrain();
+        }
+
+        private void heartbeat() {
+            senders.execute(() -> {
+                try {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } catch (IOException | IllegalStateException e) {
+                    drop();
+                }
+            });
+        }
+
+        private void drop() {
+            subscribers.remove(this);
+            queue.clear();
+            emitter.complete();
+        }
+    }
+}
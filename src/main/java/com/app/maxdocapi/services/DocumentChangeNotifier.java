@@ -0,0 +1,92 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.database.sharding.ShardRouter;
+import com.app.maxdocapi.models.records.DocumentChangeDto;
+import com.app.maxdocapi.models.records.DocumentChangedEvent;
+import com.app.maxdocapi.models.records.DocumentsChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * Publishes committed document changes to the other app nodes through Postgres NOTIFY.
+ * Event ids come from a database sequence so that they are unique across nodes.
+ */
+@Service
+public class DocumentChangeNotifier {
+    public static final String CHANNEL = "document_changes";
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentChangeNotifier.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public DocumentChangeNotifier(JdbcTemplate jdbcTemplate, ShardRouter shardRouter, ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.objectMapper = objectMapper;
+        // The write transaction has already committed here, so the NOTIFY needs a transaction of its own.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Sends the change after the write transaction commits, or right away for writes made without one.
+     * A failure is only logged: the write itself has already succeeded.
+     *
+     * @param event The change published by the document service.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentChanged(DocumentChangedEvent event) {
+        try {
+            // The nodes listen on the coordination shard, whichever shard the document was written to.
+            shardRouter.onShard(ShardRouter.COORDINATION_SHARD, () -> transactionTemplate.executeWithoutResult(status -> notify(event)));
+        } catch (DataAccessException | IllegalStateException e) {
+            log.warn("Could not publish {} for document {}", event.type(), event.documentId(), e);
+        }
+    }
+
+    /**
+     * Sends the changes of the batch in a single transaction once the write transaction commits.
+     *
+     * @param event The changes published together.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentsChanged(DocumentsChangedEvent event) {
+        try {
+            shardRouter.onShard(ShardRouter.COORDINATION_SHARD, () -> transactionTemplate.executeWithoutResult(status -> event.changes().forEach(this::notify)));
+        } catch (DataAccessException | IllegalStateException e) {
+            log.warn("Could not publish the changes of {} documents", event.changes().size(), e);
+        }
+    }
+
+    private void notify(DocumentChangedEvent event) {
+        var eventId = jdbcTemplate.queryForObject("SELECT nextval('document_change_event_seq')", Long.class);
+        var change = new DocumentChangeDto(
+                eventId,
+                event.type(),
+                event.documentId(),
+                event.acronym(),
+                event.version(),
+                event.phase(),
+                LocalDateTime.now());
+
+        try {
+            jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, CHANNEL, objectMapper.writeValueAsString(change));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize document change", e);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.config.DocumentRetentionProperties;
+import com.app.maxdocapi.database.repositories.DocumentFileRepository;
+import com.app.maxdocapi.database.repositories.DocumentRepository;
+import com.app.maxdocapi.database.sharding.ShardRouter;
+import com.app.maxdocapi.enums.DocumentEventType;
+import com.app.maxdocapi.enums.Phase;
+import com.app.maxdocapi.models.dtos.DocumentListDto;
+import com.app.maxdocapi.models.projections.RetentionCandidateProjection;
+import com.app.maxdocapi.models.records.DocumentChangedEvent;
+import com.app.maxdocapi.models.records.DocumentsChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes the OBSOLETE versions of each acronym beyond the most recent ones that are kept.
+ * <p>
+ * Versions are deleted oldest first, in small batches ordered by acronym and version, each in a transaction
+ * of its own and followed by a pause, so that row locks are short-lived and replicas can keep up. Each batch only
+ * reads the versions of the next batch-size acronyms, so a run reads every OBSOLETE version about once. When an
+ * export directory is set, each batch is written to a JSON lines file and synced to disk before it is deleted.
+ * The deleted versions of a batch are published together, so caches and in-memory indexes drop them at once.
+ * <p>
+ * Deletes only ever touch OBSOLETE versions, which never change phase again, so a run can safely overlap
+ * the regular writes. Runs of different nodes exclude each other through a session advisory lock on the
+ * coordination shard, held on a connection of its own for the whole run.
+ */
+@Service
+public class DocumentRetentionJob {
+    public static final String METRIC_PREFIX = "app.documents.retention";
+    public static final String LOCK_NAME = "documents.retention";
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentRetentionJob.class);
+    private static final DateTimeFormatter EXPORT_FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final DocumentRepository documentRepository;
+    private final DocumentFileRepository documentFileRepository;
+    private final ShardRouter shardRouter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final DocumentRetentionProperties properties;
+    private final Counter deleted;
+    private final Counter exported;
+    private final Counter batches;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public DocumentRetentionJob(DocumentRepository documentRepository,
+                                DocumentFileRepository documentFileRepository,
+                                ShardRouter shardRouter,
+                                ApplicationEventPublisher eventPublisher,
+                                TransactionTemplate transactionTemplate,
+                                JdbcTemplate jdbcTemplate,
+                                ObjectMapper objectMapper,
+                                DocumentRetentionProperties properties,
+                                MeterRegistry meterRegistry) {
+        if (properties.keepObsolete() < 0 || properties.batchSize() < 1) {
+            throw new IllegalArgumentException("Retention must keep zero or more versions and delete at least one per batch");
+        }
+        this.documentRepository = documentRepository;
+        this.documentFileRepository = documentFileRepository;
+        this.shardRouter = shardRouter;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.deleted = Counter.builder(METRIC_PREFIX + ".deleted")
+                .description("OBSOLETE versions deleted by the retention job")
+                .register(meterRegistry);
+        this.exported = Counter.builder(METRIC_PREFIX + ".exported")
+                .description("OBSOLETE versions exported by the retention job before being deleted")
+                .register(meterRegistry);
+        this.batches = Counter.builder(METRIC_PREFIX + ".batches")
+                .description("Batches deleted by the retention job")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".running", running, it -> it.get() ? 1 : 0)
+                .description("Whether the retention job is running")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.documents.retention.cron:0 30 3 * * *}")
+    public void runScheduled() {
+        if (properties.enabled()) run();
+    }
+
+    /**
+     * Deletes, on every shard, the OBSOLETE versions beyond the most recent ones of their acronym.
+     * Does nothing when a run is already in progress on this node or another one.
+     *
+     * @return How many versions were deleted.
+     */
+    public long run() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Skipping the retention run, the previous one is still in progress");
+            return 0;
+        }
+
+        try {
+            return Objects.requireNonNull(shardRouter.onShard(ShardRouter.COORDINATION_SHARD,
+                    () -> jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+                        if (!advisoryLock(connection, "pg_try_advisory_lock")) {
+                            log.info("Skipping the retention run, another node is running it");
+                            return 0L;
+                        }
+                        try {
+                            return runLocked();
+                        } finally {
+                            advisoryLock(connection, "pg_advisory_unlock");
+                        }
+                    })));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private long runLocked() {
+        var start = System.nanoTime();
+        var total = new AtomicLong();
+        try (var export = properties.exportDirectory() == null ? null : openExport()) {
+            shardRouter.forEachShard(shard -> total.addAndGet(compact(export)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close the retention export", e);
+        }
+
+        log.info("Retention deleted {} OBSOLETE versions in {} ms", total.get(), (System.nanoTime() - start) / 1_000_000);
+        return total.get();
+    }
+
+    private static boolean advisoryLock(Connection connection, String function) throws SQLException {
+        try (var statement = connection.prepareStatement("SELECT " + function + "(hashtextextended(?, 0))")) {
+            statement.setString(1, LOCK_NAME);
+            try (var rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    /**
+     * Deletes the versions of the shard of the current thread, batch after batch, until none is left.
+     * A batch covers at most batch-size acronyms; while it is full, the next one starts again at its last
+     * acronym, which may have more versions to delete, otherwise right after the acronyms it covered.
+     */
+    private long compact(FileChannel export) {
+        var fromAcronym = "";
+        var inclusive = true;
+        long total = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            waitForReplicas();
+
+            var acronyms = documentRepository.findObsoleteAcronymsFrom(fromAcronym, inclusive, properties.batchSize());
+            if (acronyms.isEmpty()) break;
+
+            var batch = Objects.requireNonNull(transactionTemplate.execute(status -> deleteNextBatch(acronyms, export)));
+            if (!batch.isEmpty()) {
+                total += batch.size();
+                batches.increment();
+                log.debug("Retention deleted {} versions, up to {} v{}", total, batch.getLast().getAcronym(), batch.getLast().getVersion());
+            }
+
+            if (batch.size() == properties.batchSize()) {
+                fromAcronym = batch.getLast().getAcronym();
+                inclusive = true;
+            } else if (acronyms.size() == properties.batchSize()) {
+                fromAcronym = acronyms.getLast();
+                inclusive = false;
+            } else {
+                break;
+            }
+            pause();
+        }
+        return total;
+    }
+
+    private List<RetentionCandidateProjection> deleteNextBatch(List<String> acronyms, FileChannel export) {
+        var candidates = documentRepository.findObsoleteBeyondRetention(acronyms.toArray(String[]::new), properties.keepObsolete(), properties.batchSize());
+        if (candidates.isEmpty()) return candidates;
+
+        var ids = candidates.stream().map(RetentionCandidateProjection::getId).toList();
+        if (export != null) {
+            // Written and synced before the delete commits, so a deleted version is never missing from the export.
+            var exportedRows = documentRepository.findAllByIdIn(ids.toArray(Long[]::new));
+            write(export, exportedRows.stream().map(DocumentListDto::new).toList());
+            exported.increment(exportedRows.size());
+        }
+
+        documentRepository.deleteObsoleteByIdIn(ids);
+        // The stored contents stay, since newer versions may share them.
+        documentFileRepository.deleteOrphansByDocumentIdIn(ids);
+        deleted.increment(candidates.size());
+        eventPublisher.publishEvent(new DocumentsChangedEvent(candidates.stream()
+                .map(it -> new DocumentChangedEvent(DocumentEventType.DELETED, it.getId(), it.getAcronym(), it.getVersion(), Phase.OBSOLETE))
+                .toList()));
+        return candidates;
+    }
+
+    private void waitForReplicas() {
+        if (properties.maxReplicationLag() == null) return;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            var lagSeconds = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(MAX(EXTRACT(EPOCH FROM replay_lag)), 0) FROM pg_stat_replication", Double.class);
+            if (lagSeconds == null || lagSeconds * 1000 <= properties.maxReplicationLag().toMillis()) return;
+
+            log.debug("Retention waits for the replicas, which lag {} s behind", lagSeconds);
+            pause();
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(properties.pauseBetweenBatches());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private FileChannel openExport() {
+        var file = properties.exportDirectory().resolve("obsolete-documents-" + LocalDateTime.now().format(EXPORT_FILE_TIMESTAMP) + ".jsonl");
+        try {
+            Files.createDirectories(properties.exportDirectory());
+            return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the retention export " + file, e);
+        }
+    }
+
+    private void write(FileChannel export, List<DocumentListDto> documents) {
+        try {
+            var lines = new ByteArrayOutputStream();
+            for (var document : documents) {
+                lines.write(objectMapper.writeValueAsBytes(document));
+                lines.write('\n');
+            }
+
+            var buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                export.write(buffer);
+            }
+            export.force(false);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize an exported document", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the retention export", e);
+        }
+    }
+}
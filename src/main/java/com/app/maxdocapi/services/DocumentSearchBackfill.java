@@ -0,0 +1,75 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.common.SearchNormalizer;
+import com.app.maxdocapi.database.repositories.DocumentRepository;
+import com.app.maxdocapi.database.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fills the normalized search columns of documents written before those columns existed.
+ * Runs at startup in small batches, each in its own transaction; once every row is filled it only costs one query.
+ */
+@Component
+public class DocumentSearchBackfill implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(DocumentSearchBackfill.class);
+
+    private final DocumentRepository documentRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public DocumentSearchBackfill(DocumentRepository documentRepository,
+                                  ShardRouter shardRouter,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${app.documents.search-backfill.batch-size:500}") int batchSize) {
+        this.documentRepository = documentRepository;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        backfill();
+    }
+
+    /**
+     * @return How many documents were filled.
+     */
+    public int backfill() {
+        var total = new AtomicInteger();
+        shardRouter.forEachShard(shard -> {
+            int filled;
+            do {
+                filled = Objects.requireNonNull(transactionTemplate.execute(status -> fillNextBatch()));
+                total.addAndGet(filled);
+            } while (filled == batchSize);
+        });
+
+        if (total.get() > 0) log.info("Filled the search columns of {} documents", total.get());
+        return total.get();
+    }
+
+    private int fillNextBatch() {
+        // Filled rows leave the filter, so the first page is always the next batch.
+        var documents = documentRepository.findAllByTitleNormIsNullOrAcronymNormIsNull(PageRequest.of(0, batchSize, Sort.by("id")));
+        for (var document : documents) {
+            documentRepository.updateSearchColumns(
+                    document.getId(),
+                    SearchNormalizer.normalize(document.getTitle()),
+                    SearchNormalizer.normalize(document.getAcronym()));
+        }
+        return documents.size();
+    }
+}
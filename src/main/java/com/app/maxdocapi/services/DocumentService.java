@@ -1,30 +1,106 @@
 package com.app.maxdocapi.services;
 
+import com.app.maxdocapi.common.SearchNormalizer;
+import com.app.maxdocapi.common.SingleFlight;
+import com.app.maxdocapi.config.CacheConfig;
 import com.app.maxdocapi.database.entities.Document;
+import com.app.maxdocapi.database.entities.DocumentFile;
+import com.app.maxdocapi.database.repositories.DocumentFileRepository;
 import com.app.maxdocapi.database.repositories.DocumentRepository;
+import com.app.maxdocapi.database.sharding.ShardRouter;
+import com.app.maxdocapi.enums.DocumentEventType;
+import com.app.maxdocapi.enums.DocumentField;
 import com.app.maxdocapi.enums.Phase;
 import com.app.maxdocapi.exceptions.errors.BadRequestException;
 import com.app.maxdocapi.exceptions.errors.NotFoundException;
 import com.app.maxdocapi.models.dtos.DocumentCreateDto;
+import com.app.maxdocapi.models.dtos.DocumentListDto;
 import com.app.maxdocapi.models.projections.AcronymGroupListProjection;
 import com.app.maxdocapi.models.projections.DocumentListProjection;
+import com.app.maxdocapi.models.records.AcronymFacetDto;
+import com.app.maxdocapi.models.records.DocumentBatchDto;
+import com.app.maxdocapi.models.records.DocumentChangedEvent;
 import com.app.maxdocapi.models.records.DocumentEditInfoDto;
+import com.app.maxdocapi.models.records.DocumentFacetsDto;
+import com.app.maxdocapi.models.records.DocumentLineageDto;
+import com.app.maxdocapi.models.records.DocumentLineageEntryDto;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.transaction.Transactional;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class DocumentService {
-    private final DocumentRepository documentRepository;
+    private static final int MAX_FACET_ACRONYMS = 100;
+    private static final int MAX_BATCH_IDS = 1000;
+    private static final int MAX_LINEAGE_VERSIONS = 500;
+    private static final int FACET_KIND_PHASE = 1;
+    private static final int FACET_KIND_ACRONYM = 2;
+    private static final int FACET_KIND_TOTAL = 3;
 
-    public DocumentService(DocumentRepository documentRepository) {
+    private final DocumentRepository documentRepository;
+    private final DocumentFileRepository documentFileRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AcronymLockService acronymLockService;
+    private final ShardRouter shardRouter;
+    private final Cache documentCache;
+    private final DocumentCacheInvalidator documentCacheInvalidator;
+    private final SingleFlight<Long, DocumentListDto> findByIdCalls;
+    private final SingleFlight<DocumentListKey, Page<DocumentListDto>> findAllPaginatedCalls;
+    private final SingleFlight<DocumentFieldsListKey, Page<Map<String, Object>>> findAllPaginatedWithFieldsCalls;
+    private final SingleFlight<AcronymGroupKey, Page<AcronymGroupListProjection>> findAllGroupedByAcronymCalls;
+
+    public DocumentService(DocumentRepository documentRepository,
+                           DocumentFileRepository documentFileRepository,
+                           ApplicationEventPublisher eventPublisher,
+                           AcronymLockService acronymLockService,
+                           ShardRouter shardRouter,
+                           CacheManager cacheManager,
+                           DocumentCacheInvalidator documentCacheInvalidator,
+                           MeterRegistry meterRegistry) {
         this.documentRepository = documentRepository;
+        this.documentFileRepository = documentFileRepository;
+        this.eventPublisher = eventPublisher;
+        this.acronymLockService = acronymLockService;
+        this.shardRouter = shardRouter;
+        this.documentCache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.DOCUMENTS));
+        this.documentCacheInvalidator = documentCacheInvalidator;
+        this.findByIdCalls = new SingleFlight<>("findById", meterRegistry);
+        this.findAllPaginatedCalls = new SingleFlight<>("findAllPaginated", meterRegistry);
+        this.findAllPaginatedWithFieldsCalls = new SingleFlight<>("findAllPaginatedWithFields", meterRegistry);
+        this.findAllGroupedByAcronymCalls = new SingleFlight<>("findAllGroupedByAcronym", meterRegistry);
+    }
+
+    private record DocumentListKey(String title, String acronym, String phase, int page, int itemsPerPage, Sort.Direction sortDirection) {
+    }
+
+    private record DocumentFieldsListKey(String title, String acronym, String phase, Set<DocumentField> fields, int page, int itemsPerPage, Sort.Direction sortDirection) {
+    }
+
+    private record AcronymGroupKey(int page, int itemsPerPage, Sort.Direction sortDirection) {
     }
 
     /**
@@ -32,6 +108,7 @@ public class DocumentService {
      * This method allows filtering documents by title, acronym, and phase,
      * and paginates the result according to the specified page number and number of items per page.
      * The results are sorted by the document ID in the specified direction.
+     * Concurrent calls with the same arguments share a single query, which reads every shard.
      *
      * @param title The title of the document to filter by (can be null or empty for no filtering).
      * @param acronym The acronym of the document to filter by (can be null or empty for no filtering).
@@ -41,9 +118,91 @@ public class DocumentService {
      * @param sortDirection The direction in which the documents should be sorted (ascending or descending).
      * @return A Page object containing the filtered and paginated list of documents.
      */
-    public Page<DocumentListProjection> findAllPaginated(String title, String acronym, String phase, int page, int itemsPerPage, Sort.Direction sortDirection) {
+    public Page<DocumentListDto> findAllPaginated(String title, String acronym, String phase, int page, int itemsPerPage, Sort.Direction sortDirection) {
+        // The filters are normalized once here instead of once per row in the database.
+        var titleFilter = SearchNormalizer.normalize(title);
+        var acronymFilter = SearchNormalizer.normalize(acronym);
+        var phaseFilter = SearchNormalizer.normalize(phase);
+
         // Call the repository method to retrieve documents with the provided filters, pagination, and sorting.
-        return documentRepository.findAllWithFilters(title, acronym, phase, PageRequest.of(page, itemsPerPage, Sort.by(sortDirection, "id")));
+        return findAllPaginatedCalls.execute(
+                new DocumentListKey(titleFilter, acronymFilter, phaseFilter, page, itemsPerPage, sortDirection),
+                () -> shardRouter.scatterPage(
+                        PageRequest.of(page, itemsPerPage, Sort.by(sortDirection, "id")),
+                        byId(sortDirection, DocumentListDto::getId),
+                        pageable -> documentRepository.findAllWithFilters(titleFilter, acronymFilter, phaseFilter, matchingPhases(phaseFilter), pageable)));
+    }
+
+
+    /**
+     * Retrieves a paginated list of documents like {@link #findAllPaginated}, but selecting only the requested fields.
+     * The ID is always included. Concurrent calls with the same arguments share a single query.
+     *
+     * @param title The title of the document to filter by (can be null or empty for no filtering).
+     * @param acronym The acronym of the document to filter by (can be null or empty for no filtering).
+     * @param phase The phase of the document to filter by (can be null or empty for no filtering).
+     * @param fields A comma-separated list of field names, e.g. "title,acronym,version,phase".
+     * @param page The page number to retrieve (0-based index).
+     * @param itemsPerPage The number of items to retrieve per page.
+     * @param sortDirection The direction in which the documents should be sorted (ascending or descending).
+     * @return A Page object containing one map of field name to value per document.
+     * @throws BadRequestException if a field name is unknown.
+     */
+    public Page<Map<String, Object>> findAllPaginated(String title, String acronym, String phase, String fields, int page, int itemsPerPage, Sort.Direction sortDirection) {
+        var selectedFields = parseFields(fields);
+        var titleFilter = SearchNormalizer.normalize(title);
+        var acronymFilter = SearchNormalizer.normalize(acronym);
+        var phaseFilter = SearchNormalizer.normalize(phase);
+
+        return findAllPaginatedWithFieldsCalls.execute(
+                new DocumentFieldsListKey(titleFilter, acronymFilter, phaseFilter, selectedFields, page, itemsPerPage, sortDirection),
+                () -> shardRouter.scatterPage(
+                        PageRequest.of(page, itemsPerPage, Sort.by(sortDirection, "id")),
+                        byId(sortDirection, it -> (Long) it.get(DocumentField.ID.getProperty())),
+                        pageable -> documentRepository.findAllWithFilters(titleFilter, acronymFilter, phaseFilter, matchingPhases(phaseFilter), selectedFields, pageable)));
+    }
+
+
+    /**
+     * The order of the rows of a list sorted by ID, used to merge the pages of the shards.
+     */
+    private static <T> Comparator<T> byId(Sort.Direction sortDirection, Function<T, Long> id) {
+        Comparator<T> ascending = Comparator.comparing(id);
+        return sortDirection.isAscending() ? ascending : ascending.reversed();
+    }
+
+
+    /**
+     * Resolves a phase filter to the phases whose names contain it, so that the query
+     * compares the phase column directly instead of normalizing it on every row.
+     *
+     * @param phaseFilter The normalized phase filter; the query ignores the phases of an empty filter.
+     * @return The matching phases, possibly none.
+     */
+    private List<Phase> matchingPhases(String phaseFilter) {
+        return Arrays.stream(Phase.values())
+                .filter(it -> it.name().toLowerCase(Locale.ROOT).contains(phaseFilter))
+                .toList();
+    }
+
+
+    /**
+     * Converts the comma-separated field names of a sparse fieldset request into fields.
+     *
+     * @param fields The comma-separated field names.
+     * @return The requested fields.
+     * @throws BadRequestException if a field name is unknown.
+     */
+    private Set<DocumentField> parseFields(String fields) {
+        var selectedFields = EnumSet.noneOf(DocumentField.class);
+        for (var name : fields.split(",")) {
+            if (name.isBlank()) continue;
+
+            selectedFields.add(DocumentField.fromProperty(name.trim())
+                    .orElseThrow(() -> new BadRequestException(String.format("Unknown field %s, expected one of %s", name.trim(),
+                            Arrays.stream(DocumentField.values()).map(DocumentField::getProperty).collect(Collectors.joining(", "))))));
+        }
+        return selectedFields;
     }
 
 
@@ -51,7 +210,7 @@ public class DocumentService {
      * Retrieves a paginated list of documents grouped by acronym.
      * This method allows paginating the results according to the specified page number
      * and number of items per page. The results are sorted by the acronym field
-     * in the specified direction.
+     * in the specified direction. Concurrent calls with the same arguments share a single query.
      *
      * @param page The page number to retrieve (0-based index).
      * @param itemsPerPage The number of items to retrieve per page.
@@ -59,20 +218,198 @@ public class DocumentService {
      * @return A Page object containing the paginated list of documents grouped by acronym.
      */
     public Page<AcronymGroupListProjection> findAllGroupedByAcronym(int page, int itemsPerPage, Sort.Direction sortDirection) {
+        // Every acronym lives on a single shard, so the groups of the shards never overlap and can simply be merged.
+        // The shards then sort by code point, which is the order the merge can reproduce, instead of by their collation.
+        var sort = shardRouter.isSharded()
+                ? JpaSort.unsafe(sortDirection, "collate(d.acronym as ucs_basic)")
+                : Sort.by(sortDirection, "acronym");
+        Comparator<AcronymGroupListProjection> byAcronym = Comparator.comparing(AcronymGroupListProjection::getAcronym, DocumentService::compareCodePoints);
+
         // Call the repository method to retrieve documents grouped by acronym with pagination and sorting.
-        return documentRepository.findAllGroupedByAcronym(PageRequest.of(page, itemsPerPage, Sort.by(sortDirection, "acronym")));
+        return findAllGroupedByAcronymCalls.execute(
+                new AcronymGroupKey(page, itemsPerPage, sortDirection),
+                () -> shardRouter.scatterPage(
+                        PageRequest.of(page, itemsPerPage, sort),
+                        sortDirection.isAscending() ? byAcronym : byAcronym.reversed(),
+                        documentRepository::findAllGroupedByAcronym));
+    }
+
+
+    private static int compareCodePoints(String first, String second) {
+        return Arrays.compare(first.codePoints().toArray(), second.codePoints().toArray());
+    }
+
+
+    /**
+     * Computes the counts shown next to the document list: the total, the count per phase
+     * and the most frequent acronyms, all for the same title and acronym filters as
+     * {@link #findAllPaginated}. Everything comes from a single GROUPING SETS query per shard, and
+     * the result is cached per filter until the next write.
+     *
+     * @param title The title to filter by (can be null or empty for no filtering).
+     * @param acronym The acronym to filter by (can be null or empty for no filtering).
+     * @param acronymLimit The maximum number of acronyms to return, most frequent first.
+     * @return The facet counts for the given filters.
+     * @throws BadRequestException if the acronym limit is out of range.
+     */
+    @Cacheable(cacheNames = CacheConfig.DOCUMENT_FACETS)
+    public DocumentFacetsDto findFacets(String title, String acronym, int acronymLimit) {
+        if (acronymLimit < 1 || acronymLimit > MAX_FACET_ACRONYMS) {
+            throw new BadRequestException(String.format("Acronym limit must be between 1 and %s", MAX_FACET_ACRONYMS));
+        }
+
+        long total = 0;
+        var phases = new EnumMap<Phase, Long>(Phase.class);
+        Arrays.stream(Phase.values()).forEach(it -> phases.put(it, 0L));
+        var acronyms = new ArrayList<AcronymFacetDto>();
+
+        var titleFilter = SearchNormalizer.normalize(title);
+        var acronymFilter = SearchNormalizer.normalize(acronym);
+        var rows = shardRouter.onEveryShard(shard -> documentRepository.findFacetsWithFilters(titleFilter, acronymFilter, acronymLimit));
+
+        // Each row belongs to one grouping set, identified by its GROUPING() bitmask.
+        // The counts of the shards are added up; an acronym is only ever counted by one shard.
+        for (var row : rows.stream().flatMap(List::stream).toList()) {
+            switch (row.getKind()) {
+                case FACET_KIND_PHASE -> {
+                    if (row.getPhase() != null) phases.merge(Phase.valueOf(row.getPhase()), row.getQuantity(), Long::sum);
+                }
+                case FACET_KIND_ACRONYM -> acronyms.add(new AcronymFacetDto(row.getAcronym(), row.getQuantity()));
+                case FACET_KIND_TOTAL -> total += row.getQuantity();
+                default -> throw new IllegalStateException("Unexpected facet kind " + row.getKind());
+            }
+        }
+
+        // The window function does not guarantee the order of the outer query, and each shard returns its own most frequent acronyms.
+        acronyms.sort(Comparator.comparingLong(AcronymFacetDto::quantity).reversed().thenComparing(AcronymFacetDto::acronym));
+
+        return new DocumentFacetsDto(total, phases, List.copyOf(acronyms.subList(0, Math.min(acronymLimit, acronyms.size()))));
     }
 
 
     /**
      * Retrieves a document by its ID. If the document is not found in the repository,
-     * a custom exception is thrown.
+     * a custom exception is thrown. Documents are served from the cache when possible, and
+     * concurrent misses for the same ID share a single query, which is why a detached DTO
+     * is returned instead of the entity.
+     *
+     * @param id The ID of the document to be retrieved.
+     * @return The document with the specified ID.
+     * @throws NotFoundException if no document is found with the given ID.
+     */
+    public DocumentListDto findById(Long id) {
+        var cached = documentCache.get(id, DocumentListDto.class);
+        if (cached != null) return cached;
+
+        return findByIdCalls.execute(id, () -> {
+            var generation = documentCacheInvalidator.generationOf(id);
+            var document = shardRouter.onShard(shardRouter.shardOf(id), () -> documentRepository.findProjectedById(id))
+                    .orElseThrow(() -> new NotFoundException(String.format("Document with id %s not found", id)));
+            documentCacheInvalidator.cacheIfCurrent(document, generation);
+            return document;
+        });
+    }
+
+
+    /**
+     * Retrieves several documents by their IDs in a single round-trip.
+     * Documents already in the cache are served from it and the others are loaded
+     * with one {@code id = ANY(?)} query per shard, then cached unless they were written meanwhile.
+     *
+     * @param ids The IDs of the documents to retrieve; duplicates are ignored.
+     * @return The documents found, in the order of the requested IDs, and the IDs that were not found.
+     * @throws BadRequestException if no ID or too many IDs are given.
+     */
+    public DocumentBatchDto findAllByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_BATCH_IDS) {
+            throw new BadRequestException(String.format("Between 1 and %s ids are required", MAX_BATCH_IDS));
+        }
+
+        // Keeps the first occurrence of each id, in the requested order.
+        var requestedIds = new LinkedHashSet<>(ids);
+        requestedIds.remove(null);
+
+        var found = new HashMap<Long, DocumentListDto>();
+        var idsToLoad = new ArrayList<Long>();
+        for (var id : requestedIds) {
+            var cached = documentCache.get(id, DocumentListDto.class);
+            if (cached != null) found.put(id, cached);
+            else idsToLoad.add(id);
+        }
+
+        if (!idsToLoad.isEmpty()) {
+            var generations = new HashMap<Long, Long>();
+            idsToLoad.forEach(id -> generations.put(id, documentCacheInvalidator.generationOf(id)));
+
+            var idsByShard = idsToLoad.stream().collect(Collectors.groupingBy(shardRouter::shardOf));
+            var rows = shardRouter.onEveryShard(shard -> idsByShard.containsKey(shard)
+                    ? documentRepository.findAllByIdIn(idsByShard.get(shard).toArray(Long[]::new))
+                    : List.<DocumentListProjection>of());
+
+            for (var row : rows.stream().flatMap(List::stream).toList()) {
+                var document = new DocumentListDto(row);
+                documentCacheInvalidator.cacheIfCurrent(document, generations.get(document.getId()));
+                found.put(document.getId(), document);
+            }
+        }
+
+        var result = new ArrayList<DocumentListDto>(found.size());
+        var missing = new ArrayList<Long>();
+        for (var id : requestedIds) {
+            var document = found.get(id);
+            if (document != null) result.add(document);
+            else missing.add(id);
+        }
+
+        return new DocumentBatchDto(result, missing);
+    }
+
+
+    /**
+     * Retrieves the version history of exactly one acronym, oldest version first, with the links from each
+     * version to the previous and next ones and the current ACTIVE version. Long histories are read page
+     * by page: each page starts after the last version of the previous one, so the cost of a page does not
+     * grow with its position in the history. The acronym lives on a single shard, which is the only one read.
+     *
+     * @param acronym The exact acronym, not a filter.
+     * @param afterVersion The version after which the page starts, 0 for the first page.
+     * @param limit The maximum number of versions in the page.
+     * @return The page of versions and the afterVersion of the next page.
+     * @throws BadRequestException if the version or the limit is out of range.
+     * @throws NotFoundException if the acronym has no version.
+     */
+    public DocumentLineageDto findLineage(String acronym, int afterVersion, int limit) {
+        if (afterVersion < 0) {
+            throw new BadRequestException("The version to start after cannot be negative");
+        }
+        if (limit < 1 || limit > MAX_LINEAGE_VERSIONS) {
+            throw new BadRequestException(String.format("Limit must be between 1 and %s", MAX_LINEAGE_VERSIONS));
+        }
+
+        var rows = shardRouter.onShard(shardRouter.shardOf(acronym), () -> documentRepository.findLineage(acronym, afterVersion, limit));
+        if (rows.isEmpty()) {
+            // Past the last version there is no row to carry the totals, which then come from the summary.
+            var summary = shardRouter.onShard(shardRouter.shardOf(acronym), () -> documentRepository.findAcronymSummary(acronym))
+                    .orElseThrow(() -> new NotFoundException(String.format("No document with acronym %s found", acronym)));
+            return new DocumentLineageDto(acronym, summary.quantity(), summary.activeVersion(), List.of(), null);
+        }
+
+        var first = rows.getFirst();
+        var last = rows.getLast();
+        return new DocumentLineageDto(acronym, first.getTotal(), first.getActiveVersion(),
+                rows.stream().map(DocumentLineageEntryDto::new).toList(),
+                last.getNextVersion() == null ? null : last.getVersion());
+    }
+
+
+    /**
+     * Loads the entity of a document for the write operations of this service.
      *
      * @param id The ID of the document to be retrieved.
      * @return The document with the specified ID.
      * @throws NotFoundException if no document is found with the given ID.
      */
-    public Document findById(Long id) {
+    private Document getById(Long id) {
         // Tenta buscar o documento no repositório pelo ID fornecido.
         // Se o documento não for encontrado, lança uma exceção NotFoundException.
         return documentRepository.findById(id)
@@ -80,16 +417,45 @@ public class DocumentService {
     }
 
 
+    /**
+     * Takes the lock of the document's acronym and only then loads the document, so that the
+     * state checked by a write operation cannot be changed by another write of the same acronym
+     * before the transaction ends. Writes of other acronyms are not blocked.
+     *
+     * @param id The ID of the document to be retrieved.
+     * @return The document with the specified ID.
+     * @throws NotFoundException if no document is found with the given ID.
+     */
+    private Document lockAndGetById(Long id) {
+        // Direciona a transação para o shard do documento antes da primeira consulta.
+        shardRouter.routeTransaction(shardRouter.shardOf(id));
+
+        // A sigla nunca muda, então pode ser lida antes de o lock ser obtido.
+        var acronym = documentRepository.findAcronymById(id)
+                .orElseThrow(() -> new NotFoundException(String.format("Document with id %s not found", id)));
+
+        acronymLockService.lock(acronym);
+        return getById(id);
+    }
+
+
     /**
      * Saves a new document or updates an existing one.
      * If a document with the same acronym and version already exists,
      * a BadRequestException is thrown.
      *
      * @param dto The data transfer object containing the document details.
-     * @return The saved document.
+     * @return The saved document, read while the transaction is still open.
      * @throws BadRequestException if a document with the same acronym and version already exists.
      */
-    public Document save(DocumentCreateDto dto) {
+    @Transactional
+    public DocumentListDto save(DocumentCreateDto dto) {
+        // Direciona a transação para o shard da sigla, onde ficam todas as versões dela.
+        shardRouter.routeTransaction(shardRouter.shardOf(dto.getAcronym()));
+
+        // Serializa as gravações da mesma sigla para que a verificação abaixo não seja burlada por uma gravação concorrente.
+        acronymLockService.lock(dto.getAcronym());
+
         // Verifica se já existe um documento com a mesma sigla e versão.
         // Se existir, lança uma exceção BadRequestException.
         if (documentRepository.existsByAcronymAndVersion(dto.getAcronym(), dto.getVersion())) {
@@ -109,8 +475,15 @@ public class DocumentService {
                         Phase.DRAFT                    // Define a fase inicial como DRAFT.
                 ));
 
-        // Salva o documento no repositório e retorna o documento salvo.
-        return documentRepository.save(document);
+        // Publica a criação (ou a edição, se o documento já existia) para os ouvintes de alterações.
+        var eventType = document.getId() == null ? DocumentEventType.CREATED : DocumentEventType.EDITED;
+
+        // Salva o documento no repositório e publica a gravação.
+        var savedDocument = documentRepository.save(document);
+        eventPublisher.publishEvent(DocumentChangedEvent.of(eventType, savedDocument));
+
+        // Monta a resposta aqui: a descrição de um documento existente é carregada sob demanda e só pode ser lida com a transação aberta.
+        return new DocumentListDto(savedDocument);
     }
 
 
@@ -120,13 +493,13 @@ public class DocumentService {
      * it changes that document's phase to OBSOLETE before submitting the new document.
      *
      * @param id The ID of the document to submit.
-     * @return The submitted document with its phase updated to ACTIVE.
+     * @return The submitted document with its phase updated to ACTIVE, read while the transaction is still open.
      * @throws NotFoundException if no document is found with the given ID.
      */
     @Transactional
-    public Document submit(Long id) {
+    public DocumentListDto submit(Long id) {
         // Encontra o documento pelo ID.
-        var document = findById(id);
+        var document = lockAndGetById(id);
 
         // Verifica se existe um documento ativo com a mesma sigla.
         // Se existir, muda o estado desses documentos ativos para OBSOLETE.
@@ -139,14 +512,19 @@ public class DocumentService {
                     .collect(Collectors.toList());
 
             // Salva todos os documentos que tiveram sua fase alterada para OBSOLETE.
-            documentRepository.saveAll(actives);
+            documentRepository.saveAll(actives)
+                    .forEach(it -> eventPublisher.publishEvent(DocumentChangedEvent.of(DocumentEventType.OBSOLETED, it)));
         }
 
         // Define a fase do documento atual como ACTIVE.
         document.setPhase(Phase.ACTIVE);
 
-        // Salva o documento com a nova fase e retorna o documento atualizado.
-        return documentRepository.save(document);
+        // Salva o documento com a nova fase e publica a submissão.
+        var submittedDocument = documentRepository.save(document);
+        eventPublisher.publishEvent(DocumentChangedEvent.of(DocumentEventType.SUBMITTED, submittedDocument));
+
+        // Monta a resposta aqui: a descrição é carregada sob demanda e só pode ser lida com a transação aberta.
+        return new DocumentListDto(submittedDocument);
     }
 
 
@@ -171,13 +549,13 @@ public class DocumentService {
      * mas com a versão incrementada em 1.
      *
      * @param id O ID do documento para o qual será gerada uma nova versão.
-     * @return O novo documento criado, que estará na fase DRAFT com a versão incrementada.
+     * @return O novo documento criado, que estará na fase DRAFT com a versão incrementada, lido com a transação ainda aberta.
      * @throws BadRequestException Se o documento não estiver na fase ACTIVE ou se ocorrer um erro ao calcular a nova versão.
      */
     @Transactional
-    public Document generateVersion(Long id) {
+    public DocumentListDto generateVersion(Long id) {
         // Recupera o documento original usando o ID fornecido.
-        var document = findById(id);
+        var document = lockAndGetById(id);
 
         // Verifica se o documento está na fase ACTIVE. Se não estiver, lança uma exceção.
         if (!document.getPhase().toString().equalsIgnoreCase(Phase.ACTIVE.toString())) {
@@ -201,7 +579,14 @@ public class DocumentService {
                 Phase.DRAFT);  // O novo documento começa na fase DRAFT.
 
         // Persiste o novo documento no repositório e retorna o documento salvo.
-        return documentRepository.save(draftDocument);
+        var savedDocument = documentRepository.save(draftDocument);
+
+        // A nova versão começa com o arquivo da original; o conteúdo é compartilhado, não copiado.
+        documentFileRepository.findById(document.getId())
+                .ifPresent(file -> documentFileRepository.save(file.copyFor(savedDocument.getId())));
+
+        eventPublisher.publishEvent(DocumentChangedEvent.of(DocumentEventType.VERSION_GENERATED, savedDocument));
+        return new DocumentListDto(savedDocument);
     }
 
 
@@ -211,13 +596,13 @@ public class DocumentService {
      *
      * @param id O ID do documento a ser editado.
      * @param dto O objeto contendo as novas informações para o título e a descrição do documento.
-     * @return O documento atualizado com as novas informações.
+     * @return O documento atualizado com as novas informações, lido com a transação ainda aberta.
      * @throws BadRequestException Se o documento não estiver na fase DRAFT.
      */
     @Transactional
-    public Document editInfo(Long id, DocumentEditInfoDto dto) {
+    public DocumentListDto editInfo(Long id, DocumentEditInfoDto dto) {
         // Recupera o documento original usando o ID fornecido.
-        var document = findById(id);
+        var document = lockAndGetById(id);
 
         // Verifica se o documento está na fase DRAFT. Se não estiver, lança uma exceção.
         if (!document.getPhase().toString().equalsIgnoreCase(Phase.DRAFT.toString())) {
@@ -229,6 +614,46 @@ public class DocumentService {
         document.setDescription(dto.description());
 
         // Persiste as alterações no repositório e retorna o documento atualizado.
-        return documentRepository.save(document);
+        var editedDocument = documentRepository.save(document);
+        eventPublisher.publishEvent(DocumentChangedEvent.of(DocumentEventType.EDITED, editedDocument));
+        return new DocumentListDto(editedDocument);
+    }
+
+
+    /**
+     * Checks, without taking any lock, that the document exists and can take a file, so that an upload
+     * bound to be rejected is refused before its content is stored. {@link #attachFile} checks it again.
+     *
+     * @throws NotFoundException if no document is found with the given ID.
+     * @throws BadRequestException if the document is not in the DRAFT phase.
+     */
+    public void requireFileAttachable(Long id) {
+        var document = shardRouter.onShard(shardRouter.shardOf(id), () -> documentRepository.findProjectedById(id))
+                .orElseThrow(() -> new NotFoundException(String.format("Document with id %s not found", id)));
+        requireDraftForFile(document.getPhase());
+    }
+
+
+    /**
+     * Attaches a stored file to a document in the DRAFT phase, replacing the one it had.
+     *
+     * @param sha256 The hash under which the content is already in the file store.
+     * @return The attached file.
+     * @throws NotFoundException if no document is found with the given ID.
+     * @throws BadRequestException if the document is not in the DRAFT phase.
+     */
+    @Transactional
+    public DocumentFile attachFile(Long id, String sha256, long size, String contentType, String fileName) {
+        var document = lockAndGetById(id);
+        requireDraftForFile(document.getPhase());
+
+        return documentFileRepository.save(new DocumentFile(document.getId(), sha256, size, contentType, fileName));
+    }
+
+
+    private static void requireDraftForFile(Phase phase) {
+        if (phase != Phase.DRAFT) {
+            throw new BadRequestException("Only documents with phase DRAFT can have their file replaced");
+        }
     }
 }
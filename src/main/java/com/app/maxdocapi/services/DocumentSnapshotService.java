@@ -0,0 +1,332 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.config.DocumentSnapshotProperties;
+import com.app.maxdocapi.database.repositories.DocumentRepository;
+import com.app.maxdocapi.database.sharding.ShardRouter;
+import com.app.maxdocapi.enums.Phase;
+import com.app.maxdocapi.models.records.DocumentChangedEvent;
+import com.app.maxdocapi.models.records.DocumentsChangedEvent;
+import com.app.maxdocapi.models.records.DocumentSuggestionDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Loads the in-memory read model of the documents, the typeahead index and the acronym directory, at startup,
+ * and keeps a binary snapshot of it on the local disk so that a restarted node does not have to read every
+ * document again.
+ * <p>
+ * The snapshot is written periodically from the typeahead index, without touching Postgres, to a temporary file
+ * that replaces the previous one once it is synced. At startup it is memory-mapped and only the documents updated
+ * since it was taken are read, together with the ids of all documents to drop the deleted ones. Without a usable
+ * snapshot, every document is read as before. Writes that commit while the read model is being loaded are applied
+ * again once it is ready.
+ * <p>
+ * The file starts with a header (magic, format version, when it was taken, document count), followed by each
+ * document as id, version, phase ordinal (-1 when it has none) and the length-prefixed UTF-8 title and acronym,
+ * and ends with the CRC-32 of everything before it.
+ */
+@Service
+public class DocumentSnapshotService implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(DocumentSnapshotService.class);
+
+    private static final int MAGIC = 0x4D445331; // "MDS1"
+    // Must change whenever the layout or the Phase constants change.
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = Integer.BYTES * 2 + Long.BYTES + Integer.BYTES;
+    private static final int TRAILER_SIZE = Long.BYTES;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Phase[] PHASES = Phase.values();
+
+    private final DocumentRepository documentRepository;
+    private final ShardRouter shardRouter;
+    private final DocumentTypeaheadService documentTypeaheadService;
+    private final AcronymAutocompleteService acronymAutocompleteService;
+    private final TransactionTemplate transactionTemplate;
+    private final DocumentSnapshotProperties properties;
+
+    // Not null while the read model is being loaded: the changes committed in the meantime.
+    private List<DocumentChangedEvent> changedDuringLoad;
+
+    public DocumentSnapshotService(DocumentRepository documentRepository,
+                                   ShardRouter shardRouter,
+                                   DocumentTypeaheadService documentTypeaheadService,
+                                   AcronymAutocompleteService acronymAutocompleteService,
+                                   PlatformTransactionManager transactionManager,
+                                   DocumentSnapshotProperties properties) {
+        this.documentRepository = documentRepository;
+        this.shardRouter = shardRouter;
+        this.documentTypeaheadService = documentTypeaheadService;
+        this.acronymAutocompleteService = acronymAutocompleteService;
+        // The ids and the changed documents of a shard are read from the same database snapshot.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.transactionTemplate.setReadOnly(true);
+        this.properties = properties;
+    }
+
+    private record Snapshot(LocalDateTime takenAt, List<DocumentSuggestionDto> documents) {
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmUp();
+    }
+
+    /**
+     * Loads the read model from the snapshot and the documents changed since, or from every document
+     * when snapshots are disabled or the snapshot cannot be read.
+     */
+    public void warmUp() {
+        synchronized (this) {
+            changedDuringLoad = new ArrayList<>();
+        }
+
+        var start = System.nanoTime();
+        var documents = (properties.enabled() ? read().map(this::catchUp) : Optional.<Collection<DocumentSuggestionDto>>empty())
+                .orElseGet(this::readAll);
+        documentTypeaheadService.rebuild(documents);
+        acronymAutocompleteService.reload(documents);
+
+        List<DocumentChangedEvent> changed;
+        synchronized (this) {
+            changed = changedDuringLoad;
+            changedDuringLoad = null;
+        }
+        changed.forEach(event -> {
+            documentTypeaheadService.onDocumentChanged(event);
+            acronymAutocompleteService.onDocumentChanged(event);
+        });
+
+        log.info("Loaded the read model of {} documents in {} ms", documents.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Remembers the committed writes while the read model is being loaded.
+     *
+     * @param event The change published by the document service.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onDocumentChanged(DocumentChangedEvent event) {
+        if (changedDuringLoad != null) changedDuringLoad.add(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onDocumentsChanged(DocumentsChangedEvent event) {
+        if (changedDuringLoad != null) changedDuringLoad.addAll(event.changes());
+    }
+
+    @Scheduled(fixedDelayString = "${app.documents.snapshot.interval-ms:300000}", initialDelayString = "${app.documents.snapshot.interval-ms:300000}")
+    public void writeScheduled() {
+        if (properties.enabled()) write();
+    }
+
+    /**
+     * Writes a snapshot of the read model, replacing the previous one only once the new one is on disk.
+     */
+    public void write() {
+        var start = System.nanoTime();
+        // Taken before the copy, so that a write missing from it was updated after this moment, give or take the replay overlap.
+        var takenAt = LocalDateTime.now();
+        var documents = documentTypeaheadService.indexedSuggestions();
+
+        var file = properties.file().toAbsolutePath();
+        var temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.getParent());
+            try (var channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                var writer = new SnapshotWriter(channel);
+                writer.putHeader(takenAt, documents.size());
+                documents.forEach(writer::putDocument);
+                writer.finish();
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Wrote a snapshot of {} documents ({} KB) in {} ms",
+                    documents.size(), Files.size(file) / 1024, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the document snapshot " + file, e);
+        }
+    }
+
+    private Optional<Snapshot> read() {
+        var file = properties.file();
+        if (!Files.isRegularFile(file)) {
+            log.info("No document snapshot at {}, reading every document", file);
+            return Optional.empty();
+        }
+
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var size = channel.size();
+            if (size < HEADER_SIZE + TRAILER_SIZE || size > Integer.MAX_VALUE) {
+                log.warn("Ignoring the document snapshot {} of {} bytes", file, size);
+                return Optional.empty();
+            }
+
+            var mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            var bodySize = (int) size - TRAILER_SIZE;
+            var crc = new CRC32();
+            crc.update(mapped.slice(0, bodySize));
+            if (mapped.getInt() != MAGIC || mapped.getInt() != FORMAT_VERSION || crc.getValue() != mapped.getLong(bodySize)) {
+                log.warn("Ignoring the document snapshot {}, which is corrupt or of another format", file);
+                return Optional.empty();
+            }
+
+            var takenAt = fromMicros(mapped.getLong());
+            var count = mapped.getInt();
+            var documents = new ArrayList<DocumentSuggestionDto>(count);
+            for (int i = 0; i < count; i++) {
+                var id = mapped.getLong();
+                var version = mapped.getInt();
+                var ordinal = mapped.get();
+                var phase = ordinal < 0 ? null : PHASES[ordinal];
+                documents.add(new DocumentSuggestionDto(id, getString(mapped), getString(mapped), version, phase));
+            }
+            return Optional.of(new Snapshot(takenAt, documents));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring the unreadable document snapshot {}", file, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Brings the documents of the snapshot up to date: drops the deleted ones and reads those updated since.
+     */
+    private Collection<DocumentSuggestionDto> catchUp(Snapshot snapshot) {
+        var since = snapshot.takenAt().minus(properties.replayOverlap());
+        var existingIds = new HashSet<Long>();
+        var changed = new ArrayList<DocumentSuggestionDto>();
+        shardRouter.forEachShard(shard -> transactionTemplate.executeWithoutResult(status -> {
+            try (var ids = documentRepository.streamAllIds()) {
+                ids.forEach(existingIds::add);
+            }
+            try (var updated = documentRepository.streamSuggestionsUpdatedSince(since)) {
+                updated.forEach(changed::add);
+            }
+        }));
+
+        var documents = new HashMap<Long, DocumentSuggestionDto>();
+        for (var document : snapshot.documents()) {
+            if (existingIds.contains(document.id())) documents.put(document.id(), document);
+        }
+        var deleted = snapshot.documents().size() - documents.size();
+        changed.forEach(it -> documents.put(it.id(), it));
+
+        log.info("Loaded a snapshot of {} documents taken at {}; {} were deleted and {} changed since",
+                snapshot.documents().size(), snapshot.takenAt(), deleted, changed.size());
+        return documents.values();
+    }
+
+    private List<DocumentSuggestionDto> readAll() {
+        var documents = new ArrayList<DocumentSuggestionDto>();
+        shardRouter.forEachShard(shard -> transactionTemplate.executeWithoutResult(status -> {
+            try (var suggestions = documentRepository.streamAllSuggestions()) {
+                suggestions.forEach(documents::add);
+            }
+        }));
+        return documents;
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        var bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000), (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * Writes the snapshot through one reused direct buffer, computing the CRC-32 of what it writes.
+     */
+    private static final class SnapshotWriter {
+        private final FileChannel channel;
+        private final CRC32 crc = new CRC32();
+        private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        private SnapshotWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        private void putHeader(LocalDateTime takenAt, int count) {
+            buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(toMicros(takenAt)).putInt(count);
+        }
+
+        private void putDocument(DocumentSuggestionDto document) {
+            var title = document.title().getBytes(StandardCharsets.UTF_8);
+            var acronym = document.acronym().getBytes(StandardCharsets.UTF_8);
+            ensureRemaining(Long.BYTES + Integer.BYTES + 1 + Integer.BYTES * 2 + title.length + acronym.length);
+            buffer.putLong(document.id())
+                    .putInt(document.version())
+                    .put((byte) (document.phase() == null ? -1 : document.phase().ordinal()))
+                    .putInt(title.length).put(title)
+                    .putInt(acronym.length).put(acronym);
+        }
+
+        private void finish() {
+            flush();
+            buffer.putLong(crc.getValue());
+            buffer.flip();
+            writeFully(buffer);
+            try {
+                channel.force(true);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void ensureRemaining(int bytes) {
+            if (buffer.remaining() >= bytes) return;
+            flush();
+            // A document larger than the buffer gets a buffer of its own size.
+            if (buffer.capacity() < bytes) buffer = ByteBuffer.allocateDirect(bytes);
+        }
+
+        private void flush() {
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            writeFully(buffer);
+            buffer.clear();
+        }
+
+        private void writeFully(ByteBuffer source) {
+            try {
+                while (source.hasRemaining()) {
+                    channel.write(source);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.common.SearchNormalizer;
+import com.app.maxdocapi.common.TrigramIndex;
+import com.app.maxdocapi.database.repositories.DocumentRepository;
+import com.app.maxdocapi.database.sharding.ShardRouter;
+import com.app.maxdocapi.enums.DocumentEventType;
+import com.app.maxdocapi.enums.Phase;
+import com.app.maxdocapi.exceptions.errors.BadRequestException;
+import com.app.maxdocapi.models.records.DocumentChangedEvent;
+import com.app.maxdocapi.models.records.DocumentsChangedEvent;
+import com.app.maxdocapi.models.records.DocumentSuggestionDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typeahead suggestions over document titles and acronyms, answered from memory without touching Postgres.
+ * <p>
+ * The index is built at startup by the {@link DocumentSnapshotService}, from a snapshot or a scan of the documents table,
+ * and kept in sync with the committed writes of {@link DocumentService}. Writes that commit while the index is being
+ * built are applied again once it is ready, so the scan cannot overwrite them with older values.
+ */
+@Service
+public class DocumentTypeaheadService {
+    public static final int MAX_SUGGESTIONS = 50;
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentTypeaheadService.class);
+
+    private static final int SCORE_ACRONYM_EQUALS = 100;
+    private static final int SCORE_ACRONYM_PREFIX = 50;
+    private static final int SCORE_TITLE_PREFIX = 30;
+    private static final int SCORE_WORD_PREFIX = 20;
+    private static final int SCORE_CONTAINS = 10;
+    private static final int SCORE_ACTIVE = 5;
+
+    private static final Comparator<Match> RANKING = Comparator.comparingInt(Match::score)
+            .thenComparing(it -> it.entry().suggestion().title().length(), Comparator.reverseOrder())
+            .thenComparing(it -> it.entry().suggestion().id(), Comparator.reverseOrder());
+
+    private final DocumentRepository documentRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Index index = new Index();
+    // Not null while the index is being built: ids of the documents written in the meantime.
+    private Set<Long> writtenDuringBuild;
+
+    public DocumentTypeaheadService(DocumentRepository documentRepository, ShardRouter shardRouter, PlatformTransactionManager transactionManager) {
+        this.documentRepository = documentRepository;
+        this.shardRouter = shardRouter;
+        // Changes are applied after the write transaction commits, so the reads need a transaction of their own.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * One indexed document with its normalized texts.
+     */
+    private record Entry(DocumentSuggestionDto suggestion, String titleNorm, String acronymNorm) {
+        private static Entry of(DocumentSuggestionDto suggestion) {
+            return new Entry(suggestion, SearchNormalizer.normalize(suggestion.title()), SearchNormalizer.normalize(suggestion.acronym()));
+        }
+    }
+
+    private record Match(Entry entry, int score) {
+    }
+
+    /**
+     * Returns the documents whose title or acronym best match the query. Queries of one or two characters
+     * match the start of words; longer queries match anywhere. Accents and case are ignored.
+     *
+     * @param query The text typed so far.
+     * @param limit The maximum number of suggestions, between 1 and {@value #MAX_SUGGESTIONS}.
+     * @return The suggestions, best match first.
+     * @throws BadRequestException if the limit is out of range.
+     */
+    public List<DocumentSuggestionDto> suggest(String query, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new BadRequestException(String.format("Limit must be between 1 and %s", MAX_SUGGESTIONS));
+        }
+
+        var normalizedQuery = SearchNormalizer.normalize(query);
+        if (normalizedQuery.isEmpty()) return List.of();
+
+        // Keeps only the best matches, with the worst of them on top of the heap.
+        var best = new PriorityQueue<>(limit + 1, RANKING);
+        lock.readLock().lock();
+        try {
+            for (var ordinal : index.trigrams.candidates(normalizedQuery)) {
+                var entry = index.entries.get(ordinal);
+                var score = score(entry, normalizedQuery);
+                if (score == 0) continue;
+
+                best.add(new Match(entry, score));
+                if (best.size() > limit) best.poll();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        var suggestions = new ArrayList<DocumentSuggestionDto>(best.size());
+        while (!best.isEmpty()) {
+            suggestions.add(best.poll().entry().suggestion());
+        }
+        return suggestions.reversed();
+    }
+
+    /**
+     * Replaces the index with a new one built from a streaming scan of every document, one shard after the other.
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            writtenDuringBuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        var start = System.nanoTime();
+        var built = new Index();
+        shardRouter.forEachShard(shard -> transactionTemplate.executeWithoutResult(status -> {
+            try (var suggestions = documentRepository.streamAllSuggestions()) {
+                suggestions.forEach(built::put);
+            }
+        }));
+
+        Set<Long> written;
+        lock.writeLock().lock();
+        try {
+            index = built;
+            written = writtenDuringBuild;
+            writtenDuringBuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        written.forEach(this::refresh);
+
+        log.info("Built the typeahead index of {} documents ({} trigrams) in {} ms",
+                built.ordinalsById.size(), built.trigrams.gramCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Replaces the index with one built from the given documents. Writes that committed after the documents
+     * were read must be applied again through {@link #onDocumentChanged}.
+     */
+    public void rebuild(Collection<DocumentSuggestionDto> suggestions) {
+        var start = System.nanoTime();
+        var built = new Index();
+        suggestions.forEach(built::put);
+
+        lock.writeLock().lock();
+        try {
+            index = built;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Built the typeahead index of {} documents ({} trigrams) in {} ms",
+                built.ordinalsById.size(), built.trigrams.gramCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * @return Every indexed document, in no particular order.
+     */
+    public List<DocumentSuggestionDto> indexedSuggestions() {
+        lock.readLock().lock();
+        try {
+            return index.ordinalsById.values().stream().map(it -> index.entries.get(it).suggestion()).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Re-indexes the written document once its transaction has committed.
+     *
+     * @param event The change published by the document service.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentChanged(DocumentChangedEvent event) {
+        refresh(List.of(event.documentId()));
+    }
+
+    /**
+     * Drops the deleted documents of the batch without reading them back, and re-indexes the others.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentsChanged(DocumentsChangedEvent event) {
+        var deleted = event.changes().stream()
+                .filter(it -> it.type() == DocumentEventType.DELETED)
+                .map(DocumentChangedEvent::documentId)
+                .toList();
+        lock.writeLock().lock();
+        try {
+            if (writtenDuringBuild != null) writtenDuringBuild.addAll(deleted);
+            deleted.forEach(index::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        refresh(event.changes().stream()
+                .filter(it -> it.type() != DocumentEventType.DELETED)
+                .map(DocumentChangedEvent::documentId)
+                .toList());
+    }
+
+    /**
+     * Re-indexes documents written on another node.
+     */
+    public void refresh(Collection<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            if (writtenDuringBuild != null) writtenDuringBuild.addAll(ids);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ids.forEach(this::refresh);
+    }
+
+    private void refresh(Long id) {
+        var suggestion = shardRouter.onShard(shardRouter.shardOf(id),
+                () -> transactionTemplate.execute(status -> documentRepository.findSuggestionById(id)));
+
+        lock.writeLock().lock();
+        try {
+            suggestion.ifPresentOrElse(index::put, () -> index.remove(id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static int score(Entry entry, String query) {
+        var score = 0;
+        if (entry.acronymNorm().equals(query)) {
+            score = SCORE_ACRONYM_EQUALS;
+        } else if (entry.acronymNorm().startsWith(query)) {
+            score = SCORE_ACRONYM_PREFIX;
+        } else if (entry.titleNorm().startsWith(query)) {
+            score = SCORE_TITLE_PREFIX;
+        } else if (entry.titleNorm().contains(" " + query) || entry.acronymNorm().contains(" " + query)) {
+            score = SCORE_WORD_PREFIX;
+        } else if (query.length() >= 3 && (entry.titleNorm().contains(query) || entry.acronymNorm().contains(query))) {
+            score = SCORE_CONTAINS;
+        }
+
+        // Trigram candidates may not actually contain the query.
+        if (score == 0) return 0;
+        return entry.suggestion().phase() == Phase.ACTIVE ? score + SCORE_ACTIVE : score;
+    }
+
+    /**
+     * Number of entry slots, including the free ones; removed documents leave a slot for the next new one.
+     */
+    int slotCount() {
+        lock.readLock().lock();
+        try {
+            return index.entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The trigram index with the documents it points to. Ordinals are handed out in order and
+     * reused when a document is re-indexed, so the posting lists mostly stay sorted by appending.
+     * The ordinals of removed documents are handed out again before new ones, so that a long-lived index
+     * does not accumulate empty slots.
+     */
+    private static final class Index {
+        private final TrigramIndex trigrams = new TrigramIndex();
+        private final List<Entry> entries = new ArrayList<>();
+        private final Map<Long, Integer> ordinalsById = new HashMap<>();
+        private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+
+        private void put(DocumentSuggestionDto suggestion) {
+            var entry = Entry.of(suggestion);
+            var ordinal = ordinalsById.get(suggestion.id());
+            if (ordinal == null) {
+                ordinal = freeOrdinals.poll();
+                if (ordinal == null) {
+                    ordinal = entries.size();
+                    entries.add(entry);
+                } else {
+                    entries.set(ordinal, entry);
+                }
+                ordinalsById.put(suggestion.id(), ordinal);
+            } else {
+                unindex(ordinal, entries.get(ordinal));
+                entries.set(ordinal, entry);
+            }
+
+            trigrams.add(ordinal, entry.titleNorm());
+            trigrams.add(ordinal, entry.acronymNorm());
+        }
+
+        private void remove(Long id) {
+            var ordinal = ordinalsById.remove(id);
+            if (ordinal == null) return;
+
+            unindex(ordinal, entries.get(ordinal));
+            entries.set(ordinal, null);
+            freeOrdinals.push(ordinal);
+        }
+
+        private void unindex(int ordinal, Entry entry) {
+            trigrams.remove(ordinal, entry.titleNorm());
+            trigrams.remove(ordinal, entry.acronymNorm());
+        }
+    }
+}
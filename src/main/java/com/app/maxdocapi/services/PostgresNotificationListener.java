@@ -0,0 +1,175 @@
+package com.app.maxdocapi.services;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Keeps one dedicated connection in LISTEN mode and dispatches Postgres notifications
+ * to the handlers registered for each channel. Every app node runs its own listener,
+ * which is what lets a NOTIFY issued by one node fan out to all of them.
+ * <p>
+ * The connection is borrowed from the regular pool for the lifetime of the application,
+ * so the pool must be sized with one extra connection in mind.
+ */
+@Service
+public class PostgresNotificationListener implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(PostgresNotificationListener.class);
+
+    private final DataSource dataSource;
+    private final int pollTimeoutMillis;
+    private final long reconnectDelayMillis;
+    private final Map<String, List<Consumer<String>>> handlers = new ConcurrentHashMap<>();
+    private final List<Runnable> reconnectHandlers = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public PostgresNotificationListener(DataSource dataSource,
+                                        @Value("${app.notifications.poll-timeout-ms:500}") int pollTimeoutMillis,
+                                        @Value("${app.notifications.reconnect-delay-ms:2000}") long reconnectDelayMillis) {
+        this.dataSource = dataSource;
+        this.pollTimeoutMillis = pollTimeoutMillis;
+        this.reconnectDelayMillis = reconnectDelayMillis;
+    }
+
+    /**
+     * Registers a handler for a channel. Channels registered after startup are picked up
+     * on the next poll of the listening connection.
+     *
+     * @param channel The Postgres channel name; must be a plain lower-case identifier.
+     * @param handler The callback receiving the payload of each notification, on the listener thread.
+     */
+    public void subscribe(String channel, Consumer<String> handler) {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Invalid channel name " + channel);
+        }
+        handlers.computeIfAbsent(channel, it -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    /**
+     * Registers a callback for when the listening connection is back after it was lost. The notifications sent
+     * in between are gone, so whatever they would have kept up to date must be refreshed entirely.
+     *
+     * @param handler The callback, run on the listener thread once the channels are listened to again.
+     */
+    public void onReconnect(Runnable handler) {
+        reconnectHandlers.add(handler);
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        worker = new Thread(this::run, "pg-notification-listener");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            try {
+                worker.join(pollTimeoutMillis * 2L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            worker = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        var reconnecting = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                // LISTEN only takes effect once committed, so the connection must stay in auto-commit.
+                connection.setAutoCommit(true);
+                var pgConnection = connection.unwrap(PGConnection.class);
+                var listening = new HashSet<String>();
+
+                if (reconnecting) {
+                    listenToNewChannels(connection, listening);
+                    runReconnectHandlers();
+                    reconnecting = false;
+                }
+
+                while (running) {
+                    listenToNewChannels(connection, listening);
+
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMillis);
+                    if (notifications == null) continue;
+
+                    for (var notification : notifications) {
+                        dispatch(notification.getName(), notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) return;
+                reconnecting = true;
+                log.warn("Lost the notification connection, reconnecting in {} ms", reconnectDelayMillis, e);
+                sleepBeforeReconnect();
+            }
+        }
+    }
+
+    private void listenToNewChannels(Connection connection, Set<String> listening) throws SQLException {
+        for (var channel : handlers.keySet()) {
+            if (listening.contains(channel)) continue;
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + channel);
+            }
+            listening.add(channel);
+        }
+    }
+
+    private void dispatch(String channel, String payload) {
+        for (var handler : handlers.getOrDefault(channel, List.of())) {
+            try {
+                handler.accept(payload);
+            } catch (RuntimeException e) {
+                log.error("Handler for channel {} failed", channel, e);
+            }
+        }
+    }
+
+    private void runReconnectHandlers() {
+        for (var handler : reconnectHandlers) {
+            try {
+                handler.run();
+            } catch (RuntimeException e) {
+                log.error("Reconnect handler failed", e);
+            }
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(reconnectDelayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.common.LatencyHistogram;
+import com.app.maxdocapi.common.RollingLatencyHistogram;
+import com.app.maxdocapi.models.records.LatencyWindowDto;
+import com.app.maxdocapi.models.records.RouteLatencyDto;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the latency distribution of the requests per method, route and status for the last 15 minutes.
+ * Recording takes no lock and allocates nothing once a route has been seen in the current minute.
+ * <p>
+ * The keys stay bounded: routes are patterns, and methods other than the standard ones share {@link #OTHER_METHOD},
+ * since clients can send any token as the method.
+ */
+@Service
+public class RouteLatencyService {
+    public static final String UNMATCHED_ROUTE = "unmatched";
+    public static final String OTHER_METHOD = "OTHER";
+
+    private static final Set<String> STANDARD_METHODS = Arrays.stream(HttpMethod.values())
+            .map(HttpMethod::name)
+            .collect(Collectors.toUnmodifiableSet());
+
+    private static final List<Integer> WINDOW_MINUTES = List.of(1, 5, RollingLatencyHistogram.MAX_WINDOW_MINUTES);
+    private static final Comparator<RouteLatencyDto> BY_ROUTE = Comparator.comparing(RouteLatencyDto::route)
+            .thenComparing(RouteLatencyDto::method)
+            .thenComparingInt(RouteLatencyDto::status);
+
+    private static final long MINUTE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final ConcurrentHashMap<RouteKey, RollingLatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final long originNanos = System.nanoTime();
+
+    private record RouteKey(String method, String route, int status) {
+    }
+
+    /**
+     * Takes the times the filter already has, so recording does not read the clock again.
+     *
+     * @param method The request method; non-standard ones are recorded as {@link #OTHER_METHOD}.
+     * @param route The route pattern, or {@link #UNMATCHED_ROUTE}.
+     * @param startNanos When the request started, from {@link System#nanoTime()}.
+     * @param endNanos When it ended, from {@link System#nanoTime()}.
+     */
+    public void record(String method, String route, int status, long startNanos, long endNanos) {
+        histograms.computeIfAbsent(new RouteKey(normalize(method), route, status), key -> new RollingLatencyHistogram())
+                .record(TimeUnit.NANOSECONDS.toMicros(endNanos - startNanos), minuteOf(endNanos));
+    }
+
+    /**
+     * The routes with requests in the last 15 minutes, ordered by route, method and status.
+     */
+    public List<RouteLatencyDto> findAll() {
+        return findAll(System.nanoTime());
+    }
+
+    List<RouteLatencyDto> findAll(long nowNanos) {
+        var minute = minuteOf(nowNanos);
+        return histograms.entrySet().stream()
+                .map(entry -> new RouteLatencyDto(entry.getKey().method(), entry.getKey().route(), entry.getKey().status(),
+                        WINDOW_MINUTES.stream().map(minutes -> toDto(minutes, entry.getValue().snapshot(minutes, minute))).toList()))
+                .filter(route -> route.windows().getLast().count() > 0)
+                .sorted(BY_ROUTE)
+                .toList();
+    }
+
+    public void clear() {
+        histograms.clear();
+    }
+
+    private static String normalize(String method) {
+        return STANDARD_METHODS.contains(method) ? method : OTHER_METHOD;
+    }
+
+    /**
+     * Minutes are counted from the start of the service; only their order matters, not the time of day.
+     */
+    private long minuteOf(long nanos) {
+        return Math.floorDiv(nanos - originNanos, MINUTE_NANOS);
+    }
+
+    private static LatencyWindowDto toDto(int minutes, LatencyHistogram.Snapshot snapshot) {
+        var percentiles = Arrays.stream(new double[]{50, 90, 99, 99.9})
+                .map(percentile -> toMillis(snapshot.percentileMicros(percentile)))
+                .toArray();
+        return new LatencyWindowDto(minutes, snapshot.total(), percentiles[0], percentiles[1], percentiles[2], percentiles[3],
+                toMillis(snapshot.maxMicros()));
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,224 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.config.SlowQueryProperties;
+import com.app.maxdocapi.database.monitoring.StatementCapture;
+import com.app.maxdocapi.database.sharding.ShardContext;
+import com.app.maxdocapi.models.records.SlowQueryDto;
+import com.app.maxdocapi.models.records.SlowStatementDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the most recent repository calls that took longer than the configured threshold.
+ * <p>
+ * A sampled fraction of them also gets the plan of its slowest SELECT, captured by running it again with
+ * EXPLAIN (ANALYZE, BUFFERS) on a background thread so the slow request is not delayed any further.
+ * The EXPLAIN runs in a read-only transaction that is always rolled back, so that running the SELECT again
+ * cannot write, even through a function it calls; session advisory locks it may take are released as well.
+ * A SELECT that writes through a data-modifying CTE or locks rows with FOR UPDATE/SHARE, or whose analyzed run
+ * is refused by the read-only transaction, only gets the estimated plan of a plain EXPLAIN.
+ * When parameters are redacted, string literals are masked in the plans as well.
+ */
+@Service
+public class SlowQueryService implements DisposableBean {
+    public static final String METRIC_NAME = "app.slow.queries";
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryService.class);
+    private static final String REDACTED = "<redacted>";
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern WRITES_OR_LOCKS = Pattern.compile(
+            "\\b(?:insert|update|delete|merge)\\b|\\bfor\\s+(?:no\\s+key\\s+update|update|key\\s+share|share)\\b",
+            Pattern.CASE_INSENSITIVE);
+    private static final int EXPLAIN_QUEUE_SIZE = 10;
+    private static final int EXPLAIN_TIMEOUT_SECONDS = 30;
+    private static final String READ_ONLY_SQL_TRANSACTION = "25006";
+
+    private final SlowQueryProperties properties;
+    private final JdbcTemplate explainJdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor explainExecutor;
+    private final Deque<SlowQueryDto> recentQueries = new ArrayDeque<>();
+
+    public SlowQueryService(SlowQueryProperties properties, JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.explainJdbcTemplate = new JdbcTemplate(Objects.requireNonNull(jdbcTemplate.getDataSource()));
+        // One plan at a time: EXPLAIN ANALYZE runs the slow query again, so it must not pile up.
+        this.explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(EXPLAIN_QUEUE_SIZE),
+                runnable -> {
+                    var thread = new Thread(runnable, "slow-query-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Records a repository call if it reached the threshold.
+     *
+     * @param operation The repository method.
+     * @param durationNanos How long the call took.
+     * @param rows The number of rows returned, or null when not known.
+     * @param statements The statements executed during the call.
+     */
+    public void record(String operation, long durationNanos, Long rows, List<StatementCapture.Statement> statements) {
+        if (durationNanos < properties.threshold().toNanos()) return;
+
+        Counter.builder(METRIC_NAME)
+                .description("Repository calls slower than the slow-query threshold")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .increment();
+
+        var slowQuery = new SlowQueryDto(
+                operation,
+                LocalDateTime.now(),
+                TimeUnit.NANOSECONDS.toMillis(durationNanos),
+                rows,
+                statements.stream().map(this::toDto).toList(),
+                null);
+
+        var explained = statements.stream()
+                .filter(it -> isSelect(it.sql()))
+                .max(Comparator.comparingLong(StatementCapture.Statement::durationMillis));
+        if (explained.isEmpty() || ThreadLocalRandom.current().nextDouble() >= properties.explainSampleRate()) {
+            add(slowQuery);
+            return;
+        }
+
+        // The plan must come from the shard the statement ran on.
+        var shard = ShardContext.current();
+        try {
+            explainExecutor.execute(() -> add(withPlan(slowQuery, shard == null
+                    ? explain(explained.get())
+                    : ShardContext.call(shard, () -> explain(explained.get())))));
+        } catch (RejectedExecutionException e) {
+            add(slowQuery);
+        }
+    }
+
+    /**
+     * @return The recorded calls, most recent first.
+     */
+    public List<SlowQueryDto> findAll() {
+        synchronized (recentQueries) {
+            return new ArrayList<>(recentQueries);
+        }
+    }
+
+    public void clear() {
+        synchronized (recentQueries) {
+            recentQueries.clear();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        explainExecutor.shutdownNow();
+    }
+
+    private void add(SlowQueryDto slowQuery) {
+        log.debug("Slow repository call {} took {} ms", slowQuery.operation(), slowQuery.durationMs());
+        synchronized (recentQueries) {
+            recentQueries.addFirst(slowQuery);
+            if (recentQueries.size() > properties.bufferSize()) recentQueries.removeLast();
+        }
+    }
+
+    private String explain(StatementCapture.Statement statement) {
+        try {
+            var lines = explainJdbcTemplate.execute((ConnectionCallback<List<String>>) connection -> {
+                var autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+                try (var readOnly = connection.createStatement()) {
+                    readOnly.execute("SET TRANSACTION READ ONLY");
+                    if (!isReadOnly(statement.sql())) return explain(connection, "EXPLAIN ", statement);
+
+                    var savepoint = connection.setSavepoint();
+                    try {
+                        return explain(connection, "EXPLAIN (ANALYZE, BUFFERS) ", statement);
+                    } catch (SQLException e) {
+                        // A function called by the SELECT tried to write.
+                        if (!READ_ONLY_SQL_TRANSACTION.equals(e.getSQLState())) throw e;
+                        connection.rollback(savepoint);
+                        return explain(connection, "EXPLAIN ", statement);
+                    }
+                } finally {
+                    connection.rollback();
+                    connection.setAutoCommit(autoCommit);
+                    try (var unlock = connection.createStatement()) {
+                        unlock.execute("SELECT pg_advisory_unlock_all()");
+                    }
+                }
+            });
+            var plan = String.join("\n", Objects.requireNonNull(lines));
+            return properties.redactParameters() ? STRING_LITERAL.matcher(plan).replaceAll("'?'") : plan;
+        } catch (DataAccessException e) {
+            log.debug("Could not explain a slow statement", e);
+            return "EXPLAIN failed: " + e.getMostSpecificCause().getMessage();
+        }
+    }
+
+    private static List<String> explain(Connection connection, String explain, StatementCapture.Statement statement) throws SQLException {
+        try (var ps = connection.prepareStatement(explain + statement.sql())) {
+            ps.setQueryTimeout(EXPLAIN_TIMEOUT_SECONDS);
+            for (int i = 0; i < statement.parameters().size(); i++) {
+                ps.setObject(i + 1, statement.parameters().get(i));
+            }
+            var lines = new ArrayList<String>();
+            try (var rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    lines.add(rs.getString(1));
+                }
+            }
+            return lines;
+        }
+    }
+
+    private SlowStatementDto toDto(StatementCapture.Statement statement) {
+        var parameters = statement.parameters().stream()
+                .map(it -> properties.redactParameters() ? REDACTED : String.valueOf(it))
+                .toList();
+        return new SlowStatementDto(statement.sql(), parameters, statement.durationMillis());
+    }
+
+    private static SlowQueryDto withPlan(SlowQueryDto slowQuery, String plan) {
+        return new SlowQueryDto(slowQuery.operation(), slowQuery.occurredAt(), slowQuery.durationMs(), slowQuery.rows(), slowQuery.statements(), plan);
+    }
+
+    private static boolean isSelect(String sql) {
+        var start = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return start.startsWith("select") || start.startsWith("with");
+    }
+
+    /**
+     * Whether the SELECT visibly has no data-modifying CTE and takes no row locks. This is only a first filter:
+     * functions with side effects are caught by the read-only transaction the analyzed run happens in.
+     */
+    private static boolean isReadOnly(String sql) {
+        return !WRITES_OR_LOCKS.matcher(STRING_LITERAL.matcher(sql).replaceAll("''")).find();
+    }
+}
@@ -0,0 +1,106 @@
+package com.app.maxdocapi.services.files;
+
+import com.app.maxdocapi.exceptions.errors.BadRequestException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Keeps file contents on the local disk under their SHA-256, in {@code <directory>/ab/cd/abcd...}, so the same
+ * content is stored once however many document versions it is attached to.
+ * <p>
+ * An upload is streamed through a fixed buffer into a temporary file while its hash is computed, then moved
+ * into place; when the content is already stored, the temporary file is simply dropped. Stored files are never
+ * modified, which is what lets their hash serve as a strong ETag.
+ * <p>
+ * The store is the local disk of the node, so every node serving the files must see the same directory:
+ * either the application runs on a single node, or the directory is a volume shared by all of them. A file
+ * uploaded through a node whose store the others cannot see is reported as unavailable by the others.
+ */
+public class ContentAddressedFileStore {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String TEMPORARY_DIRECTORY = "tmp";
+
+    private final Path directory;
+    private final long maxSize;
+
+    public ContentAddressedFileStore(Path directory, long maxSize) {
+        this.directory = directory.toAbsolutePath();
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @param deduplicated Whether the content was already stored.
+     */
+    public record StoredFile(String sha256, long size, boolean deduplicated) {
+    }
+
+    /**
+     * Stores the content read from the stream, which is not closed.
+     *
+     * @throws BadRequestException if the content is empty or larger than the maximum size.
+     */
+    public StoredFile store(InputStream content) throws IOException {
+        var temporaryDirectory = Files.createDirectories(directory.resolve(TEMPORARY_DIRECTORY));
+        var temporary = Files.createTempFile(temporaryDirectory, "upload-", ".tmp");
+        try {
+            var digest = sha256();
+            long size = 0;
+            try (var channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                var buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxSize) {
+                        throw new BadRequestException(String.format("Files larger than %s bytes are not accepted", maxSize));
+                    }
+                    digest.update(buffer, 0, read);
+                    var written = ByteBuffer.wrap(buffer, 0, read);
+                    while (written.hasRemaining()) {
+                        channel.write(written);
+                    }
+                }
+                // The content must be on disk before it can be found under its hash.
+                channel.force(true);
+            }
+            if (size == 0) throw new BadRequestException("The file is empty");
+
+            var sha256 = HexFormat.of().formatHex(digest.digest());
+            var target = pathOf(sha256);
+            if (Files.exists(target)) return new StoredFile(sha256, size, true);
+
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // The same content was uploaded concurrently and stored first.
+                return new StoredFile(sha256, size, true);
+            }
+            return new StoredFile(sha256, size, false);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    public Path pathOf(String sha256) {
+        return directory.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
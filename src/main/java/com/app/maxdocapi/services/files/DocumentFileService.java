@@ -0,0 +1,98 @@
+package com.app.maxdocapi.services.files;
+
+import com.app.maxdocapi.common.FileDownload;
+import com.app.maxdocapi.database.repositories.DocumentFileRepository;
+import com.app.maxdocapi.database.sharding.ShardRouter;
+import com.app.maxdocapi.exceptions.errors.BadRequestException;
+import com.app.maxdocapi.exceptions.errors.NotFoundException;
+import com.app.maxdocapi.exceptions.errors.ServiceUnavailableException;
+import com.app.maxdocapi.models.records.DocumentFileDto;
+import com.app.maxdocapi.services.DocumentService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Attaches files to the document versions and serves them back.
+ * <p>
+ * An upload is streamed to the file store before any transaction starts, so a slow client never holds a
+ * connection or the lock of its acronym; only the metadata row is written in the transaction. Whether the
+ * document can take a file is checked before the content is read. Content is never deleted here, since a
+ * concurrent upload of the same content may reference it at any time: what an upload rejected while it was
+ * being read leaves behind is kept, like the content of a replaced file.
+ */
+@Service
+public class DocumentFileService {
+    private static final Logger log = LoggerFactory.getLogger(DocumentFileService.class);
+    private static final String DEFAULT_FILE_NAME = "document";
+
+    private final DocumentService documentService;
+    private final DocumentFileRepository documentFileRepository;
+    private final ContentAddressedFileStore fileStore;
+    private final ShardRouter shardRouter;
+
+    public DocumentFileService(DocumentService documentService,
+                               DocumentFileRepository documentFileRepository,
+                               ContentAddressedFileStore fileStore,
+                               ShardRouter shardRouter) {
+        this.documentService = documentService;
+        this.documentFileRepository = documentFileRepository;
+        this.fileStore = fileStore;
+        this.shardRouter = shardRouter;
+    }
+
+    /**
+     * Stores the content and attaches it to a document in the DRAFT phase.
+     *
+     * @param fileName The name the file is downloaded with; optional.
+     * @param contentType The media type of the content; optional.
+     * @return The attached file.
+     * @throws NotFoundException if no document is found with the given ID.
+     * @throws BadRequestException if the document is not in the DRAFT phase, or the content is empty or too large.
+     */
+    public DocumentFileDto upload(Long id, String fileName, String contentType, InputStream content) throws IOException {
+        documentService.requireFileAttachable(id);
+
+        var stored = fileStore.store(content);
+        var file = documentService.attachFile(
+                id,
+                stored.sha256(),
+                stored.size(),
+                StringUtils.hasText(contentType) ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE,
+                StringUtils.hasText(fileName) ? StringUtils.getFilename(StringUtils.cleanPath(fileName)) : DEFAULT_FILE_NAME);
+        return new DocumentFileDto(file);
+    }
+
+    /**
+     * Finds the file of a document, checking that its content is in the store before any header is written.
+     *
+     * @throws NotFoundException if the document has no file.
+     * @throws ServiceUnavailableException if the content is missing or incomplete in the store of this node.
+     */
+    public FileDownload download(Long id) {
+        var file = shardRouter.onShard(shardRouter.shardOf(id), () -> documentFileRepository.findById(id))
+                .orElseThrow(() -> new NotFoundException(String.format("Document with id %s has no file", id)));
+
+        var path = fileStore.pathOf(file.getSha256());
+        if (!Files.isReadable(path) || sizeOf(path) != file.getSize()) {
+            log.error("The content {} of the file of document {} is missing from the store of this node", file.getSha256(), id);
+            throw new ServiceUnavailableException(String.format("The file of document with id %s is not available", id));
+        }
+        return new FileDownload(path, file.getSize(), file.getSha256(), file.getContentType(), file.getFileName());
+    }
+
+    private static long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.app.maxdocapi.services.outbox;
+
+import com.app.maxdocapi.models.records.DocumentOutboxEventDto;
+
+import java.util.List;
+
+/**
+ * Where the {@link DocumentOutboxRelay} delivers document changes.
+ */
+public interface DocumentEventSink {
+    /**
+     * Delivers a batch of changes, in order. It must only return once the whole batch is delivered;
+     * on a failure the whole batch is delivered again later.
+     *
+     * @throws Exception if the batch could not be delivered.
+     */
+    void deliver(List<DocumentOutboxEventDto> events) throws Exception;
+}
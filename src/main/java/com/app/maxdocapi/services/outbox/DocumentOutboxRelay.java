@@ -0,0 +1,133 @@
+package com.app.maxdocapi.services.outbox;
+
+import com.app.maxdocapi.config.OutboxProperties;
+import com.app.maxdocapi.database.entities.DocumentOutboxEvent;
+import com.app.maxdocapi.database.repositories.DocumentOutboxRepository;
+import com.app.maxdocapi.database.sharding.ShardRouter;
+import com.app.maxdocapi.models.records.DocumentOutboxEventDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers the changes of the outbox to the {@link DocumentEventSink}, batch after batch, on every shard.
+ * <p>
+ * Each batch is claimed with {@code FOR UPDATE SKIP LOCKED}, handed to the sink and deleted in one transaction,
+ * so the relays of several nodes deliver different batches side by side, and a batch whose node stops before
+ * the commit is claimed again by the next relay. A batch the sink rejects stays in the outbox and is retried
+ * later, with a backoff that doubles on every failure.
+ * <p>
+ * Within a batch the changes are in the order they were written. Across batches delivered by different
+ * nodes they may not be, so consumers order the changes of an acronym by their sequence.
+ */
+@Service
+public class DocumentOutboxRelay {
+    public static final String METRIC_PREFIX = "app.outbox";
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentOutboxRelay.class);
+
+    private final DocumentOutboxRepository documentOutboxRepository;
+    private final DocumentEventSink sink;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties properties;
+    private final Counter delivered;
+    private final Counter failedBatches;
+    private final Timer deliveryTime;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public DocumentOutboxRelay(DocumentOutboxRepository documentOutboxRepository,
+                               DocumentEventSink sink,
+                               ShardRouter shardRouter,
+                               TransactionTemplate transactionTemplate,
+                               OutboxProperties properties,
+                               MeterRegistry meterRegistry) {
+        if (properties.batchSize() < 1) {
+            throw new IllegalArgumentException("The outbox must deliver at least one change per batch");
+        }
+        this.documentOutboxRepository = documentOutboxRepository;
+        this.sink = sink;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.delivered = Counter.builder(METRIC_PREFIX + ".delivered")
+                .description("Document changes delivered to the sink")
+                .register(meterRegistry);
+        this.failedBatches = Counter.builder(METRIC_PREFIX + ".failed-batches")
+                .description("Batches of document changes the sink failed to deliver")
+                .register(meterRegistry);
+        this.deliveryTime = Timer.builder(METRIC_PREFIX + ".delivery")
+                .description("Time the sink took to deliver a batch of document changes")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:1000}")
+    public void relayScheduled() {
+        if (properties.enabled()) relay();
+    }
+
+    /**
+     * Delivers the due changes of every shard until none is left or the sink fails.
+     * Does nothing when a run is already in progress on this node.
+     *
+     * @return How many changes were delivered.
+     */
+    public long relay() {
+        if (!running.compareAndSet(false, true)) return 0;
+
+        var total = new AtomicLong();
+        try {
+            shardRouter.forEachShard(shard -> {
+                int batch;
+                do {
+                    batch = Objects.requireNonNull(transactionTemplate.execute(status -> deliverNextBatch()));
+                    total.addAndGet(Math.max(batch, 0));
+                } while (batch == properties.batchSize() && !Thread.currentThread().isInterrupted());
+            });
+        } finally {
+            running.set(false);
+        }
+        return total.get();
+    }
+
+    /**
+     * @return How many changes were delivered, or -1 when the sink failed.
+     */
+    private int deliverNextBatch() {
+        var now = LocalDateTime.now();
+        var events = documentOutboxRepository.claimDue(now, properties.batchSize());
+        if (events.isEmpty()) return 0;
+
+        try {
+            var start = System.nanoTime();
+            sink.deliver(events.stream().map(DocumentOutboxEventDto::new).toList());
+            deliveryTime.record(Duration.ofNanos(System.nanoTime() - start));
+        } catch (Exception e) {
+            failedBatches.increment();
+            log.warn("Could not deliver {} document changes, they will be retried", events.size(), e);
+            // The claimed entities are updated when the transaction commits.
+            events.forEach(it -> it.retryAt(now.plus(backoff(it)), e.toString()));
+            return -1;
+        }
+
+        documentOutboxRepository.deleteAllByIdInBatch(events.stream().map(DocumentOutboxEvent::getId).toList());
+        delivered.increment(events.size());
+        return events.size();
+    }
+
+    private Duration backoff(DocumentOutboxEvent event) {
+        var backoff = properties.retryBackoff().multipliedBy(1L << Math.min(event.getAttempts(), 20));
+        return backoff.compareTo(properties.maxRetryBackoff()) > 0 ? properties.maxRetryBackoff() : backoff;
+    }
+}
@@ -0,0 +1,35 @@
+package com.app.maxdocapi.services.outbox;
+
+import com.app.maxdocapi.config.OutboxProperties;
+import com.app.maxdocapi.database.entities.DocumentOutboxEvent;
+import com.app.maxdocapi.database.repositories.DocumentOutboxRepository;
+import com.app.maxdocapi.models.records.DocumentChangedEvent;
+import com.app.maxdocapi.models.records.DocumentsChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Writes every document change to the outbox as it is published, which is inside the transaction of
+ * the write, on the shard of the document. The change and its event therefore commit or roll back
+ * together, and the write itself only pays for one more insert.
+ */
+@Service
+public class DocumentOutboxWriter {
+    private final DocumentOutboxRepository documentOutboxRepository;
+    private final OutboxProperties properties;
+
+    public DocumentOutboxWriter(DocumentOutboxRepository documentOutboxRepository, OutboxProperties properties) {
+        this.documentOutboxRepository = documentOutboxRepository;
+        this.properties = properties;
+    }
+
+    @EventListener
+    public void onDocumentChanged(DocumentChangedEvent event) {
+        if (properties.enabled()) documentOutboxRepository.save(new DocumentOutboxEvent(event));
+    }
+
+    @EventListener
+    public void onDocumentsChanged(DocumentsChangedEvent event) {
+        if (properties.enabled()) documentOutboxRepository.saveAll(event.changes().stream().map(DocumentOutboxEvent::new).toList());
+    }
+}
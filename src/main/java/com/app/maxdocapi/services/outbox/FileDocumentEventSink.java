@@ -0,0 +1,45 @@
+package com.app.maxdocapi.services.outbox;
+
+import com.app.maxdocapi.models.records.DocumentOutboxEventDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends the changes to a JSON lines file, one change per line. Each batch is synced to disk before it
+ * counts as delivered. The file is opened for every batch, so it can be rotated while the app runs.
+ */
+public class FileDocumentEventSink implements DocumentEventSink {
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    public FileDocumentEventSink(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void deliver(List<DocumentOutboxEventDto> events) throws IOException {
+        var lines = new ByteArrayOutputStream();
+        for (var event : events) {
+            lines.write(objectMapper.writeValueAsBytes(event));
+            lines.write('\n');
+        }
+
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        try (var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            var buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+}
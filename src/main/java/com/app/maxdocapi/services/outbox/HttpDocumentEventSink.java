@@ -0,0 +1,41 @@
+package com.app.maxdocapi.services.outbox;
+
+import com.app.maxdocapi.models.records.DocumentOutboxEventDto;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Posts each batch of changes to an endpoint as a JSON array. Any response other than 2xx fails the batch.
+ */
+public class HttpDocumentEventSink implements DocumentEventSink {
+    private final URI url;
+    private final RestClient restClient;
+
+    public HttpDocumentEventSink(URI url, Duration timeout, RestClient.Builder restClientBuilder) {
+        if (url == null) {
+            throw new IllegalStateException("The http sink of the outbox needs app.outbox.http-url");
+        }
+        this.url = url;
+
+        // The relay holds the locks of the batch while it waits, so every wait must be bounded.
+        var requestFactory = new JdkClientHttpRequestFactory(HttpClient.newBuilder().connectTimeout(timeout).build());
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = restClientBuilder.requestFactory(requestFactory).build();
+    }
+
+    @Override
+    public void deliver(List<DocumentOutboxEventDto> events) {
+        restClient.post()
+                .uri(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(events)
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
@@ -0,0 +1,19 @@
+package com.app.maxdocapi.services.outbox;
+
+import com.app.maxdocapi.models.records.DocumentOutboxEventDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Logs the changes, for development and for nodes without a downstream system.
+ */
+public class LogDocumentEventSink implements DocumentEventSink {
+    private static final Logger log = LoggerFactory.getLogger(LogDocumentEventSink.class);
+
+    @Override
+    public void deliver(List<DocumentOutboxEventDto> events) {
+        events.forEach(it -> log.info("{} document {} ({} v{}, {})", it.type(), it.documentId(), it.acronym(), it.version(), it.phase()));
+    }
+}
@@ -1,5 +1,38 @@
 /****************************  EXTENSIONS HERE  *****************************/
 
 CREATE EXTENSION IF NOT EXISTS unaccent;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
 
-/****************************   END EXTENSIONS  *****************************/
\ No newline at end of file
+/****************************   END EXTENSIONS  *****************************/
+
+/****************************  SEQUENCES HERE  ******************************/
+
+CREATE SEQUENCE IF NOT EXISTS document_change_event_seq;
+
+/****************************   END SEQUENCES  ******************************/
+
+
+/**************************  SCHEMA CHANGES HERE  ***************************/
+
+-- No-op on a fresh database, where Hibernate already created the column as TEXT.
+ALTER TABLE IF EXISTS documents ALTER COLUMN description TYPE TEXT;
+
+/**************************   END SCHEMA CHANGES  ***************************/
+
+
+/*****************************  INDEXES HERE  *******************************/
+
+-- Trigram indexes serve the "contains" filters (LIKE '%...%') on the normalized search columns.
+CREATE INDEX IF NOT EXISTS documents_title_norm_trgm_idx ON documents USING gin (title_norm gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS documents_acronym_norm_trgm_idx ON documents USING gin (acronym_norm gin_trgm_ops);
+
+-- Lets the retention job walk the OBSOLETE versions of each acronym without visiting the others.
+CREATE INDEX IF NOT EXISTS documents_obsolete_acronym_version_idx ON documents (acronym, version) WHERE phase = 'OBSOLETE';
+
+-- Lets the lineage of an acronym find its ACTIVE version without reading the phase of every version.
+CREATE INDEX IF NOT EXISTS documents_active_acronym_version_idx ON documents (acronym, version) WHERE phase = 'ACTIVE';
+
+-- Lets a node warm-started from a snapshot read only the documents changed since.
+CREATE INDEX IF NOT EXISTS documents_updated_at_idx ON documents (updated_at);
+
+/*****************************   END INDEXES  *******************************/
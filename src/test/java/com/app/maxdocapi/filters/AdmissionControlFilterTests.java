@@ -0,0 +1,130 @@
+package com.app.maxdocapi.filters;
+
+import com.app.maxdocapi.Routes;
+import com.app.maxdocapi.config.AdmissionControlProperties;
+import com.app.maxdocapi.config.AdmissionControlProperties.GroupLimits;
+import com.app.maxdocapi.enums.RouteGroup;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase
+public class AdmissionControlFilterTests {
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void assertRequestsAreClassifiedIntoTheirGroups() {
+        // Act & Assert: Verify aggregates and batch lookups are bulk, reads and writes go by method.
+        assertEquals(RouteGroup.BULK, AdmissionControlFilter.classify(request("GET", Routes.Documents.Acronym.path)));
+        assertEquals(RouteGroup.BULK, AdmissionControlFilter.classify(request("GET", Routes.Documents.Facets.path)));
+        assertEquals(RouteGroup.BULK, AdmissionControlFilter.classify(request("POST", Routes.Documents.Batch.path)));
+        var byIds = request("GET", Routes.Documents.path);
+        byIds.setParameter("ids", "1,2");
+        assertEquals(RouteGroup.BULK, AdmissionControlFilter.classify(byIds));
+
+        assertEquals(RouteGroup.READS, AdmissionControlFilter.classify(request("GET", Routes.Documents.path)));
+        assertEquals(RouteGroup.READS, AdmissionControlFilter.classify(request("GET", Routes.Documents.path + "/1")));
+        assertEquals(RouteGroup.READS, AdmissionControlFilter.classify(request("HEAD", Routes.Documents.path)));
+        assertEquals(RouteGroup.WRITES, AdmissionControlFilter.classify(request("POST", Routes.Documents.path)));
+        assertEquals(RouteGroup.WRITES, AdmissionControlFilter.classify(request("PATCH", Routes.Documents.path + "/1/submit")));
+
+        assertTrue(AdmissionControlFilter.isFileTransfer(request("PUT", Routes.Documents.path + "/1/file")));
+        assertFalse(AdmissionControlFilter.isFileTransfer(request("GET", Routes.Documents.path + "/1")));
+    }
+
+    @Test
+    void assertFullQueueIsRejectedWith429AndTimeoutWith503() throws Exception {
+        // Arrange: Writes limited to one at a time, with one of them holding the slot.
+        var filter = filterWithOneWriteSlot(0, Duration.ZERO);
+        var release = new CountDownLatch(1);
+        var holding = new CountDownLatch(1);
+
+        try (var executor = Executors.newSingleThreadExecutor()) {
+            var holder = executor.submit(() -> {
+                filter.doFilter(request("POST", Routes.Documents.path), new MockHttpServletResponse(), holdingChain(holding, release));
+                return null;
+            });
+            assertTrue(holding.await(10, TimeUnit.SECONDS));
+
+            // Act: Send another write with no room to wait.
+            var queueFull = new MockHttpServletResponse();
+            filter.doFilter(request("POST", Routes.Documents.path), queueFull, failingChain());
+            release.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+
+            // Assert: Verify the write was rejected with 429 and the Retry-After of the group.
+            assertEquals(429, queueFull.getStatus());
+            assertEquals("2", queueFull.getHeader("Retry-After"));
+            assertTrue(queueFull.getContentAsString().contains("429"));
+        }
+
+        // Arrange: The same, with room for one request to wait 50 ms.
+        var waitingFilter = filterWithOneWriteSlot(1, Duration.ofMillis(50));
+        var releaseWaiting = new CountDownLatch(1);
+        var holdingWaiting = new CountDownLatch(1);
+        try (var executor = Executors.newSingleThreadExecutor()) {
+            var holder = executor.submit(() -> {
+                waitingFilter.doFilter(request("POST", Routes.Documents.path), new MockHttpServletResponse(), holdingChain(holdingWaiting, releaseWaiting));
+                return null;
+            });
+            assertTrue(holdingWaiting.await(10, TimeUnit.SECONDS));
+
+            // Act: Send another write, and a file upload.
+            var timedOut = new MockHttpServletResponse();
+            waitingFilter.doFilter(request("POST", Routes.Documents.path), timedOut, failingChain());
+            var uploaded = new AtomicBoolean();
+            waitingFilter.doFilter(request("PUT", Routes.Documents.path + "/1/file"), new MockHttpServletResponse(), (req, res) -> uploaded.set(true));
+            releaseWaiting.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+
+            // Assert: Verify the write timed out with 503 and the upload was not held back.
+            assertEquals(503, timedOut.getStatus());
+            assertEquals("2", timedOut.getHeader("Retry-After"));
+            assertTrue(uploaded.get());
+        }
+    }
+
+    private AdmissionControlFilter filterWithOneWriteSlot(int queueSize, Duration maxWait) {
+        var writes = new GroupLimits(1, 1, 1, queueSize, maxWait, Duration.ofSeconds(1), Duration.ofSeconds(2));
+        return new AdmissionControlFilter(new AdmissionControlProperties(true, Map.of(RouteGroup.WRITES, writes)), objectMapper);
+    }
+
+    private static FilterChain holdingChain(CountDownLatch holding, CountDownLatch release) {
+        return (req, res) -> {
+            holding.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    private static FilterChain failingChain() {
+        return (req, res) -> {
+            throw new AssertionError("The request should have been rejected");
+        };
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        return new MockHttpServletRequest(method, path);
+    }
+}
@@ -0,0 +1,77 @@
+package com.app.maxdocapi.performance;
+
+import com.app.maxdocapi.enums.Phase;
+import com.app.maxdocapi.models.records.DocumentSuggestionDto;
+import com.app.maxdocapi.services.AcronymAutocompleteService;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures the prefix lookups of the {@link AcronymAutocompleteService} over a directory of one million
+ * acronyms, far more than the dataset has, loaded from generated documents. The service is loaded from the
+ * dataset again afterwards.
+ */
+@PerformanceTest
+public class AcronymAutocompletePerformanceTests {
+    private static final Logger log = LoggerFactory.getLogger(AcronymAutocompletePerformanceTests.class);
+    private static final int ACRONYM_COUNT = 1_000_000;
+    private static final int WARMUPS = 5_000;
+    private static final int LOOKUPS = 20_000;
+    private static final Duration P99_BUDGET = Duration.ofMillis(1);
+
+    @Autowired
+    private AcronymAutocompleteService acronymAutocompleteService;
+
+    @Value("${perf.budget-scale:1.0}")
+    private double budgetScale;
+
+    @Test
+    void assertLookupsStayUnderOneMillisecondWithOneMillionAcronyms() {
+        // Arrange: Load the directory with one million random acronyms.
+        var random = new Random(42);
+        var documents = new ArrayList<DocumentSuggestionDto>(ACRONYM_COUNT);
+        var acronyms = new String[ACRONYM_COUNT];
+        for (int i = 0; i < ACRONYM_COUNT; i++) {
+            acronyms[i] = randomAcronym(random) + i;
+            documents.add(new DocumentSuggestionDto((long) i, "Título", acronyms[i], 1, random.nextBoolean() ? Phase.ACTIVE : Phase.DRAFT));
+        }
+        acronymAutocompleteService.reload(documents);
+
+        try {
+            // Act: Run prefix lookups of one to four characters.
+            var sample = LatencySample.measure("suggest", WARMUPS, LOOKUPS, () -> {
+                var prefix = acronyms[random.nextInt(ACRONYM_COUNT)].toLowerCase().substring(0, 1 + random.nextInt(4));
+                var result = acronymAutocompleteService.suggest(prefix, 10);
+                if (result.stream().anyMatch(it -> !it.acronym().toLowerCase().startsWith(prefix))) {
+                    throw new IllegalStateException("A suggestion does not start with " + prefix);
+                }
+            });
+
+            // Assert: Verify the 99th percentile lookup stays within the budget.
+            var p99 = sample.percentile(99);
+            var budget = Duration.ofNanos((long) (P99_BUDGET.toNanos() * budgetScale));
+            log.info("Acronym autocomplete over {} acronyms: p50 {} us, p99 {} us",
+                    ACRONYM_COUNT, sample.percentile(50).toNanos() / 1000, p99.toNanos() / 1000);
+            assertTrue(p99.compareTo(budget) <= 0, String.format("p99 was %d us", p99.toNanos() / 1000));
+        } finally {
+            acronymAutocompleteService.reload();
+        }
+    }
+
+    private static String randomAcronym(Random random) {
+        var chars = new char[3 + random.nextInt(4)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('A' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,31 @@
+package com.app.maxdocapi.performance;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * The shape of the synthetic dataset, bound from the {@code perf.dataset} properties.
+ *
+ * @param seed Makes the dataset reproducible.
+ * @param documents How many documents are generated.
+ * @param acronyms How many distinct acronyms the documents belong to.
+ * @param versionSkew The exponent of the Zipf distribution of versions over the acronyms: the acronym of rank r
+ *                    gets a share of the documents proportional to 1 / r^skew, so a few acronyms have thousands of
+ *                    versions and most have only a handful.
+ * @param draftShare The share of acronyms whose latest version is a DRAFT, on top of an ACTIVE one when there is
+ *                   an older version. All the other versions are OBSOLETE.
+ * @param descriptionLength The approximate length of each description.
+ */
+public record DatasetSpec(
+        @DefaultValue("42") long seed,
+        @DefaultValue("1000000") int documents,
+        @DefaultValue("50000") int acronyms,
+        @DefaultValue("0.7") double versionSkew,
+        @DefaultValue("0.15") double draftShare,
+        @DefaultValue("400") int descriptionLength) {
+
+    public DatasetSpec {
+        if (acronyms < 1 || documents < acronyms) {
+            throw new IllegalArgumentException("The dataset needs at least one acronym and one document per acronym");
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.app.maxdocapi.performance;
+
+import com.app.maxdocapi.common.SearchNormalizer;
+import com.app.maxdocapi.enums.Phase;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Generates a realistic documents table from a {@link DatasetSpec} and bulk-loads it with COPY.
+ * <p>
+ * Each acronym gets a version history whose depth follows the Zipf distribution of the spec, spread over the last
+ * three years; all versions but the latest one or two are OBSOLETE. Titles are Portuguese, with accents, and shared
+ * by the versions of an acronym. The rows are inserted in the order of their creation, so the ids of an acronym
+ * are interleaved with the others like in production. The same spec always generates the same rows.
+ */
+public class DocumentDatasetGenerator {
+    private static final String[] WORDS = {
+            "Relatório", "Técnico", "Análise", "Operação", "Manutenção", "Preventiva", "Segurança", "Orçamento",
+            "Gestão", "Inspeção", "Calibração", "Procedimento", "Instrução", "Política", "Auditoria", "Logística",
+            "Produção", "Química", "Elétrica", "Mecânica", "Hidráulica", "Qualidade", "Avaliação", "Conformidade",
+            "Especificação", "Descrição", "Revisão", "Certificação", "Emergência", "Prevenção", "Ergonomia", "Ação",
+            "Distribuição", "Armazém", "Fábrica", "Laboratório", "Equipamento", "Válvula", "Compressor", "Caldeira"
+    };
+    private static final String[] CONNECTORS = {"de", "da", "do", "para", "e"};
+    private static final long PERIOD_SECONDS = Duration.ofDays(3 * 365).toSeconds();
+    // Rows are sorted by creation time with their index packed in the low bits of the same long.
+    private static final int ROW_BITS = 32;
+    private static final int COPY_CHUNK_SIZE = 1 << 20;
+
+    private final DatasetSpec spec;
+
+    public DocumentDatasetGenerator(DatasetSpec spec) {
+        this.spec = spec;
+    }
+
+    /**
+     * @param hottestAcronym The acronym with the deepest version history.
+     * @param hottestDepth How many versions that acronym has.
+     */
+    public record DatasetSummary(int documents, int acronyms, String hottestAcronym, int hottestDepth, Duration loadTime) {
+    }
+
+    /**
+     * Splits the documents over the acronyms by rank: every acronym gets one version, and the remaining
+     * ones are handed out in proportion to the Zipf weight of the rank.
+     *
+     * @return The number of versions of each acronym, deepest first.
+     */
+    int[] versionDepths() {
+        var weights = new double[spec.acronyms()];
+        var totalWeight = 0.0;
+        for (int rank = 0; rank < weights.length; rank++) {
+            weights[rank] = 1 / Math.pow(rank + 1, spec.versionSkew());
+            totalWeight += weights[rank];
+        }
+
+        var depths = new int[spec.acronyms()];
+        var remaining = spec.documents() - spec.acronyms();
+        var assigned = 0;
+        for (int rank = 0; rank < depths.length; rank++) {
+            var extra = (int) (remaining * weights[rank] / totalWeight);
+            depths[rank] = 1 + extra;
+            assigned += extra;
+        }
+        // What the rounding left over goes to the deepest acronyms.
+        for (int rank = 0; assigned < remaining; rank = (rank + 1) % depths.length, assigned++) {
+            depths[rank]++;
+        }
+        return depths;
+    }
+
+    /**
+     * Appends the generated documents to the documents table and refreshes its statistics.
+     */
+    public DatasetSummary load(DataSource dataSource) throws SQLException {
+        var start = System.nanoTime();
+        var random = new SplittableRandom(spec.seed());
+        var depths = versionDepths();
+
+        var acronyms = new String[spec.acronyms()];
+        var titles = new String[spec.acronyms()];
+        var draftHeads = new boolean[spec.acronyms()];
+        for (int rank = 0; rank < acronyms.length; rank++) {
+            acronyms[rank] = randomLetters(random, 3) + "-" + String.format("%06d", rank);
+            titles[rank] = randomTitle(random);
+            draftHeads[rank] = random.nextDouble() < spec.draftShare();
+        }
+
+        // One entry per row, in the order of the acronyms and their versions.
+        var rowAcronyms = new int[spec.documents()];
+        var rowVersions = new int[spec.documents()];
+        var rowCreatedAt = new long[spec.documents()];
+        var row = 0;
+        for (int rank = 0; rank < depths.length; rank++) {
+            var createdAt = random.nextLong(PERIOD_SECONDS / 2);
+            var meanGap = Math.max(2, (PERIOD_SECONDS - createdAt) / (depths[rank] + 1));
+            for (int version = 1; version <= depths[rank]; version++, row++) {
+                rowAcronyms[row] = rank;
+                rowVersions[row] = version;
+                rowCreatedAt[row] = createdAt;
+                createdAt = Math.min(PERIOD_SECONDS - 1, createdAt + 1 + random.nextLong(meanGap * 2));
+            }
+        }
+
+        var order = new long[spec.documents()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = (rowCreatedAt[i] << ROW_BITS) | i;
+        }
+        Arrays.sort(order);
+
+        var periodStart = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).minusSeconds(PERIOD_SECONDS);
+        try (var connection = dataSource.getConnection()) {
+            var copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn("""
+                    COPY documents (title, description, acronym, version, phase, title_norm, acronym_norm, created_at, updated_at)
+                    FROM STDIN""");
+            try {
+                var chunk = new StringBuilder(COPY_CHUNK_SIZE + 4096);
+                for (var key : order) {
+                    var i = (int) (key & ((1L << ROW_BITS) - 1));
+                    var rank = rowAcronyms[i];
+                    var version = rowVersions[i];
+                    var depth = depths[rank];
+                    // An OBSOLETE version was last updated when the next version replaced it.
+                    var updatedAt = version < depth ? rowCreatedAt[i + 1] : rowCreatedAt[i];
+
+                    appendField(chunk, titles[rank]).append('\t');
+                    appendField(chunk, randomDescription(random)).append('\t');
+                    appendField(chunk, acronyms[rank]).append('\t');
+                    chunk.append(version).append('\t');
+                    chunk.append(phaseOf(version, depth, draftHeads[rank])).append('\t');
+                    appendField(chunk, SearchNormalizer.normalize(titles[rank])).append('\t');
+                    appendField(chunk, SearchNormalizer.normalize(acronyms[rank])).append('\t');
+                    chunk.append(periodStart.plusSeconds(rowCreatedAt[i])).append('\t');
+                    chunk.append(periodStart.plusSeconds(updatedAt)).append('\n');
+
+                    if (chunk.length() >= COPY_CHUNK_SIZE) writeChunk(copyIn, chunk);
+                }
+                writeChunk(copyIn, chunk);
+                copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) copyIn.cancelCopy();
+            }
+
+            try (var statement = connection.createStatement()) {
+                statement.execute("ANALYZE documents");
+            }
+        }
+
+        return new DatasetSummary(spec.documents(), spec.acronyms(), acronyms[0], depths[0], Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private Phase phaseOf(int version, int depth, boolean draftHead) {
+        if (version == depth) return draftHead ? Phase.DRAFT : Phase.ACTIVE;
+        if (version == depth - 1 && draftHead) return Phase.ACTIVE;
+        return Phase.OBSOLETE;
+    }
+
+    private static String randomTitle(SplittableRandom random) {
+        var words = 3 + random.nextInt(4);
+        var title = new StringBuilder(WORDS[random.nextInt(WORDS.length)]);
+        for (int i = 1; i < words; i++) {
+            title.append(' ');
+            if (i % 2 == 1 && random.nextBoolean()) {
+                title.append(CONNECTORS[random.nextInt(CONNECTORS.length)]).append(' ');
+            }
+            title.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return title.toString();
+    }
+
+    private String randomDescription(SplittableRandom random) {
+        var description = new StringBuilder(spec.descriptionLength() + 16);
+        while (description.length() < spec.descriptionLength()) {
+            if (!description.isEmpty()) description.append(' ');
+            description.append(WORDS[random.nextInt(WORDS.length)].toLowerCase());
+        }
+        return description.toString();
+    }
+
+    private static String randomLetters(SplittableRandom random, int count) {
+        var letters = new char[count];
+        for (int i = 0; i < count; i++) {
+            letters[i] = (char) ('A' + random.nextInt(26));
+        }
+        return new String(letters);
+    }
+
+    /**
+     * Appends a value in the text format of COPY, where backslashes, tabs and line breaks must be escaped.
+     */
+    private static StringBuilder appendField(StringBuilder chunk, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            switch (c) {
+                case '\\' -> chunk.append("\\\\");
+                case '\t' -> chunk.append("\\t");
+                case '\n' -> chunk.append("\\n");
+                case '\r' -> chunk.append("\\r");
+                default -> chunk.append(c);
+            }
+        }
+        return chunk;
+    }
+
+    private static void writeChunk(CopyIn copyIn, StringBuilder chunk) throws SQLException {
+        var bytes = chunk.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        chunk.setLength(0);
+    }
+}
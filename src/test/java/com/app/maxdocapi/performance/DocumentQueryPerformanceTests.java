@@ -0,0 +1,125 @@
+package com.app.maxdocapi.performance;
+
+import com.app.maxdocapi.common.SearchNormalizer;
+import com.app.maxdocapi.database.repositories.DocumentRepository;
+import com.app.maxdocapi.enums.Phase;
+import com.app.maxdocapi.models.projections.RetentionCandidateProjection;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Latency budgets of the repository queries behind the listing, facets, versioning and retention, called
+ * directly so that no cache hides them. The budgets are about three times the 95th percentile measured with
+ * the default dataset of a million documents; they catch plans that stop using an index or scan much more
+ * than before, not small regressions. The listings, facets and retention scan the whole table by design.
+ */
+@PerformanceTest
+public class DocumentQueryPerformanceTests {
+    private static final Logger log = LoggerFactory.getLogger(DocumentQueryPerformanceTests.class);
+    private static final int WARMUPS = 3;
+    private static final int ITERATIONS = 20;
+    private static final List<Phase> ALL_PHASES = List.of(Phase.values());
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private PerformanceDataset dataset;
+
+    @Value("${perf.budget-scale:1.0}")
+    private double budgetScale;
+
+    @Test
+    void assertTheFilteredListingIsWithinBudget() {
+        // Arrange: The first page, newest first, of a title that matches many acronyms, with and without an acronym.
+        var page = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "id"));
+        var acronym = SearchNormalizer.normalize(dataset.summary().hottestAcronym());
+
+        // Act: Measure both searches.
+        var byTitle = measure("findAllWithFilters(title)", () -> documentRepository.findAllWithFilters("manutencao", "", "", ALL_PHASES, page));
+        var byAcronym = measure("findAllWithFilters(acronym)", () -> documentRepository.findAllWithFilters("", acronym, "", ALL_PHASES, page));
+
+        // Assert: Verify the searches find documents in time.
+        assertFalse(documentRepository.findAllWithFilters("manutencao", "", "", ALL_PHASES, page).isEmpty());
+        byTitle.assertP95Within(Duration.ofMillis(2000), budgetScale);
+        byAcronym.assertP95Within(Duration.ofMillis(600), budgetScale);
+    }
+
+    @Test
+    void assertTheGroupedListingIsWithinBudget() {
+        // Arrange: The first and a deep page of the acronyms.
+        var first = PageRequest.of(0, 10);
+        var deep = PageRequest.of(dataset.summary().acronyms() / 20, 10);
+
+        // Act: Measure both pages.
+        var firstPage = measure("findAllGroupedByAcronym(first)", () -> documentRepository.findAllGroupedByAcronym(first));
+        var deepPage = measure("findAllGroupedByAcronym(deep)", () -> documentRepository.findAllGroupedByAcronym(deep));
+
+        // Assert: Verify both pages come back full and in time.
+        assertEquals(10, documentRepository.findAllGroupedByAcronym(deep).getNumberOfElements());
+        firstPage.assertP95Within(Duration.ofMillis(7000), budgetScale);
+        deepPage.assertP95Within(Duration.ofMillis(10000), budgetScale);
+    }
+
+    @Test
+    void assertTheFacetsAreWithinBudget() {
+        // Act: Measure the facets of the whole table and of a title search.
+        var all = measure("findFacetsWithFilters", () -> documentRepository.findFacetsWithFilters("", "", 10));
+        var byTitle = measure("findFacetsWithFilters(title)", () -> documentRepository.findFacetsWithFilters("inspecao", "", 10));
+
+        // Assert: Verify both are computed in time.
+        assertFalse(documentRepository.findFacetsWithFilters("", "", 10).isEmpty());
+        all.assertP95Within(Duration.ofMillis(6000), budgetScale);
+        byTitle.assertP95Within(Duration.ofMillis(3000), budgetScale);
+    }
+
+    @Test
+    void assertTheVersionLookupsOfTheDeepestAcronymAreWithinBudget() {
+        // Arrange: The acronym with the most versions.
+        var acronym = dataset.summary().hottestAcronym();
+        var depth = dataset.summary().hottestDepth();
+
+        // Act: Measure the checks made on every new version.
+        var exists = measure("existsByAcronymAndVersion", () -> documentRepository.existsByAcronymAndVersion(acronym, depth + 1));
+        var summary = measure("findAcronymSummary", () -> documentRepository.findAcronymSummary(acronym));
+
+        // Assert: Verify they see every version in time.
+        assertTrue(documentRepository.existsByAcronymAndVersion(acronym, depth));
+        assertEquals(depth, documentRepository.findAcronymSummary(acronym).orElseThrow().quantity());
+        exists.assertP95Within(Duration.ofMillis(100), budgetScale);
+        summary.assertP95Within(Duration.ofMillis(300), budgetScale);
+    }
+
+    @Test
+    void assertARetentionBatchIsFoundWithinBudget() {
+        // Act: Measure the search of the first batch of the retention job, acronyms first.
+        var batch = measure("findObsoleteBeyondRetention", () -> findFirstRetentionBatch(10, 500));
+
+        // Assert: Verify a full batch is found in time.
+        assertEquals(500, findFirstRetentionBatch(10, 500).size());
+        batch.assertP95Within(Duration.ofMillis(6000), budgetScale);
+    }
+
+    private List<RetentionCandidateProjection> findFirstRetentionBatch(int keep, int batchSize) {
+        var acronyms = documentRepository.findObsoleteAcronymsFrom("", true, batchSize);
+        return documentRepository.findObsoleteBeyondRetention(acronyms.toArray(String[]::new), keep, batchSize);
+    }
+
+    private LatencySample measure(String name, Runnable call) {
+        var sample = LatencySample.measure(name, WARMUPS, ITERATIONS, call);
+        log.info("{}", sample);
+        return sample;
+    }
+}
@@ -0,0 +1,86 @@
+package com.app.maxdocapi.performance;
+
+import com.app.maxdocapi.common.ResponseResult;
+import com.app.maxdocapi.common.ResponseResultJsonWriter;
+import com.app.maxdocapi.common.ResultPageDto;
+import com.app.maxdocapi.database.repositories.DocumentRepository;
+import com.app.maxdocapi.enums.Phase;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures the heap allocated per document when a listing page is written by Jackson and by the
+ * {@link ResponseResultJsonWriter}, without the query: the same page is written over and over.
+ */
+@PerformanceTest
+public class EnvelopeSerializationPerformanceTests {
+    private static final Logger log = LoggerFactory.getLogger(EnvelopeSerializationPerformanceTests.class);
+    private static final int PAGE_SIZE = 100;
+    private static final int WARMUPS = 2_000;
+    private static final int ITERATIONS = 5_000;
+    // The writer must allocate at most this share of what Jackson allocates per document.
+    private static final double MAX_ALLOCATION_RATIO = 0.25;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private interface PageWrite {
+        void run() throws IOException;
+    }
+
+    @Test
+    void assertTheWriterAllocatesAFractionOfJacksonPerDocument() throws IOException {
+        // Arrange: A full listing page from the dataset, in its envelope.
+        var page = documentRepository.findAllWithFilters("", "", "", EnumSet.allOf(Phase.class), PageRequest.of(0, PAGE_SIZE, Sort.by("id")));
+        var result = ResponseResult.success(new ResultPageDto<>(page));
+        var writer = new ResponseResultJsonWriter(objectMapper.getFactory());
+        // Jackson closes the stream it writes to, which OutputStream.nullOutputStream() would then refuse.
+        var output = new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        };
+
+        // Act: Write the page with both.
+        var jacksonBytes = allocatedPerDocument(() -> objectMapper.writeValue(output, result));
+        var writerBytes = allocatedPerDocument(() -> writer.write(result, output));
+
+        // Assert: Verify the writer allocates a fraction of what Jackson does.
+        log.info("Allocated per document: Jackson {} bytes, writer {} bytes", jacksonBytes, writerBytes);
+        assertTrue(writerBytes <= jacksonBytes * MAX_ALLOCATION_RATIO,
+                String.format("The writer allocated %.1f bytes per document against %.1f with Jackson", writerBytes, jacksonBytes));
+    }
+
+    private double allocatedPerDocument(PageWrite write) throws IOException {
+        for (int i = 0; i < WARMUPS; i++) {
+            write.run();
+        }
+
+        var before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            write.run();
+        }
+        return (threads.getCurrentThreadAllocatedBytes() - before) / (double) ITERATIONS / PAGE_SIZE;
+    }
+}
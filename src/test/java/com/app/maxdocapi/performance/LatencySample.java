@@ -0,0 +1,58 @@
+package com.app.maxdocapi.performance;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The latencies of repeated calls, measured after a few warm-up calls.
+ */
+public final class LatencySample {
+    private final String name;
+    private final long[] nanos;
+
+    private LatencySample(String name, long[] nanos) {
+        this.name = name;
+        this.nanos = nanos;
+        Arrays.sort(this.nanos);
+    }
+
+    public static LatencySample measure(String name, int warmups, int iterations, Runnable call) {
+        for (int i = 0; i < warmups; i++) {
+            call.run();
+        }
+
+        var nanos = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            var start = System.nanoTime();
+            call.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        return new LatencySample(name, nanos);
+    }
+
+    /**
+     * @param percentile Between 0 and 100.
+     */
+    public Duration percentile(double percentile) {
+        var index = (int) Math.ceil(percentile / 100 * nanos.length) - 1;
+        return Duration.ofNanos(nanos[Math.max(0, Math.min(index, nanos.length - 1))]);
+    }
+
+    /**
+     * Fails unless the 95th percentile is within the budget, multiplied by the scale of slower machines.
+     */
+    public void assertP95Within(Duration budget, double budgetScale) {
+        var p95 = percentile(95);
+        var scaledBudget = Duration.ofNanos((long) (budget.toNanos() * budgetScale));
+        assertTrue(p95.compareTo(scaledBudget) <= 0, String.format("%s: p95 of %d ms is over the budget of %d ms",
+                name, p95.toMillis(), scaledBudget.toMillis()));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: p50 %.1f ms, p95 %.1f ms, max %.1f ms over %d calls",
+                name, percentile(50).toNanos() / 1e6, percentile(95).toNanos() / 1e6, nanos[nanos.length - 1] / 1e6, nanos.length);
+    }
+}
@@ -0,0 +1,36 @@
+package com.app.maxdocapi.performance;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * The dataset of the performance suites, generated once per application context when it starts.
+ * The suites can use it to pick their query arguments.
+ */
+public class PerformanceDataset {
+    private static final Logger log = LoggerFactory.getLogger(PerformanceDataset.class);
+
+    private final DatasetSpec spec;
+    private final DocumentDatasetGenerator.DatasetSummary summary;
+
+    public PerformanceDataset(DataSource dataSource, Environment environment) throws SQLException {
+        this.spec = Binder.get(environment).bindOrCreate("perf.dataset", DatasetSpec.class);
+        log.info("Generating the performance dataset {}", spec);
+        this.summary = new DocumentDatasetGenerator(spec).load(dataSource);
+        log.info("Loaded {} documents over {} acronyms in {} s; {} has {} versions",
+                summary.documents(), summary.acronyms(), summary.loadTime().toSeconds(), summary.hottestAcronym(), summary.hottestDepth());
+    }
+
+    public DatasetSpec spec() {
+        return spec;
+    }
+
+    public DocumentDatasetGenerator.DatasetSummary summary() {
+        return summary;
+    }
+}
@@ -0,0 +1,35 @@
+package com.app.maxdocapi.performance;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.Tag;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a performance suite. All suites share one application context, and with it one embedded Postgres
+ * seeded once with the {@link PerformanceDataset}, so they must not add any configuration of their own.
+ * <p>
+ * The suites are left out of the regular build; run them with {@code mvn test -Pperformance}, optionally with
+ * {@code -Dperf.dataset.documents=...} and the other {@link DatasetSpec} settings, or {@code -Dperf.budget-scale=2}
+ * on a slower machine.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Tag("performance")
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase
+@Import({PerformanceDataset.class, PooledDataSourceConfig.class})
+@TestPropertySource(properties = {
+        // The EXPLAIN ANALYZE of sampled slow calls would run inside the measured calls.
+        "app.slow-queries.enabled=false"
+})
+public @interface PerformanceTest {
+}
@@ -0,0 +1,105 @@
+package com.app.maxdocapi.performance;
+
+import com.app.maxdocapi.common.ResponseResult;
+import com.app.maxdocapi.database.repositories.DocumentRepository;
+import com.app.maxdocapi.models.dtos.DocumentListDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.IntToLongFunction;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares a document served the way open-session-in-view serves a managed entity with the read-only DTO path:
+ * the connection is held for the whole request, JSON serialization included, and the entity is loaded with its
+ * snapshot for dirty checking and a second query for its lazy description, against one short read-only
+ * transaction whose DTO is serialized after it ends.
+ */
+@PerformanceTest
+public class ReadPathPerformanceTests {
+    private static final Logger log = LoggerFactory.getLogger(ReadPathPerformanceTests.class);
+    private static final int WARMUPS = 20;
+    private static final int REQUESTS = 2000;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private PerformanceDataset dataset;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private record RequestCost(double connectionHoldMillis, double allocatedKilobytes) {
+    }
+
+    @Test
+    void assertTheReadOnlyDtoPathHoldsConnectionsShorterAndAllocatesLess() {
+        // Act: Serve the same documents through both paths; each returns how long it held the connection.
+        var entityPath = measure(request -> {
+            var start = System.nanoTime();
+            transactionTemplate.executeWithoutResult(status -> serialize(
+                    documentRepository.findById(idOf(request)).map(DocumentListDto::new).orElseThrow()));
+            return System.nanoTime() - start;
+        });
+        var readOnlyPath = measure(request -> {
+            var start = System.nanoTime();
+            var document = documentRepository.findProjectedById(idOf(request)).orElseThrow();
+            var held = System.nanoTime() - start;
+            serialize(document);
+            return held;
+        });
+
+        // Assert: Verify the read-only path is cheaper on both counts.
+        log.info("Entity path: {} ms connection hold, {} KB allocated per request", entityPath.connectionHoldMillis(), entityPath.allocatedKilobytes());
+        log.info("Read-only path: {} ms connection hold, {} KB allocated per request", readOnlyPath.connectionHoldMillis(), readOnlyPath.allocatedKilobytes());
+        assertTrue(readOnlyPath.connectionHoldMillis() < entityPath.connectionHoldMillis(), "The read-only path held connections longer");
+        assertTrue(readOnlyPath.allocatedKilobytes() < entityPath.allocatedKilobytes(), "The read-only path allocated more");
+    }
+
+    /**
+     * @param request Serves the request of the given number and returns how long it held the connection, in nanoseconds.
+     */
+    private RequestCost measure(IntToLongFunction request) {
+        for (int i = 0; i < WARMUPS; i++) {
+            request.applyAsLong(i);
+        }
+
+        long held = 0;
+        LongSupplier allocated = threads::getCurrentThreadAllocatedBytes;
+        var allocatedBefore = allocated.getAsLong();
+        for (int i = 0; i < REQUESTS; i++) {
+            held += request.applyAsLong(i);
+        }
+        var allocatedBytes = allocated.getAsLong() - allocatedBefore;
+        return new RequestCost(held / 1e6 / REQUESTS, allocatedBytes / 1024.0 / REQUESTS);
+    }
+
+    /**
+     * Spreads the requests over the dataset, which is loaded into an empty table, so its ids start at 1.
+     */
+    private long idOf(int request) {
+        return (request * 7919L) % dataset.summary().documents() + 1;
+    }
+
+    private void serialize(DocumentListDto document) {
+        try {
+            objectMapper.writeValueAsBytes(ResponseResult.success(document));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
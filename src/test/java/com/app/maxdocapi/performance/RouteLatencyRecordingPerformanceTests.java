@@ -0,0 +1,98 @@
+package com.app.maxdocapi.performance;
+
+import com.app.maxdocapi.Routes;
+import com.app.maxdocapi.services.RouteLatencyService;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures what the {@link RouteLatencyService} adds to a request: one recording, including the lookup of the
+ * route, from one thread and from several threads recording the same route at once. With several threads the
+ * cost is the elapsed time divided by all their recordings, so it also holds on a machine with fewer cores.
+ */
+@PerformanceTest
+public class RouteLatencyRecordingPerformanceTests {
+    private static final Logger log = LoggerFactory.getLogger(RouteLatencyRecordingPerformanceTests.class);
+    private static final int WARMUPS = 1_000_000;
+    private static final int RECORDINGS = 5_000_000;
+    private static final int THREADS = 4;
+    private static final double BUDGET_NANOS = 250;
+
+    @Autowired
+    private RouteLatencyService routeLatencyService;
+
+    @Value("${perf.budget-scale:1.0}")
+    private double budgetScale;
+
+    @Test
+    void assertRecordingTakesAFractionOfAMicrosecond() throws Exception {
+        // Act: Record from one thread, then from several at once.
+        var singleThread = nanosPerRecording();
+        var concurrent = concurrentNanosPerRecording();
+
+        // Assert: Verify both stay within the budget.
+        log.info("Recording: {} ns from one thread, {} ns from {} threads", singleThread, concurrent, THREADS);
+        assertTrue(singleThread <= BUDGET_NANOS * budgetScale, String.format("A recording took %.1f ns", singleThread));
+        assertTrue(concurrent <= BUDGET_NANOS * budgetScale, String.format("A concurrent recording took %.1f ns", concurrent));
+    }
+
+    private double nanosPerRecording() {
+        for (int i = 0; i < WARMUPS; i++) {
+            record(i);
+        }
+
+        var start = System.nanoTime();
+        recordAll();
+        return (System.nanoTime() - start) / (double) RECORDINGS;
+    }
+
+    private double concurrentNanosPerRecording() throws Exception {
+        var executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            var ready = new CountDownLatch(THREADS);
+            var go = new CountDownLatch(1);
+            var threads = new ArrayList<CompletableFuture<Void>>();
+            for (int t = 0; t < THREADS; t++) {
+                threads.add(CompletableFuture.runAsync(() -> {
+                    ready.countDown();
+                    try {
+                        go.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException(e);
+                    }
+                    recordAll();
+                }, executor));
+            }
+            ready.await();
+
+            var start = System.nanoTime();
+            go.countDown();
+            CompletableFuture.allOf(threads.toArray(CompletableFuture[]::new)).get();
+            return (System.nanoTime() - start) / (double) (RECORDINGS * THREADS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void recordAll() {
+        for (int i = 0; i < RECORDINGS; i++) {
+            record(i);
+        }
+    }
+
+    private void record(int i) {
+        // Latencies spread from 0.1 ms to about 100 ms, so many buckets are written.
+        routeLatencyService.record("GET", Routes.Documents.ById.path, 200, 0, 100_000L + (i & 1023) * 100_000L);
+    }
+}
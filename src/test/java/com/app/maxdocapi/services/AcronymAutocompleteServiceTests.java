@@ -0,0 +1,71 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.exceptions.errors.BadRequestException;
+import com.app.maxdocapi.models.dtos.DocumentCreateDto;
+import com.app.maxdocapi.models.records.AcronymSuggestionDto;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import io.zonky.test.db.util.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase
+public class AcronymAutocompleteServiceTests {
+    @Autowired
+    private AcronymAutocompleteService acronymAutocompleteService;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Test
+    void assertWritesRefreshCountsAndActiveVersion() {
+        // Arrange: Save a DRAFT document under a random acronym.
+        var randomAcronym = "Ác" + RandomStringUtils.randomAlphabetic(10);
+        var draft = documentService.save(new DocumentCreateDto(null, "Título", "Descrição", randomAcronym, 1));
+
+        // Assert: Verify the acronym is suggested by a prefix without accents or case, with no ACTIVE version yet.
+        assertEquals(List.of(new AcronymSuggestionDto(randomAcronym, 1, null)), acronymAutocompleteService.suggest(randomAcronym.substring(0, 6).replace('Á', 'a'), 10));
+
+        // Act: Submit it and generate a new version.
+        documentService.submit(draft.getId());
+        var secondDraft = documentService.generateVersion(draft.getId());
+
+        // Assert: Verify the count and the ACTIVE version follow the writes.
+        assertEquals(List.of(new AcronymSuggestionDto(randomAcronym, 2, 1)), acronymAutocompleteService.suggest(randomAcronym, 10));
+
+        // Act & Assert: Verify submitting the new version moves the ACTIVE version.
+        documentService.submit(secondDraft.getId());
+        assertEquals(List.of(new AcronymSuggestionDto(randomAcronym, 2, 2)), acronymAutocompleteService.suggest(randomAcronym, 10));
+    }
+
+    @Test
+    void assertLimitIsValidated() {
+        // Act & Assert: Verify out-of-range limits are rejected.
+        assertThrows(BadRequestException.class, () -> acronymAutocompleteService.suggest("a", 0));
+        assertThrows(BadRequestException.class, () -> acronymAutocompleteService.suggest("a", AcronymAutocompleteService.MAX_SUGGESTIONS + 1));
+    }
+
+    @Test
+    void assertDirectoryMergesNewAcronymsInOrder() {
+        // Arrange: A directory of two acronyms that merges new ones once two are waiting.
+        var directory = AcronymDirectory.of(List.of(new AcronymSuggestionDto("ABC", 1, 1), new AcronymSuggestionDto("ABD", 2, null)), 2);
+
+        // Act: Add an acronym, add another one that triggers the merge, then remove one.
+        directory.put(new AcronymSuggestionDto("ABA", 1, null));
+        var beforeMerge = directory.search("ab", 10);
+        directory.put(new AcronymSuggestionDto("ABE", 3, 2));
+        directory.put(new AcronymSuggestionDto("ABD", 0, null));
+
+        // Assert: Verify the lookups list the matching acronyms in order, before and after the merge.
+        assertEquals(List.of("ABA", "ABC", "ABD"), beforeMerge.stream().map(AcronymSuggestionDto::acronym).toList());
+        assertEquals(List.of(new AcronymSuggestionDto("ABA", 1, null), new AcronymSuggestionDto("ABC", 1, 1), new AcronymSuggestionDto("ABE", 3, 2)),
+                directory.search("ab", 10));
+        assertEquals(List.of(new AcronymSuggestionDto("ABA", 1, null)), directory.search("ab", 1));
+    }
+}
@@ -0,0 +1,124 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.database.entities.Document;
+import com.app.maxdocapi.database.repositories.DocumentRepository;
+import com.app.maxdocapi.enums.Phase;
+import com.app.maxdocapi.models.dtos.DocumentListDto;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import io.zonky.test.db.util.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase
+public class AcronymLockServiceTests {
+    private static final int THREADS = 8;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private AcronymLockService acronymLockService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void assertConcurrentVersionsOfOneAcronymAreSequential() throws Exception {
+        // Arrange: Save an ACTIVE document with a random acronym.
+        var randomAcronym = RandomStringUtils.randomAlphabetic(8);
+        var activeDocument = documentRepository.save(DocumentServiceTests.getRandomDocument(1, Phase.ACTIVE, randomAcronym));
+
+        // Act: Generate many versions of it at the same time.
+        List<Callable<DocumentListDto>> tasks = IntStream.range(0, THREADS * 4)
+                .<Callable<DocumentListDto>>mapToObj(i -> () -> documentService.generateVersion(activeDocument.getId()))
+                .toList();
+        runAll(tasks);
+
+        // Assert: Verify every write saw the previous one, so no version was taken twice.
+        var versions = documentRepository.findAllByAcronym(randomAcronym).stream()
+                .map(Document::getVersion)
+                .sorted()
+                .toList();
+        assertEquals(IntStream.rangeClosed(1, THREADS * 4 + 1).boxed().toList(), versions);
+    }
+
+    @Test
+    void assertDifferentAcronymsDoNotContend() throws Exception {
+        // Arrange: A transaction holding the lock of an acronym until it is told to finish.
+        var heldAcronym = RandomStringUtils.randomAlphabetic(8);
+        var otherAcronym = RandomStringUtils.randomAlphabetic(8);
+        while (acronymLockService.stripeIndex(otherAcronym) == acronymLockService.stripeIndex(heldAcronym)) {
+            otherAcronym = RandomStringUtils.randomAlphabetic(8);
+        }
+        var locked = new CountDownLatch(1);
+        var finish = new CountDownLatch(1);
+        var lockedAcronym = otherAcronym;
+
+        try (var executor = Executors.newFixedThreadPool(3)) {
+            var holder = executor.submit(() -> transactionTemplate.execute(status -> {
+                acronymLockService.lock(heldAcronym);
+                locked.countDown();
+                await(finish);
+                return null;
+            }));
+            assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+            // Act: Lock another acronym and the held one while the lock is held.
+            var other = executor.submit(() -> transactionTemplate.execute(status -> {
+                acronymLockService.lock(lockedAcronym);
+                return null;
+            }));
+            var same = executor.submit(() -> transactionTemplate.execute(status -> {
+                acronymLockService.lock(heldAcronym);
+                return null;
+            }));
+
+            // Assert: Verify the other acronym was locked right away while the held one waited for its release.
+            other.get(10, TimeUnit.SECONDS);
+            assertThrows(TimeoutException.class, () -> same.get(200, TimeUnit.MILLISECONDS));
+            finish.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+            same.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void assertLockRequiresTransaction() {
+        // Act & Assert: Verify a lock taken outside a transaction is rejected instead of being held forever.
+        assertThrows(IllegalStateException.class, () -> acronymLockService.lock("ABC"));
+    }
+
+    private static <T> void runAll(List<Callable<T>> tasks) throws Exception {
+        try (var executor = Executors.newFixedThreadPool(THREADS)) {
+            for (var future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
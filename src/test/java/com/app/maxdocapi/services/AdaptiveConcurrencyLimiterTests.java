@@ -0,0 +1,89 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.common.AdaptiveConcurrencyLimiter;
+import com.app.maxdocapi.common.AdaptiveConcurrencyLimiter.Admission;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AdaptiveConcurrencyLimiterTests {
+    private static final long FAST = Duration.ofMillis(1).toNanos();
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    @Test
+    void assertLimitGrowsByOneOnlyWhenReachedWithinTheTarget() throws InterruptedException {
+        // Arrange: A limit of two without a queue.
+        var limiter = new AdaptiveConcurrencyLimiter(2, 1, 5, 0, Duration.ZERO, Duration.ofMillis(100));
+
+        // Act: Fill a window of fast work without ever reaching the limit.
+        for (int i = 0; i < 2; i++) {
+            assertEquals(Admission.ACQUIRED, limiter.acquire());
+            limiter.release(FAST);
+        }
+
+        // Assert: Verify the limit stayed.
+        assertEquals(2, limiter.getLimit());
+
+        // Act: Fill a window of fast work that reached the limit.
+        assertEquals(Admission.ACQUIRED, limiter.acquire());
+        assertEquals(Admission.ACQUIRED, limiter.acquire());
+        assertEquals(Admission.QUEUE_FULL, limiter.acquire());
+        limiter.release(FAST);
+        limiter.release(FAST);
+
+        // Assert: Verify the limit grew by one.
+        assertEquals(3, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void assertLimitShrinksByATenthDownToTheMinimumWhenOverTheTarget() throws InterruptedException {
+        // Arrange: A limit of ten with a minimum of eight.
+        var limiter = new AdaptiveConcurrencyLimiter(10, 8, 20, 0, Duration.ZERO, Duration.ofMillis(100));
+
+        // Act & Assert: Verify each window of slow work lowers the limit by a tenth, but not below the minimum.
+        for (var expected : new int[]{9, 8, 8}) {
+            var window = limiter.getLimit();
+            for (int i = 0; i < window; i++) {
+                assertEquals(Admission.ACQUIRED, limiter.acquire());
+            }
+            for (int i = 0; i < window; i++) {
+                limiter.release(SLOW);
+            }
+            assertEquals(expected, limiter.getLimit());
+        }
+    }
+
+    @Test
+    void assertQueuedRequestsWaitForASlotOrTimeOut() throws Exception {
+        // Arrange: A single slot, taken, with room for one waiting request.
+        var limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 1, Duration.ofMillis(50), Duration.ofSeconds(1));
+        assertEquals(Admission.ACQUIRED, limiter.acquire());
+
+        // Act & Assert: Verify a request waiting longer than the maximum wait is rejected.
+        assertEquals(Admission.TIMED_OUT, limiter.acquire());
+
+        // Arrange: The same, waiting up to ten seconds.
+        var patient = new AdaptiveConcurrencyLimiter(1, 1, 1, 1, Duration.ofSeconds(10), Duration.ofSeconds(1));
+        assertEquals(Admission.ACQUIRED, patient.acquire());
+
+        try (var executor = Executors.newSingleThreadExecutor()) {
+            // Act: Queue a request, reject one more, then free the slot.
+            var queued = executor.submit(patient::acquire);
+            while (patient.getWaiting() == 0) {
+                Thread.sleep(1);
+            }
+            var rejected = patient.acquire();
+            patient.release(FAST);
+
+            // Assert: Verify the queue was full for the extra request and the queued one got the slot.
+            assertEquals(Admission.QUEUE_FULL, rejected);
+            assertEquals(Admission.ACQUIRED, queued.get(10, TimeUnit.SECONDS));
+            assertEquals(1, patient.getInFlight());
+        }
+    }
+}
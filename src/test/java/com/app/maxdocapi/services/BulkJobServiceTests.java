@@ -0,0 +1,165 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.database.entities.BulkJob;
+import com.app.maxdocapi.database.entities.Document;
+import com.app.maxdocapi.database.repositories.BulkJobRepository;
+import com.app.maxdocapi.database.repositories.DocumentRepository;
+import com.app.maxdocapi.enums.BulkJobStatus;
+import com.app.maxdocapi.enums.BulkJobType;
+import com.app.maxdocapi.enums.Phase;
+import com.app.maxdocapi.models.dtos.DocumentCreateDto;
+import com.app.maxdocapi.models.dtos.DocumentListDto;
+import com.app.maxdocapi.models.records.BulkJobDto;
+import com.app.maxdocapi.models.records.BulkJobRequestDto;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import io.zonky.test.db.util.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase
+@TestPropertySource(properties = {
+        "app.jobs.chunk-size=2",
+        "app.jobs.poll-interval-ms=3600000"
+})
+public class BulkJobServiceTests {
+    @Autowired
+    private BulkJobService bulkJobService;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private BulkJobRepository bulkJobRepository;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void assertJobAppliesEveryItemAndRecordsTheFailedOnes() throws InterruptedException {
+        // Arrange: Three ACTIVE documents and a DRAFT one, which cannot generate a version.
+        var first = submitted();
+        var draft = documentService.save(new DocumentCreateDto(null, "Título", "Descrição", RandomStringUtils.randomAlphabetic(10), 1));
+        var second = submitted();
+        var third = submitted();
+
+        // Act: Generate a version of all four, in chunks of two.
+        var queued = bulkJobService.submit(new BulkJobRequestDto(BulkJobType.GENERATE_VERSION,
+                List.of(first.getId(), draft.getId(), second.getId(), third.getId()), null));
+        var job = awaitFinished(queued.id());
+
+        // Assert: Verify the ACTIVE documents got a new version and the DRAFT one was recorded as failed.
+        assertEquals(BulkJobStatus.COMPLETED, job.status());
+        assertEquals(3, job.processed());
+        assertEquals(1, job.failed());
+        assertEquals(0, job.remaining());
+        assertEquals(1, job.errors().size());
+        assertEquals(1, job.errors().get(0).position());
+        for (var document : List.of(first, second, third)) {
+            assertEquals(List.of(1, 2), versionsOf(document.getAcronym()));
+        }
+        assertEquals(List.of(1), versionsOf(draft.getAcronym()));
+    }
+
+    @Test
+    void assertAbandonedJobIsResumedFromItsPosition() throws InterruptedException {
+        // Arrange: A running job whose node stopped after the first item and let the lease expire.
+        var documents = List.of(draft(), draft(), draft());
+        var ids = documents.stream().map(DocumentListDto::getId).toList();
+        var job = bulkJobRepository.save(new BulkJob(BulkJobType.SUBMIT, ids.toString(), ids.size()));
+        jdbcTemplate.update("""
+                UPDATE bulk_jobs
+                SET status = 'RUNNING', position = 1, processed = 1, owner = 'gone', lease_expires_at = now() - interval '1 minute'
+                WHERE id = ?
+                """, job.getId());
+
+        // Act: Poll for jobs to run.
+        bulkJobService.dispatch();
+        var resumed = awaitFinished(job.getId());
+
+        // Assert: Verify only the items after the position were applied.
+        assertEquals(BulkJobStatus.COMPLETED, resumed.status());
+        assertEquals(3, resumed.processed());
+        assertEquals(Phase.DRAFT, documentService.findById(ids.get(0)).getPhase());
+        assertEquals(Phase.ACTIVE, documentService.findById(ids.get(1)).getPhase());
+        assertEquals(Phase.ACTIVE, documentService.findById(ids.get(2)).getPhase());
+    }
+
+    @Test
+    void assertQueuedJobIsCancelledBeforeItRuns() {
+        // Arrange: A job waiting for a worker.
+        var document = draft();
+        var job = bulkJobRepository.save(new BulkJob(BulkJobType.SUBMIT, List.of(document.getId()).toString(), 1));
+
+        // Act: Cancel it, then poll for jobs to run.
+        var cancelled = bulkJobService.cancel(job.getId());
+        bulkJobService.dispatch();
+
+        // Assert: Verify the job was cancelled right away and never applied.
+        assertEquals(BulkJobStatus.CANCELLED, cancelled.status());
+        assertEquals(BulkJobStatus.CANCELLED, bulkJobService.findById(job.getId()).status());
+        assertEquals(Phase.DRAFT, documentService.findById(document.getId()).getPhase());
+    }
+
+    @Test
+    void assertJobTakenOverByAnotherNodeIsNotAppliedTwice() throws InterruptedException {
+        // Arrange: A job over many DRAFT documents that this node is running.
+        var ids = new ArrayList<Long>();
+        for (int i = 0; i < 100; i++) {
+            ids.add(draft().getId());
+        }
+        var queued = bulkJobService.submit(new BulkJobRequestDto(BulkJobType.SUBMIT, ids, null));
+        while (bulkJobService.findById(queued.id()).processed() == 0) {
+            Thread.sleep(5);
+        }
+
+        // Act: Another node takes the job over while it runs.
+        var processedAtTakeOver = jdbcTemplate.queryForObject(
+                "UPDATE bulk_jobs SET owner = 'other', lease_expires_at = now() + interval '1 minute' WHERE id = ? RETURNING processed",
+                Integer.class, queued.id());
+        Thread.sleep(1000);
+
+        // Assert: Verify the worker stopped without recording progress or applying items past the take over.
+        var job = bulkJobService.findById(queued.id());
+        assertEquals(BulkJobStatus.RUNNING, job.status());
+        assertEquals(processedAtTakeOver, job.processed());
+        assertTrue(job.processed() < ids.size());
+        var submitted = ids.stream().filter(id -> documentService.findById(id).getPhase() == Phase.ACTIVE).count();
+        assertEquals(processedAtTakeOver.longValue(), submitted);
+    }
+
+    private BulkJobDto awaitFinished(Long jobId) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            var job = bulkJobService.findById(jobId);
+            if (job.status().isFinished()) return job;
+            Thread.sleep(100);
+        }
+        var job = bulkJobService.findById(jobId);
+        assertTrue(job.status().isFinished(), "job " + jobId + " is still " + job.status());
+        return job;
+    }
+
+    private DocumentListDto draft() {
+        return documentService.save(new DocumentCreateDto(null, "Título", "Descrição", RandomStringUtils.randomAlphabetic(10), 1));
+    }
+
+    private DocumentListDto submitted() {
+        return documentService.submit(draft().getId());
+    }
+
+    private List<Integer> versionsOf(String acronym) {
+        return documentRepository.findAllByAcronym(acronym).stream().map(Document::getVersion).sorted().toList();
+    }
+}
@@ -0,0 +1,170 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.MaxDocApiApplication;
+import com.app.maxdocapi.config.CacheInvalidationProperties;
+import com.app.maxdocapi.database.repositories.DocumentRepository;
+import com.app.maxdocapi.database.sharding.ShardRouter;
+import com.app.maxdocapi.enums.DocumentEventType;
+import com.app.maxdocapi.enums.Phase;
+import com.app.maxdocapi.models.records.AcronymSuggestionDto;
+import com.app.maxdocapi.models.records.DocumentChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import io.zonky.test.db.util.RandomStringUtils;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Runs a second app node, in its own application context, against the embedded database of this one.
+ */
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ClusterCacheInvalidationBusTests {
+    private static final long TIMEOUT_MILLIS = 15_000;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    private ConfigurableApplicationContext otherNode;
+
+    @BeforeAll
+    void startOtherNode() {
+        var url = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getURL());
+        var username = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getUserName());
+        otherNode = new SpringApplicationBuilder(MaxDocApiApplication.class)
+                .web(WebApplicationType.NONE)
+                // As arguments, because default properties would lose to application.properties.
+                .run("--spring.datasource.url=" + url,
+                        "--spring.datasource.username=" + username,
+                        "--spring.datasource.password=",
+                        "--app.notifications.reconnect-delay-ms=100");
+    }
+
+    @AfterAll
+    void stopOtherNode() {
+        otherNode.close();
+    }
+
+    @Test
+    void assertWritesOnOneNodeRefreshTheCachesOfTheOther() {
+        // Arrange: An ACTIVE and a DRAFT version, with the DRAFT one cached on the other node.
+        var otherDocumentService = otherNode.getBean(DocumentService.class);
+        var otherAutocomplete = otherNode.getBean(AcronymAutocompleteService.class);
+        var randomAcronym = RandomStringUtils.randomAlphabetic(10);
+        documentRepository.save(DocumentServiceTests.getRandomDocument(1, Phase.ACTIVE, randomAcronym));
+        var draftDocument = documentRepository.save(DocumentServiceTests.getRandomDocument(2, Phase.DRAFT, randomAcronym));
+        assertEquals(Phase.DRAFT, otherDocumentService.findById(draftDocument.getId()).getPhase());
+
+        // Act: Submit the DRAFT version on this node.
+        documentService.submit(draftDocument.getId());
+
+        // Assert: Verify the other node serves the new phase and the new ACTIVE version of the acronym.
+        await(() -> otherDocumentService.findById(draftDocument.getId()).getPhase() == Phase.ACTIVE);
+        await(() -> otherAutocomplete.suggest(randomAcronym, 1).equals(List.of(new AcronymSuggestionDto(randomAcronym, 2, 2))));
+    }
+
+    @Test
+    void assertANodeReloadsItsCachesWhenItsListenerReconnects() {
+        // Arrange: A document cached on the other node, then changed without it being told.
+        var otherDocumentService = otherNode.getBean(DocumentService.class);
+        var document = documentRepository.save(DocumentServiceTests.getRandomDocument(1, Phase.DRAFT, null));
+        otherDocumentService.findById(document.getId());
+        var newTitle = RandomStringUtils.randomAlphabetic(12);
+        jdbcTemplate.update("UPDATE documents SET title = ? WHERE id = ?", newTitle, document.getId());
+
+        // Act: Drop the listening connections, as a network failure would.
+        var terminated = jdbcTemplate.queryForList(
+                "SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE query LIKE 'LISTEN %' AND pid <> pg_backend_pid()",
+                Boolean.class);
+
+        // Assert: Verify the other node emptied its cache once it listened again.
+        assertTrue(terminated.contains(true));
+        await(() -> newTitle.equals(otherDocumentService.findById(document.getId()).getTitle()));
+    }
+
+    @Test
+    void assertInvalidationsAreSentAgainWhenTheNotifyFails() {
+        // Arrange: A document cached on the other node, then changed, and a bus whose first NOTIFY fails.
+        var otherDocumentService = otherNode.getBean(DocumentService.class);
+        var document = documentRepository.save(DocumentServiceTests.getRandomDocument(1, Phase.DRAFT, null));
+        otherDocumentService.findById(document.getId());
+        var newTitle = RandomStringUtils.randomAlphabetic(12);
+        jdbcTemplate.update("UPDATE documents SET title = ? WHERE id = ?", newTitle, document.getId());
+
+        var failNotify = new AtomicBoolean(true);
+        var failingJdbcTemplate = new JdbcTemplate(Objects.requireNonNull(jdbcTemplate.getDataSource())) {
+            @Override
+            public <T> T queryForObject(String sql, Class<T> requiredType, Object... args) {
+                if (failNotify.getAndSet(false)) throw new DataAccessResourceFailureException("Connection reset");
+                return super.queryForObject(sql, requiredType, args);
+            }
+        };
+        var meterRegistry = new SimpleMeterRegistry();
+        var bus = new ClusterCacheInvalidationBus(
+                applicationContext.getBean(CacheInvalidationProperties.class),
+                failingJdbcTemplate,
+                applicationContext.getBean(ShardRouter.class),
+                applicationContext.getBean(ObjectMapper.class),
+                applicationContext.getBean(PlatformTransactionManager.class),
+                applicationContext.getBean(PostgresNotificationListener.class),
+                applicationContext.getBean(DocumentCacheInvalidator.class),
+                applicationContext.getBean(DocumentTypeaheadService.class),
+                applicationContext.getBean(AcronymAutocompleteService.class),
+                meterRegistry);
+        bus.onDocumentChanged(new DocumentChangedEvent(DocumentEventType.EDITED, document.getId(), document.getAcronym(), 1, Phase.DRAFT));
+
+        // Act: Flush twice, the first time failing.
+        bus.publish();
+        bus.publish();
+
+        // Assert: Verify the batch was kept after the failure, sent by the next flush and applied by the other node.
+        assertEquals(1, meterRegistry.get(ClusterCacheInvalidationBus.METRIC_NAME).tag("outcome", "failed").counter().count());
+        assertEquals(1, meterRegistry.get(ClusterCacheInvalidationBus.METRIC_NAME).tag("outcome", "sent").counter().count());
+        await(() -> newTitle.equals(otherDocumentService.findById(document.getId()).getTitle()));
+    }
+
+    private static void await(BooleanSupplier condition) {
+        var deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) fail("Timed out waiting for the other node");
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.database.repositories.DocumentRepository;
+import com.app.maxdocapi.enums.Phase;
+import com.app.maxdocapi.models.records.DocumentEditInfoDto;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import io.zonky.test.db.util.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase
+public class DocumentCacheInvalidatorTests {
+    @Autowired
+    private DocumentCacheInvalidator documentCacheInvalidator;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Test
+    void assertReadsLoadedBeforeAWriteCommitsAreNotCached() {
+        // Arrange: A DRAFT document, and a read that loads it the way findById does.
+        var document = documentRepository.save(DocumentServiceTests.getRandomDocument(1, Phase.DRAFT, null));
+        var generation = documentCacheInvalidator.generationOf(document.getId());
+        var loaded = documentRepository.findProjectedById(document.getId()).orElseThrow();
+
+        // Act: Commit a write before the read puts what it loaded into the cache.
+        var newTitle = RandomStringUtils.randomAlphabetic(10);
+        documentService.editInfo(document.getId(), new DocumentEditInfoDto(newTitle, "Descrição"));
+        var cached = documentCacheInvalidator.cacheIfCurrent(loaded, generation);
+
+        // Assert: Verify the old row was not cached, so the next read sees the write.
+        assertFalse(cached);
+        assertEquals(newTitle, documentService.findById(document.getId()).getTitle());
+    }
+
+    @Test
+    void assertEvictionsOnOtherNodesAndClearsDiscardLoadsInProgress() {
+        // Arrange: Two documents being loaded.
+        var first = documentRepository.save(DocumentServiceTests.getRandomDocument(1, Phase.DRAFT, null));
+        var second = documentRepository.save(DocumentServiceTests.getRandomDocument(1, Phase.DRAFT, null));
+        var firstGeneration = documentCacheInvalidator.generationOf(first.getId());
+        var secondGeneration = documentCacheInvalidator.generationOf(second.getId());
+        var firstLoaded = documentRepository.findProjectedById(first.getId()).orElseThrow();
+        var secondLoaded = documentRepository.findProjectedById(second.getId()).orElseThrow();
+
+        // Act & Assert: Verify a load with no eviction in between is cached.
+        assertTrue(documentCacheInvalidator.cacheIfCurrent(firstLoaded, firstGeneration));
+
+        // Act & Assert: Verify an eviction received from another node, or a clear, discards the loads started before it.
+        documentCacheInvalidator.evict(List.of(first.getId()));
+        assertFalse(documentCacheInvalidator.cacheIfCurrent(firstLoaded, firstGeneration));
+        documentCacheInvalidator.clear();
+        assertFalse(documentCacheInvalidator.cacheIfCurrent(secondLoaded, secondGeneration));
+    }
+}
@@ -0,0 +1,122 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.Routes;
+import com.app.maxdocapi.database.repositories.DocumentRepository;
+import com.app.maxdocapi.enums.Phase;
+import com.app.maxdocapi.models.records.DocumentChangeDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import io.zonky.test.db.util.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureEmbeddedDatabase
+public class DocumentChangeFeedServiceTests {
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private PostgresNotificationListener notificationListener;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void assertClientsResumeAfterABufferedEvent() throws Exception {
+        // Arrange: Two changes, received by the feed before this listener since it subscribed first.
+        BlockingQueue<DocumentChangeDto> received = new LinkedBlockingQueue<>();
+        notificationListener.subscribe(DocumentChangeNotifier.CHANNEL, payload -> received.add(readChange(payload)));
+        var randomAcronym = RandomStringUtils.randomAlphabetic(8);
+        documentRepository.save(DocumentServiceTests.getRandomDocument(1, Phase.ACTIVE, randomAcronym));
+        var draftDocument = documentRepository.save(DocumentServiceTests.getRandomDocument(2, Phase.DRAFT, randomAcronym));
+        documentService.submit(draftDocument.getId());
+        var changes = awaitChanges(received, randomAcronym, 2);
+
+        // Act: Reconnect after the first change.
+        var firstEvent = readFirstEvent(changes.get(0).eventId());
+
+        // Assert: Verify the feed replays the second change.
+        assertEquals(List.of("id:" + changes.get(1).eventId(), "event:SUBMITTED"), firstEvent.subList(0, 2));
+    }
+
+    @Test
+    void assertClientsAreToldToResyncWhenTheirEventIsNoLongerBuffered() throws Exception {
+        // Arrange: An event id the replay buffer does not hold.
+        var unknownEventId = -1L;
+
+        // Act: Reconnect after that event.
+        var firstEvent = readFirstEvent(unknownEventId);
+
+        // Assert: Verify the first event tells the client to reload instead of replaying changes by id.
+        assertEquals("event:" + DocumentChangeFeedService.RESET_EVENT, firstEvent.getFirst());
+    }
+
+    /**
+     * Opens the change feed with a Last-Event-ID and returns the lines of the first event, skipping heartbeats.
+     */
+    private List<String> readFirstEvent(long lastEventId) throws Exception {
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + Routes.Documents.Changes.path))
+                .header("Last-Event-ID", String.valueOf(lastEventId))
+                .GET()
+                .build();
+
+        return CompletableFuture.supplyAsync(() -> {
+            try (var lines = httpClient.send(request, HttpResponse.BodyHandlers.ofLines()).body()) {
+                var event = new ArrayList<String>();
+                for (var iterator = lines.iterator(); iterator.hasNext(); ) {
+                    var line = iterator.next();
+                    if (!line.isEmpty() && !line.startsWith(":")) event.add(line);
+                    else if (line.isEmpty() && !event.isEmpty()) return event;
+                }
+                return event;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }).get(10, TimeUnit.SECONDS);
+    }
+
+    private List<DocumentChangeDto> awaitChanges(BlockingQueue<DocumentChangeDto> received, String acronym, int expected) throws InterruptedException {
+        var changes = new ArrayList<DocumentChangeDto>();
+        while (changes.size() < expected) {
+            var change = received.poll(10, TimeUnit.SECONDS);
+            assertNotNull(change, "Timed out waiting for document changes");
+            if (acronym.equals(change.acronym())) changes.add(change);
+        }
+        return changes;
+    }
+
+    private DocumentChangeDto readChange(String payload) {
+        try {
+            return objectMapper.readValue(payload, DocumentChangeDto.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
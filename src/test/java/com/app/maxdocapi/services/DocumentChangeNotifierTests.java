@@ -0,0 +1,83 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.database.repositories.DocumentRepository;
+import com.app.maxdocapi.enums.DocumentEventType;
+import com.app.maxdocapi.enums.Phase;
+import com.app.maxdocapi.models.records.DocumentChangeDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import io.zonky.test.db.util.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase
+public class DocumentChangeNotifierTests {
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private PostgresNotificationListener notificationListener;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void assertSubmitIsNotifiedAfterCommit() throws InterruptedException {
+        // Arrange: Listen to the change channel like any other app node would.
+        BlockingQueue<DocumentChangeDto> received = new LinkedBlockingQueue<>();
+        notificationListener.subscribe(DocumentChangeNotifier.CHANNEL, payload -> received.add(readChange(payload)));
+
+        // Arrange: Save an ACTIVE document and a DRAFT document sharing a random acronym.
+        var randomAcronym = RandomStringUtils.randomAlphabetic(8);
+        var activeDocument = documentRepository.save(DocumentServiceTests.getRandomDocument(1, Phase.ACTIVE, randomAcronym));
+        var draftDocument = documentRepository.save(DocumentServiceTests.getRandomDocument(2, Phase.DRAFT, randomAcronym));
+
+        // Act: Submit the DRAFT document, which also obsoletes the ACTIVE one.
+        documentService.submit(draftDocument.getId());
+
+        // Assert: Verify both changes arrive through NOTIFY, with increasing event ids.
+        var changes = awaitChanges(received, randomAcronym, 2);
+        assertEquals(DocumentEventType.OBSOLETED, changes.get(0).type());
+        assertEquals(activeDocument.getId(), changes.get(0).documentId());
+        assertEquals(DocumentEventType.SUBMITTED, changes.get(1).type());
+        assertEquals(draftDocument.getId(), changes.get(1).documentId());
+        assertEquals(Phase.ACTIVE, changes.get(1).phase());
+        assertTrue(changes.get(0).eventId() < changes.get(1).eventId());
+    }
+
+    private List<DocumentChangeDto> awaitChanges(BlockingQueue<DocumentChangeDto> received, String acronym, int expected) throws InterruptedException {
+        var changes = new ArrayList<DocumentChangeDto>();
+        while (changes.size() < expected) {
+            var change = received.poll(10, TimeUnit.SECONDS);
+            assertNotNull(change, "Timed out waiting for document changes");
+            if (acronym.equals(change.acronym())) changes.add(change);
+        }
+        return changes;
+    }
+
+    private DocumentChangeDto readChange(String payload) {
+        try {
+            return objectMapper.readValue(payload, DocumentChangeDto.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.Routes;
+import com.app.maxdocapi.database.repositories.DocumentFileRepository;
+import com.app.maxdocapi.enums.Phase;
+import com.app.maxdocapi.exceptions.errors.BadRequestException;
+import com.app.maxdocapi.models.dtos.DocumentCreateDto;
+import com.app.maxdocapi.services.files.ContentAddressedFileStore;
+import com.app.maxdocapi.services.files.DocumentFileService;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import io.zonky.test.db.util.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureEmbeddedDatabase
+public class DocumentFileServiceTests {
+    private static final Path fileDirectory = createFileDirectory();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private DocumentFileRepository documentFileRepository;
+
+    @Autowired
+    private ContentAddressedFileStore fileStore;
+
+    @Autowired
+    private DocumentFileService documentFileService;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @DynamicPropertySource
+    static void fileProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.documents.files.directory", fileDirectory::toString);
+        registry.add("app.documents.files.max-size", () -> "1MB");
+    }
+
+    @Test
+    void assertGeneratedVersionsShareTheStoredContent() throws Exception {
+        // Arrange: A DRAFT document with a file uploaded as the raw request body.
+        var content = randomContent(300_000);
+        var draft = documentService.save(new DocumentCreateDto(null, "Título", "Descrição", RandomStringUtils.randomAlphabetic(10), 1));
+        var upload = send(HttpRequest.newBuilder(URI.create(fileUri(draft.getId()) + "?fileName=relat%C3%B3rio.pdf"))
+                .header("Content-Type", "application/pdf")
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(content)));
+        assertEquals(200, upload.statusCode());
+
+        // Act: Submit the document and generate a new version of it.
+        documentService.submit(draft.getId());
+        var newVersion = documentService.generateVersion(draft.getId());
+
+        // Assert: Verify the new version has the same file, stored once, and downloads it whole.
+        var original = documentFileRepository.findById(draft.getId()).orElseThrow();
+        var copy = documentFileRepository.findById(newVersion.getId()).orElseThrow();
+        assertEquals(original.getSha256(), copy.getSha256());
+        assertEquals("relatório.pdf", copy.getFileName());
+        assertEquals(content.length, Files.size(fileStore.pathOf(copy.getSha256())));
+        assertEquals(1, storedCopiesOf(copy.getSha256()));
+
+        var download = send(HttpRequest.newBuilder(URI.create(fileUri(newVersion.getId()))).GET());
+        assertEquals(200, download.statusCode());
+        assertEquals("\"" + copy.getSha256() + "\"", download.headers().firstValue("ETag").orElseThrow());
+        assertEquals("application/pdf", download.headers().firstValue("Content-Type").orElseThrow());
+        assertArrayEquals(content, download.body());
+
+        // Act: Upload the same content to the new version.
+        var reupload = send(HttpRequest.newBuilder(URI.create(fileUri(newVersion.getId())))
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(content)));
+
+        // Assert: Verify the content was not stored twice and only DRAFT versions take files.
+        assertEquals(200, reupload.statusCode());
+        assertEquals(copy.getSha256(), documentFileRepository.findById(newVersion.getId()).orElseThrow().getSha256());
+        assertEquals(1, storedCopiesOf(copy.getSha256()));
+        var rejected = send(HttpRequest.newBuilder(URI.create(fileUri(draft.getId())))
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(content)));
+        assertEquals(400, rejected.statusCode());
+    }
+
+    @Test
+    void assertRangesAndConditionalRequestsAreHonoured() throws Exception {
+        // Arrange: A document with a file.
+        var content = randomContent(100_000);
+        var draft = documentService.save(new DocumentCreateDto(null, "Título", "Descrição", RandomStringUtils.randomAlphabetic(10), 1));
+        send(HttpRequest.newBuilder(URI.create(fileUri(draft.getId()))).PUT(HttpRequest.BodyPublishers.ofByteArray(content)));
+        var uri = URI.create(fileUri(draft.getId()));
+        var etag = "\"" + documentFileRepository.findById(draft.getId()).orElseThrow().getSha256() + "\"";
+
+        // Act: Ask for a range, the last bytes, a range past the end, a range of another version and a cached copy.
+        var range = send(HttpRequest.newBuilder(uri).header("Range", "bytes=1000-1999").GET());
+        var suffix = send(HttpRequest.newBuilder(uri).header("Range", "bytes=-500").GET());
+        var unsatisfiable = send(HttpRequest.newBuilder(uri).header("Range", "bytes=200000-").GET());
+        var staleRange = send(HttpRequest.newBuilder(uri).header("Range", "bytes=0-9").header("If-Range", "\"stale\"").GET());
+        var notModified = send(HttpRequest.newBuilder(uri).header("If-None-Match", "\"stale\", " + etag).GET());
+
+        // Assert: Verify each response.
+        assertEquals(206, range.statusCode());
+        assertEquals("bytes 1000-1999/100000", range.headers().firstValue("Content-Range").orElseThrow());
+        assertArrayEquals(Arrays.copyOfRange(content, 1000, 2000), range.body());
+
+        assertEquals(206, suffix.statusCode());
+        assertArrayEquals(Arrays.copyOfRange(content, 99_500, 100_000), suffix.body());
+
+        assertEquals(416, unsatisfiable.statusCode());
+        assertEquals("bytes */100000", unsatisfiable.headers().firstValue("Content-Range").orElseThrow());
+
+        assertEquals(200, staleRange.statusCode());
+        assertArrayEquals(content, staleRange.body());
+
+        assertEquals(304, notModified.statusCode());
+        assertEquals(etag, notModified.headers().firstValue("ETag").orElseThrow());
+    }
+
+    @Test
+    void assertUploadsLargerThanTheMaximumAreRejected() throws Exception {
+        // Arrange: A DRAFT document.
+        var draft = documentService.save(new DocumentCreateDto(null, "Título", "Descrição", RandomStringUtils.randomAlphabetic(10), 1));
+
+        // Act: Upload more than the maximum size.
+        var response = send(HttpRequest.newBuilder(URI.create(fileUri(draft.getId())))
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(randomContent(2 * 1024 * 1024))));
+
+        // Assert: Verify the upload was rejected and nothing was left in the store.
+        assertEquals(400, response.statusCode());
+        assertTrue(documentFileRepository.findById(draft.getId()).isEmpty());
+        try (var files = Files.walk(fileDirectory)) {
+            assertTrue(files.filter(Files::isRegularFile).noneMatch(it -> it.toString().endsWith(".tmp")));
+        }
+    }
+
+    @Test
+    void assertUploadsRefusedUpFrontLeaveNoContentBehind() throws Exception {
+        // Arrange: Content never uploaded before and an ACTIVE document.
+        var content = randomContent(100_000);
+        var active = documentService.submit(documentService.save(new DocumentCreateDto(null, "Título", "Descrição", RandomStringUtils.randomAlphabetic(10), 1)).getId());
+
+        // Act: Upload it to a missing document and to the ACTIVE one.
+        var missing = send(HttpRequest.newBuilder(URI.create(fileUri(Long.MAX_VALUE))).PUT(HttpRequest.BodyPublishers.ofByteArray(content)));
+        var notDraft = send(HttpRequest.newBuilder(URI.create(fileUri(active.getId()))).PUT(HttpRequest.BodyPublishers.ofByteArray(content)));
+
+        // Assert: Verify both uploads were refused before the content was stored.
+        assertEquals(404, missing.statusCode());
+        assertEquals(400, notDraft.statusCode());
+        assertFalse(Files.exists(fileStore.pathOf(sha256(content))));
+    }
+
+    @Test
+    void assertContentOfALateRejectionStaysAvailableToOtherUploads() throws Exception {
+        // Arrange: Content never uploaded before and two DRAFT documents, the first submitted while its upload is read.
+        var content = randomContent(100_000);
+        var draft = documentService.save(new DocumentCreateDto(null, "Título", "Descrição", RandomStringUtils.randomAlphabetic(10), 1));
+        var other = documentService.save(new DocumentCreateDto(null, "Título", "Descrição", RandomStringUtils.randomAlphabetic(10), 1));
+        var submittedWhileUploading = new ByteArrayInputStream(content) {
+            @Override
+            public synchronized int read(byte[] buffer, int offset, int length) {
+                var read = super.read(buffer, offset, length);
+                if (read == -1 && documentService.findById(draft.getId()).getPhase() == Phase.DRAFT) documentService.submit(draft.getId());
+                return read;
+            }
+        };
+
+        // Act: Upload it to the first document, then to the other one.
+        assertThrows(BadRequestException.class, () -> documentFileService.upload(draft.getId(), null, null, submittedWhileUploading));
+        var upload = send(HttpRequest.newBuilder(URI.create(fileUri(other.getId()))).PUT(HttpRequest.BodyPublishers.ofByteArray(content)));
+
+        // Assert: Verify the rejected upload kept the content, so the other one shares it and downloads it whole.
+        assertEquals(200, upload.statusCode());
+        var download = send(HttpRequest.newBuilder(URI.create(fileUri(other.getId()))).GET());
+        assertEquals(200, download.statusCode());
+        assertArrayEquals(content, download.body());
+    }
+
+    @Test
+    void assertMissingContentIsReportedBeforeAnyHeader() throws Exception {
+        // Arrange: A document whose content is not in the store of this node, as if uploaded through another one.
+        var content = randomContent(10_000);
+        var draft = documentService.save(new DocumentCreateDto(null, "Título", "Descrição", RandomStringUtils.randomAlphabetic(10), 1));
+        send(HttpRequest.newBuilder(URI.create(fileUri(draft.getId()))).PUT(HttpRequest.BodyPublishers.ofByteArray(content)));
+        Files.delete(fileStore.pathOf(sha256(content)));
+
+        // Act: Download it.
+        var response = send(HttpRequest.newBuilder(URI.create(fileUri(draft.getId()))).GET());
+
+        // Assert: Verify the download failed as a whole instead of starting a truncated file.
+        assertEquals(503, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Disposition").isEmpty());
+    }
+
+    private String fileUri(Long id) {
+        return "http://localhost:" + port + Routes.Documents.ById.File.path.replace("{id}", id.toString());
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    /**
+     * Counts the files named after the hash rather than all the files, since the directory is shared by the tests.
+     */
+    private static long storedCopiesOf(String sha256) throws IOException {
+        try (var blobs = Files.walk(fileDirectory)) {
+            return blobs.filter(it -> it.getFileName().toString().equals(sha256)).count();
+        }
+    }
+
+    private static String sha256(byte[] content) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+
+    private static byte[] randomContent(int size) {
+        var content = new byte[size];
+        new Random().nextBytes(content);
+        return content;
+    }
+
+    private static Path createFileDirectory() {
+        try {
+            return Files.createTempDirectory("document-files");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.database.repositories.DocumentOutboxRepository;
+import com.app.maxdocapi.enums.DocumentEventType;
+import com.app.maxdocapi.models.dtos.DocumentCreateDto;
+import com.app.maxdocapi.models.records.DocumentOutboxEventDto;
+import com.app.maxdocapi.services.outbox.DocumentOutboxRelay;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import io.zonky.test.db.util.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase
+@TestPropertySource(properties = {
+        "app.outbox.sink=file",
+        "app.outbox.batch-size=2",
+        "app.outbox.retry-backoff=0s",
+        "app.outbox.poll-interval-ms=3600000"
+})
+public class DocumentOutboxRelayTests {
+    private static final Path eventsFile = createEventsDirectory().resolve("document-events.jsonl");
+
+    @Autowired
+    private DocumentOutboxRelay documentOutboxRelay;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private DocumentOutboxRepository documentOutboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void outboxProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.outbox.file", eventsFile::toString);
+    }
+
+    @Test
+    void assertCommittedChangesAreDeliveredInOrder() throws IOException {
+        // Arrange: Submit two versions of an acronym, so the second obsoletes the first, and roll back a third.
+        var acronym = RandomStringUtils.randomAlphabetic(10);
+        var first = documentService.submit(documentService.save(new DocumentCreateDto(null, "Título", "Descrição", acronym, 1)).getId());
+        var second = documentService.submit(documentService.save(new DocumentCreateDto(null, "Título", "Descrição", acronym, 2)).getId());
+        transactionTemplate.executeWithoutResult(status -> {
+            documentService.save(new DocumentCreateDto(null, "Título", "Descrição", acronym, 3));
+            status.setRollbackOnly();
+        });
+
+        // Act: Relay the outbox, two changes per batch.
+        documentOutboxRelay.relay();
+
+        // Assert: Verify the committed changes were delivered in the order they were written, and only once.
+        var events = deliveredEvents(acronym);
+        assertEquals(List.of(DocumentEventType.CREATED, DocumentEventType.SUBMITTED, DocumentEventType.CREATED,
+                DocumentEventType.OBSOLETED, DocumentEventType.SUBMITTED), events.stream().map(DocumentOutboxEventDto::type).toList());
+        assertEquals(List.of(first.getId(), first.getId(), second.getId(), first.getId(), second.getId()),
+                events.stream().map(DocumentOutboxEventDto::documentId).toList());
+        assertEquals(0, documentOutboxRepository.count());
+    }
+
+    @Test
+    void assertFailedBatchesStayInTheOutboxUntilDelivered() throws IOException {
+        // Arrange: A change, and a directory where the sink expects its file.
+        var acronym = RandomStringUtils.randomAlphabetic(10);
+        documentService.save(new DocumentCreateDto(null, "Título", "Descrição", acronym, 1));
+        var delivered = Files.exists(eventsFile) ? Files.readString(eventsFile) : "";
+        Files.deleteIfExists(eventsFile);
+        Files.createDirectory(eventsFile);
+
+        // Act: Relay the outbox while the sink cannot write.
+        documentOutboxRelay.relay();
+
+        // Assert: Verify the change is kept with the failure recorded.
+        var pending = documentOutboxRepository.findAll();
+        assertEquals(1, pending.size());
+        assertEquals(1, pending.get(0).getAttempts());
+        assertNotNull(pending.get(0).getLastError());
+
+        // Act: Relay again once the sink can write.
+        Files.delete(eventsFile);
+        Files.writeString(eventsFile, delivered);
+        documentOutboxRelay.relay();
+
+        // Assert: Verify the change was delivered.
+        assertEquals(1, deliveredEvents(acronym).size());
+        assertEquals(0, documentOutboxRepository.count());
+    }
+
+    private List<DocumentOutboxEventDto> deliveredEvents(String acronym) throws IOException {
+        return Files.readAllLines(eventsFile).stream()
+                .map(it -> {
+                    try {
+                        return objectMapper.readValue(it, DocumentOutboxEventDto.class);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .filter(it -> it.acronym().equals(acronym))
+                .toList();
+    }
+
+    private static Path createEventsDirectory() {
+        try {
+            return Files.createTempDirectory("outbox");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
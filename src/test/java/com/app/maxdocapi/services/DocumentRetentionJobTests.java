@@ -0,0 +1,141 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.database.entities.Document;
+import com.app.maxdocapi.database.repositories.DocumentRepository;
+import com.app.maxdocapi.exceptions.errors.NotFoundException;
+import com.app.maxdocapi.models.dtos.DocumentCreateDto;
+import com.app.maxdocapi.models.dtos.DocumentListDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import io.zonky.test.db.util.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase
+@TestPropertySource(properties = {
+        "app.documents.retention.keep-obsolete=1",
+        "app.documents.retention.batch-size=1",
+        "app.documents.retention.pause-between-batches=0ms",
+        "app.documents.retention.max-replication-lag=1s"
+})
+public class DocumentRetentionJobTests {
+    private static final Path exportDirectory = createExportDirectory();
+
+    @Autowired
+    private DocumentRetentionJob documentRetentionJob;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void retentionProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.documents.retention.export-directory", exportDirectory::toString);
+    }
+
+    @Test
+    void assertOnlyTheMostRecentObsoleteVersionsAreKept() throws IOException {
+        // Arrange: One acronym with three OBSOLETE versions and one with a single OBSOLETE version.
+        var longLived = submitVersions(4);
+        var shortLived = submitVersions(2);
+        var oldest = documentService.findById(longLived.get(0).getId());
+        var batchesBefore = batches();
+
+        // Act: Run the retention job, which deletes one version per batch.
+        var deleted = documentRetentionJob.run();
+
+        // Assert: Verify only the OBSOLETE versions beyond the most recent one were deleted.
+        assertEquals(2, deleted);
+        assertEquals(List.of(3, 4), versionsOf(longLived.get(0).getAcronym()));
+        assertEquals(List.of(1, 2), versionsOf(shortLived.get(0).getAcronym()));
+        assertEquals(2, batches() - batchesBefore);
+
+        // Assert: Verify the deleted versions were exported first and are no longer served from the cache.
+        var exported = Files.readString(Files.list(exportDirectory).findFirst().orElseThrow());
+        assertEquals(2, exported.lines().count());
+        assertTrue(exported.contains("\"id\":" + oldest.getId() + ","), exported);
+        assertThrows(NotFoundException.class, () -> documentService.findById(oldest.getId()));
+    }
+
+    @Test
+    void assertOnlyOneNodeRunsAtATime() {
+        // Arrange: An acronym with versions to delete, and another node holding the retention lock.
+        var versions = submitVersions(3);
+        var acronym = versions.get(0).getAcronym();
+        Long deleted = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try (var lock = connection.prepareStatement("SELECT pg_advisory_lock(hashtextextended(?, 0))")) {
+                lock.setString(1, DocumentRetentionJob.LOCK_NAME);
+                lock.execute();
+            }
+            try {
+                // Act: Run the retention job while the other node runs it.
+                return documentRetentionJob.run();
+            } finally {
+                try (var unlock = connection.prepareStatement("SELECT pg_advisory_unlock(hashtextextended(?, 0))")) {
+                    unlock.setString(1, DocumentRetentionJob.LOCK_NAME);
+                    unlock.execute();
+                }
+            }
+        });
+
+        // Assert: Verify nothing was deleted until the lock was released.
+        assertEquals(0, deleted);
+        assertEquals(List.of(1, 2, 3), versionsOf(acronym));
+        documentRetentionJob.run();
+        assertEquals(List.of(2, 3), versionsOf(acronym));
+    }
+
+    /**
+     * Creates and submits the given number of versions of a new acronym, so that all but the last end up OBSOLETE.
+     */
+    private List<DocumentListDto> submitVersions(int count) {
+        var acronym = RandomStringUtils.randomAlphabetic(10);
+        var documents = new ArrayList<DocumentListDto>();
+        for (int version = 1; version <= count; version++) {
+            var document = documentService.save(new DocumentCreateDto(null, "Título", "Descrição", acronym, version));
+            documents.add(documentService.submit(document.getId()));
+        }
+        return documents;
+    }
+
+    private double batches() {
+        return meterRegistry.get(DocumentRetentionJob.METRIC_PREFIX + ".batches").counter().count();
+    }
+
+    private List<Integer> versionsOf(String acronym) {
+        return documentRepository.findAllByAcronym(acronym).stream().map(Document::getVersion).sorted().toList();
+    }
+
+    private static Path createExportDirectory() {
+        try {
+            return Files.createTempDirectory("retention");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.database.repositories.DocumentRepository;
+import com.app.maxdocapi.enums.Phase;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import io.zonky.test.db.util.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase
+public class DocumentSearchBackfillTests {
+
+    @Autowired
+    private DocumentSearchBackfill documentSearchBackfill;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void assertBackfillFillsMissingSearchColumns() {
+        // Arrange: Save a document and clear its search columns, like a row written before they existed.
+        var randomAcronym = RandomStringUtils.randomAlphabetic(8);
+        var document = documentRepository.save(DocumentServiceTests.getRandomDocument(1, Phase.DRAFT, randomAcronym));
+        jdbcTemplate.update("UPDATE documents SET title_norm = NULL, acronym_norm = NULL WHERE id = ?", document.getId());
+
+        // Act: Run the backfill.
+        var filled = documentSearchBackfill.backfill();
+
+        // Assert: Verify the columns were filled and the document can be searched again.
+        assertTrue(filled >= 1);
+        var reloaded = documentRepository.findById(document.getId()).orElseThrow();
+        assertEquals(document.getTitle().toLowerCase(), reloaded.getTitleNorm());
+        assertEquals(randomAcronym.toLowerCase(), reloaded.getAcronymNorm());
+        assertEquals(0, documentSearchBackfill.backfill());
+    }
+}
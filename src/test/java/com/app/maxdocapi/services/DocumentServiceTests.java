@@ -6,10 +6,14 @@ import com.app.maxdocapi.enums.Phase;
 import com.app.maxdocapi.exceptions.errors.BadRequestException;
 import com.app.maxdocapi.exceptions.errors.NotFoundException;
 import com.app.maxdocapi.models.dtos.DocumentCreateDto;
+import com.app.maxdocapi.models.dtos.DocumentListDto;
+import com.app.maxdocapi.models.records.AcronymFacetDto;
 import com.app.maxdocapi.models.records.DocumentEditInfoDto;
+import com.app.maxdocapi.models.records.DocumentLineageEntryDto;
 import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
 import io.zonky.test.db.util.RandomStringUtils;
 import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.Hibernate;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -19,15 +23,19 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.TestPropertySource;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest
@@ -45,7 +53,7 @@ public class DocumentServiceTests {
     void assertCanCreateDocument(DocumentCreateDto dto) {
         // Act: Save the document using the service.
         // Calls the save() method of documentService to persist the DocumentCreateDto into the database or repository.
-        Document savedDocument = documentService.save(dto);
+        DocumentListDto savedDocument = documentService.save(dto);
 
         // Assert: Verify the document is saved correctly and initialized as expected.
         // Ensures that the saved document is not null.
@@ -67,6 +75,20 @@ public class DocumentServiceTests {
         assertEquals(Phase.DRAFT, savedDocument.getPhase());
     }
 
+    @Test
+    void assertSavingAnExistingIdReturnsItsDescription() {
+        // Arrange: A document already stored, whose description is only loaded on access.
+        var existingDocument = saveRandomDocument(1, Phase.DRAFT, null);
+        var dto = new DocumentCreateDto(existingDocument.getId(), "Título", "Descrição", RandomStringUtils.randomAlphabetic(10), 1);
+
+        // Act: Save a DTO carrying its ID.
+        var savedDocument = documentService.save(dto);
+
+        // Assert: Verify the existing document is returned with its description, readable after the transaction ended.
+        assertEquals(existingDocument.getId(), savedDocument.getId());
+        assertEquals(existingDocument.getDescription(), savedDocument.getDescription());
+    }
+
     /**
      * Provides a stream of test cases for the parameterized test.
      * Each test case is an instance of DocumentCreateDto with varying data.
@@ -95,7 +117,7 @@ public class DocumentServiceTests {
 
         // Act: Call the submit method to transition the document's phase.
         // This action simulates submitting the document, which should update its phase to ACTIVE.
-        Document submittedDocument = documentService.submit(draftDocument.getId());
+        DocumentListDto submittedDocument = documentService.submit(draftDocument.getId());
 
         // Assert: Verify that the document's phase has been changed to ACTIVE.
         // Ensures the returned document is not null, indicating a successful transition.
@@ -103,6 +125,9 @@ public class DocumentServiceTests {
 
         // Confirms that the document's phase has been updated correctly to ACTIVE.
         assertEquals(Phase.ACTIVE, submittedDocument.getPhase());
+
+        // Confirms that the lazily loaded description was read before the transaction ended.
+        assertEquals(draftDocument.getDescription(), submittedDocument.getDescription());
     }
 
 
@@ -121,12 +146,12 @@ public class DocumentServiceTests {
 
         // Act: Call the submit method for the document in the DRAFT phase.
         // This action should transition the DRAFT document to ACTIVE and obsolete the previous ACTIVE document.
-        secondDocument = documentService.submit(secondDocument.getId());
+        var submittedDocument = documentService.submit(secondDocument.getId());
 
         // Assert: Verify that the DRAFT document has been transitioned to the ACTIVE phase.
         // Ensures the phase of the submitted document is updated correctly.
-        assertNotNull(secondDocument);
-        assertEquals(Phase.ACTIVE, secondDocument.getPhase());
+        assertNotNull(submittedDocument);
+        assertEquals(Phase.ACTIVE, submittedDocument.getPhase());
 
         // Assert: Verify that the original ACTIVE document has been transitioned to the OBSOLETE phase.
         // Ensures only one document remains in the ACTIVE phase per acronym.
@@ -214,6 +239,167 @@ public class DocumentServiceTests {
     }
 
 
+    @Test
+    void assertFacetsCountPhasesAndAreRefreshedAfterWrites() {
+        // Arrange: Save documents in every phase under a random acronym, so the acronym filter isolates them.
+        var randomAcronym = RandomStringUtils.randomAlphabetic(8);
+        saveRandomDocument(1, Phase.OBSOLETE, randomAcronym);
+        var activeDocument = saveRandomDocument(2, Phase.ACTIVE, randomAcronym);
+
+        // Act: Compute the facets for the random acronym.
+        var facets = documentService.findFacets("", randomAcronym, 10);
+
+        // Assert: Verify the total, the count per phase and the acronym count.
+        assertEquals(2, facets.total());
+        assertEquals(0L, facets.phases().get(Phase.DRAFT));
+        assertEquals(1L, facets.phases().get(Phase.ACTIVE));
+        assertEquals(1L, facets.phases().get(Phase.OBSOLETE));
+        assertEquals(List.of(new AcronymFacetDto(randomAcronym, 2)), facets.acronyms());
+
+        // Act: Generate a new version through the service, which must invalidate the cached facets.
+        documentService.generateVersion(activeDocument.getId());
+        facets = documentService.findFacets("", randomAcronym, 10);
+
+        // Assert: Verify the new DRAFT version is counted.
+        assertEquals(3, facets.total());
+        assertEquals(1L, facets.phases().get(Phase.DRAFT));
+    }
+
+
+    @Test
+    void assertFindAllByIdsPreservesOrderAndReportsMissing() {
+        // Arrange: Save two documents and warm the cache for the first one only.
+        var firstDocument = saveRandomDocument(1, Phase.DRAFT, null);
+        var secondDocument = saveRandomDocument(1, Phase.DRAFT, null);
+        documentService.findById(firstDocument.getId());
+
+        // Act: Look up both documents and a missing id, in an order different from the insertion order.
+        var batch = documentService.findAllByIds(List.of(secondDocument.getId(), 999_999L, firstDocument.getId()));
+
+        // Assert: Verify the found documents keep the requested order and the missing id is reported.
+        assertEquals(List.of(secondDocument.getId(), firstDocument.getId()), batch.result().stream().map(DocumentListDto::getId).toList());
+        assertEquals(List.of(999_999L), batch.missing());
+
+        // Act: Edit the cached document through the service.
+        var dto = getRandomDocumentEditInfoDto();
+        documentService.editInfo(firstDocument.getId(), dto);
+
+        // Assert: Verify the edit evicted the cached copy.
+        assertEquals(dto.title(), documentService.findById(firstDocument.getId()).getTitle());
+        assertEquals(dto.title(), documentService.findAllByIds(List.of(firstDocument.getId())).result().get(0).getTitle());
+    }
+
+
+    @Test
+    void assertSparseFieldsetSelectsOnlyRequestedFields() {
+        // Arrange: Save a document under a random acronym, so the acronym filter isolates it.
+        var document = saveRandomDocument(1, Phase.DRAFT, RandomStringUtils.randomAlphabetic(8));
+
+        // Act: List the document asking only for its title and version.
+        var page = documentService.findAllPaginated("", document.getAcronym(), "", "title, VERSION", 0, 10, Sort.Direction.DESC);
+
+        // Assert: Verify only the id and the requested fields are returned.
+        assertEquals(1, page.getTotalElements());
+        assertEquals(Map.of("id", document.getId(), "title", document.getTitle(), "version", 1), page.getContent().get(0));
+
+        // Assert: Verify the list without a fieldset still returns every field.
+        var fullPage = documentService.findAllPaginated("", document.getAcronym(), "", 0, 10, Sort.Direction.DESC);
+        assertEquals(1, fullPage.getTotalElements());
+        assertEquals(document.getDescription(), fullPage.getContent().get(0).getDescription());
+
+        // Act & Assert: Verify an unknown field is rejected.
+        assertThrows(BadRequestException.class,
+                () -> documentService.findAllPaginated("", "", "", "title,body", 0, 10, Sort.Direction.DESC));
+    }
+
+
+    @Test
+    void assertEntityLoadsDoNotFetchDescription() {
+        // Arrange: Save a document under a random acronym.
+        var document = saveRandomDocument(1, Phase.DRAFT, RandomStringUtils.randomAlphabetic(8));
+
+        // Act: Load it the way the write paths do.
+        var loaded = documentRepository.findAllByAcronym(document.getAcronym()).get(0);
+
+        // Assert: Verify the description was left unloaded.
+        assertFalse(Hibernate.isPropertyInitialized(loaded, "description"));
+    }
+
+
+    @Test
+    void assertSearchIgnoresAccentsAndCase() {
+        // Arrange: Save an accented document under a random acronym, so the acronym filter isolates it.
+        var randomAcronym = RandomStringUtils.randomAlphabetic(8);
+        var document = documentRepository.save(new Document(null, "Relatório Técnico Anual", "Descrição", randomAcronym, 1, Phase.ACTIVE));
+
+        // Assert: Verify the normalized search columns were filled on write.
+        assertEquals("relatorio tecnico anual", document.getTitleNorm());
+        assertEquals(randomAcronym.toLowerCase(), document.getAcronymNorm());
+
+        // Act & Assert: Verify the filters match regardless of accents, case and surrounding spaces.
+        assertEquals(1, documentService.findAllPaginated(" TECNICO ", randomAcronym.toUpperCase(), "act", 0, 10, Sort.Direction.DESC).getTotalElements());
+        assertEquals(1, documentService.findAllPaginated("relatório", randomAcronym, "", "title", 0, 10, Sort.Direction.DESC).getTotalElements());
+        assertEquals(1, documentService.findFacets("técnico", randomAcronym, 10).total());
+
+        // Act & Assert: Verify phases that do not match the filter are excluded.
+        assertEquals(0, documentService.findAllPaginated("", randomAcronym, "draft", 0, 10, Sort.Direction.DESC).getTotalElements());
+        assertEquals(0, documentService.findAllPaginated("", randomAcronym, "unknown", "title", 0, 10, Sort.Direction.DESC).getTotalElements());
+    }
+
+
+    @Test
+    void assertDocumentsWithoutPhaseAreListedWhenNoPhaseIsFiltered() {
+        // Arrange: Save a document without a phase under a random acronym, so the acronym filter isolates it.
+        var randomAcronym = RandomStringUtils.randomAlphabetic(8);
+        documentRepository.save(new Document(null, "Título", "Descrição", randomAcronym, 1, null));
+
+        // Act & Assert: Verify both list paths return it without a phase filter and leave it out with one.
+        assertEquals(1, documentService.findAllPaginated("", randomAcronym, "", 0, 10, Sort.Direction.DESC).getTotalElements());
+        assertEquals(1, documentService.findAllPaginated("", randomAcronym, "", "title", 0, 10, Sort.Direction.DESC).getTotalElements());
+        assertEquals(0, documentService.findAllPaginated("", randomAcronym, "draft", 0, 10, Sort.Direction.DESC).getTotalElements());
+        assertEquals(0, documentService.findAllPaginated("", randomAcronym, "draft", "title", 0, 10, Sort.Direction.DESC).getTotalElements());
+    }
+
+
+    @Test
+    void assertLineageListsTheVersionsOfExactlyOneAcronymPageByPage() {
+        // Arrange: Save four versions of an acronym, and a longer acronym that contains it.
+        var randomAcronym = RandomStringUtils.randomAlphabetic(8);
+        var versions = new ArrayList<Document>();
+        versions.add(saveRandomDocument(1, Phase.OBSOLETE, randomAcronym));
+        versions.add(saveRandomDocument(2, Phase.OBSOLETE, randomAcronym));
+        versions.add(saveRandomDocument(3, Phase.ACTIVE, randomAcronym));
+        versions.add(saveRandomDocument(4, Phase.DRAFT, randomAcronym));
+        saveRandomDocument(1, Phase.ACTIVE, randomAcronym + "X");
+
+        // Act: Read the first page of two versions.
+        var firstPage = documentService.findLineage(randomAcronym, 0, 2);
+
+        // Assert: Verify the page holds the oldest versions of the acronym only, linked to their neighbours.
+        assertEquals(4, firstPage.total());
+        assertEquals(3, firstPage.activeVersion());
+        assertEquals(List.of(1, 2), firstPage.versions().stream().map(DocumentLineageEntryDto::version).toList());
+        assertNull(firstPage.versions().get(0).previousId());
+        assertEquals(versions.get(0).getId(), firstPage.versions().get(1).previousId());
+        assertEquals(versions.get(2).getId(), firstPage.versions().get(1).nextId());
+        assertEquals(2, firstPage.nextAfterVersion());
+
+        // Act: Delete the second version, then read the next page after it.
+        documentRepository.deleteById(versions.get(1).getId());
+        var lastPage = documentService.findLineage(randomAcronym, firstPage.nextAfterVersion(), 2);
+
+        // Assert: Verify the page links to the version before the gap and is the last one.
+        assertEquals(List.of(3, 4), lastPage.versions().stream().map(DocumentLineageEntryDto::version).toList());
+        assertEquals(1, lastPage.versions().get(0).previousVersion());
+        assertNull(lastPage.versions().get(1).nextId());
+        assertNull(lastPage.nextAfterVersion());
+
+        // Act & Assert: Verify a page past the end is empty and an unknown acronym is not found.
+        assertEquals(3, documentService.findLineage(randomAcronym, 4, 2).total());
+        assertThrows(NotFoundException.class, () -> documentService.findLineage(randomAcronym.toLowerCase() + "0", 0, 2));
+    }
+
+
     /**
      * Creates a random document with the given version, phase, and acronym.
      * If acronym is not provided, a random acronym will be generated.
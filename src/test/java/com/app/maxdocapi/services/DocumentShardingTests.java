@@ -0,0 +1,137 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.database.sharding.ShardRouter;
+import com.app.maxdocapi.enums.Phase;
+import com.app.maxdocapi.models.dtos.DocumentCreateDto;
+import com.app.maxdocapi.models.dtos.DocumentListDto;
+import com.app.maxdocapi.models.projections.AcronymGroupListProjection;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import io.zonky.test.db.util.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase(beanName = "shard0DataSource")
+@AutoConfigureEmbeddedDatabase(beanName = "shard1DataSource")
+@AutoConfigureEmbeddedDatabase(beanName = "shard2DataSource")
+@TestPropertySource(properties = {
+        "spring.jpa.open-in-view=false",
+        "app.sharding.enabled=true",
+        "app.sharding.shards[0].url=jdbc:postgresql://embedded/shard0",
+        "app.sharding.shards[1].url=jdbc:postgresql://embedded/shard1",
+        "app.sharding.shards[2].url=jdbc:postgresql://embedded/shard2"
+})
+public class DocumentShardingTests {
+    private static final int SHARD_COUNT = 3;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    void assertDocumentsAreStoredOnTheShardOfTheirAcronymWithUniqueIds() {
+        // Arrange: Acronyms spread over the shards.
+        var documents = new ArrayList<DocumentListDto>();
+
+        // Act: Create documents and a new version of one of them.
+        for (int i = 0; i < 12; i++) {
+            documents.add(documentService.save(new DocumentCreateDto(null, "Título", "Descrição", RandomStringUtils.randomAlphabetic(10), 1)));
+        }
+        var submitted = documentService.submit(documents.get(0).getId());
+        var newVersion = documentService.generateVersion(submitted.getId());
+
+        // Assert: Verify every document is only on the shard of its acronym and its id tells that shard.
+        documents.add(newVersion);
+        for (var document : documents) {
+            var shard = shardRouter.shardOf(document.getAcronym());
+            assertEquals(shard, shardRouter.shardOf(document.getId()));
+            for (int i = 0; i < SHARD_COUNT; i++) {
+                var count = shardJdbcTemplate(i).queryForObject("SELECT COUNT(*) FROM documents WHERE id = ?", Long.class, document.getId());
+                assertEquals(i == shard ? 1 : 0, count, "shard " + i + " of document " + document.getId());
+            }
+        }
+        assertEquals(documents.size(), documents.stream().map(DocumentListDto::getId).distinct().count());
+        assertEquals(Phase.ACTIVE, documentService.findById(submitted.getId()).getPhase());
+        assertEquals(submitted.getAcronym(), newVersion.getAcronym());
+        assertEquals(2, newVersion.getVersion());
+    }
+
+    @Test
+    void assertListsMergeThePagesOfEveryShard() {
+        // Arrange: Documents on every shard, all matching one title.
+        var randomTitle = RandomStringUtils.randomAlphabetic(12);
+        var shards = new HashSet<Integer>();
+        for (int i = 0; i < 10; i++) {
+            var document = documentService.save(new DocumentCreateDto(null, randomTitle, "Descrição", RandomStringUtils.randomAlphabetic(10), 1));
+            shards.add(shardRouter.shardOf(document.getId()));
+        }
+
+        // Act: Read the list in pages of three.
+        var ids = new ArrayList<Long>();
+        long total = 0;
+        for (int page = 0; page < 4; page++) {
+            var result = documentService.findAllPaginated(randomTitle, "", "", page, 3, Sort.Direction.DESC);
+            result.getContent().stream().map(DocumentListDto::getId).forEach(ids::add);
+            total = result.getTotalElements();
+        }
+
+        // Assert: Verify the pages hold every document once, in the global order, with the global total.
+        assertTrue(shards.size() > 1);
+        assertEquals(10, total);
+        assertEquals(10, ids.size());
+        assertEquals(ids.stream().sorted(Comparator.reverseOrder()).toList(), ids);
+    }
+
+    @Test
+    void assertAcronymGroupsAreMergedInAcronymOrder() {
+        // Arrange: Several versions of acronyms that land on different shards.
+        for (int i = 0; i < 6; i++) {
+            var acronym = RandomStringUtils.randomAlphabetic(10);
+            documentService.save(new DocumentCreateDto(null, "Título", "Descrição", acronym, 1));
+            documentService.save(new DocumentCreateDto(null, "Título", "Descrição", acronym, 2));
+        }
+
+        // Act: Read every group, in pages of four.
+        var groups = new ArrayList<AcronymGroupListProjection>();
+        var first = documentService.findAllGroupedByAcronym(0, 4, Sort.Direction.ASC);
+        for (int page = 0; page < first.getTotalPages(); page++) {
+            groups.addAll(documentService.findAllGroupedByAcronym(page, 4, Sort.Direction.ASC).getContent());
+        }
+
+        // Assert: Verify each acronym appears once, with all its versions, in code point order.
+        var acronyms = groups.stream().map(AcronymGroupListProjection::getAcronym).toList();
+        assertEquals(first.getTotalElements(), groups.size());
+        assertEquals(acronyms.stream().distinct().sorted().toList(), acronyms);
+        assertEquals(totalDocuments(), groups.stream().mapToLong(AcronymGroupListProjection::getQuantity).sum());
+    }
+
+    private long totalDocuments() {
+        long total = 0;
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            total += shardJdbcTemplate(i).queryForObject("SELECT COUNT(*) FROM documents", Long.class);
+        }
+        return total;
+    }
+
+    private JdbcTemplate shardJdbcTemplate(int shard) {
+        return new JdbcTemplate(applicationContext.getBean("shard" + shard + "DataSource", DataSource.class));
+    }
+}
@@ -0,0 +1,106 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.database.repositories.DocumentRepository;
+import com.app.maxdocapi.enums.Phase;
+import com.app.maxdocapi.models.records.AcronymSuggestionDto;
+import com.app.maxdocapi.models.records.DocumentSuggestionDto;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import io.zonky.test.db.util.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase
+@TestPropertySource(properties = {
+        "app.documents.snapshot.enabled=true",
+        "app.documents.snapshot.interval-ms=3600000"
+})
+public class DocumentSnapshotServiceTests {
+    private static final Path snapshotFile = createSnapshotDirectory().resolve("documents.snapshot");
+
+    @Autowired
+    private DocumentSnapshotService documentSnapshotService;
+
+    @Autowired
+    private DocumentTypeaheadService documentTypeaheadService;
+
+    @Autowired
+    private AcronymAutocompleteService acronymAutocompleteService;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void snapshotProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.documents.snapshot.file", snapshotFile::toString);
+    }
+
+    @Test
+    void assertWarmUpLoadsTheSnapshotAndOnlyTheDocumentsChangedSince() {
+        // Arrange: Three documents written without events, like another node would, and a snapshot holding them.
+        var acronym = RandomStringUtils.randomAlphabetic(10);
+        var kept = documentRepository.save(DocumentServiceTests.getRandomDocument(1, Phase.DRAFT, acronym));
+        var submitted = documentRepository.save(DocumentServiceTests.getRandomDocument(2, Phase.DRAFT, acronym));
+        var deleted = documentRepository.save(DocumentServiceTests.getRandomDocument(3, Phase.DRAFT, acronym));
+        documentTypeaheadService.rebuild();
+        documentSnapshotService.write();
+
+        // Arrange: While the node is down, one document is submitted, one is deleted and one is created.
+        // The title of the kept one changes too, but with an old updatedAt, so only the snapshot can still hold the old title.
+        jdbcTemplate.update("UPDATE documents SET phase = 'ACTIVE', updated_at = now() WHERE id = ?", submitted.getId());
+        jdbcTemplate.update("DELETE FROM documents WHERE id = ?", deleted.getId());
+        jdbcTemplate.update("UPDATE documents SET title = 'Título renomeado', updated_at = '2000-01-01' WHERE id = ?", kept.getId());
+        var created = documentRepository.save(DocumentServiceTests.getRandomDocument(4, Phase.DRAFT, acronym));
+
+        // Act: Start again from the snapshot.
+        documentSnapshotService.warmUp();
+
+        // Assert: Verify the snapshot was used and brought up to date.
+        var suggestions = documentTypeaheadService.suggest(acronym, 10);
+        assertEquals(List.of(kept.getId(), submitted.getId(), created.getId()), suggestions.stream().map(DocumentSuggestionDto::id).sorted().toList());
+        assertTrue(suggestions.stream().anyMatch(it -> it.id().equals(kept.getId()) && it.title().equals(kept.getTitle())));
+        assertTrue(suggestions.stream().anyMatch(it -> it.id().equals(submitted.getId()) && it.phase() == Phase.ACTIVE));
+        assertEquals(List.of(new AcronymSuggestionDto(acronym, 3, 2)), acronymAutocompleteService.suggest(acronym, 1));
+    }
+
+    @Test
+    void assertCorruptSnapshotFallsBackToReadingEveryDocument() throws IOException {
+        // Arrange: A document and a snapshot with a flipped byte.
+        var document = documentRepository.save(DocumentServiceTests.getRandomDocument(1, Phase.ACTIVE, RandomStringUtils.randomAlphabetic(10)));
+        documentTypeaheadService.rebuild();
+        documentSnapshotService.write();
+        var bytes = Files.readAllBytes(snapshotFile);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(snapshotFile, bytes);
+
+        // Act: Start again.
+        documentSnapshotService.warmUp();
+
+        // Assert: Verify the document was read from the database.
+        assertEquals(document.getId(), documentTypeaheadService.suggest(document.getAcronym(), 1).get(0).id());
+    }
+
+    private static Path createSnapshotDirectory() {
+        try {
+            return Files.createTempDirectory("snapshot");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.database.entities.Document;
+import com.app.maxdocapi.database.repositories.DocumentRepository;
+import com.app.maxdocapi.enums.Phase;
+import com.app.maxdocapi.exceptions.errors.BadRequestException;
+import com.app.maxdocapi.models.dtos.DocumentCreateDto;
+import com.app.maxdocapi.models.records.DocumentEditInfoDto;
+import com.app.maxdocapi.models.records.DocumentSuggestionDto;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import io.zonky.test.db.util.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase
+public class DocumentTypeaheadServiceTests {
+
+    @Autowired
+    private DocumentTypeaheadService documentTypeaheadService;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Test
+    void assertWritesAreSuggestedRightAway() {
+        // Arrange: Save a document whose title holds a random word, so the query isolates it.
+        var randomWord = RandomStringUtils.randomAlphabetic(12);
+        var document = documentService.save(new DocumentCreateDto(null, "Relatório " + randomWord + " Técnico", "Descrição", RandomStringUtils.randomAlphabetic(8), 1));
+
+        // Act & Assert: Verify the document is suggested for a middle part of the word, ignoring case and accents.
+        assertEquals(List.of(document.getId()), ids(documentTypeaheadService.suggest(randomWord.substring(2, 9).toUpperCase(), 10)));
+
+        // Act & Assert: Verify two characters only match the start of a word, and the whole acronym ranks first.
+        var prefix = document.getAcronym().substring(0, 2).toLowerCase();
+        for (var suggestion : documentTypeaheadService.suggest(prefix, DocumentTypeaheadService.MAX_SUGGESTIONS)) {
+            var words = (" " + suggestion.title() + " " + suggestion.acronym()).toLowerCase();
+            assertTrue(words.contains(" " + prefix), words);
+        }
+        assertEquals(document.getId(), documentTypeaheadService.suggest(document.getAcronym(), 1).get(0).id());
+
+        // Act: Rename the document.
+        var newWord = RandomStringUtils.randomAlphabetic(12);
+        documentService.editInfo(document.getId(), new DocumentEditInfoDto("Manual " + newWord, "Descrição"));
+
+        // Assert: Verify the index follows the new title and forgot the old one.
+        assertEquals(List.of(document.getId()), ids(documentTypeaheadService.suggest(newWord, 10)));
+        assertTrue(documentTypeaheadService.suggest(randomWord, 10).isEmpty());
+    }
+
+    @Test
+    void assertRebuildIndexesDocumentsWrittenElsewhere() {
+        // Arrange: Save a document straight through the repository, like another app node would, without any event.
+        var document = documentRepository.save(DocumentServiceTests.getRandomDocument(1, Phase.ACTIVE, RandomStringUtils.randomAlphabetic(8)));
+        assertFalse(ids(documentTypeaheadService.suggest(document.getTitle(), 10)).contains(document.getId()));
+
+        // Act: Rebuild the index from the database.
+        documentTypeaheadService.rebuild();
+
+        // Assert: Verify the document is now suggested.
+        assertEquals(document.getId(), documentTypeaheadService.suggest(document.getTitle(), 10).get(0).id());
+    }
+
+    @Test
+    void assertRemovedDocumentsLeaveTheirSlotToNewOnes() {
+        // Arrange: An index of two documents, the second of which is then deleted elsewhere.
+        var kept = documentRepository.save(DocumentServiceTests.getRandomDocument(1, Phase.ACTIVE, RandomStringUtils.randomAlphabetic(8)));
+        var deleted = documentRepository.save(DocumentServiceTests.getRandomDocument(1, Phase.ACTIVE, RandomStringUtils.randomAlphabetic(8)));
+        try {
+            documentTypeaheadService.rebuild(List.of(suggestionOf(kept), suggestionOf(deleted)));
+            documentRepository.delete(deleted);
+            documentTypeaheadService.refresh(List.of(deleted.getId()));
+
+            // Act: Index a new document.
+            var added = documentRepository.save(DocumentServiceTests.getRandomDocument(1, Phase.ACTIVE, RandomStringUtils.randomAlphabetic(8)));
+            documentTypeaheadService.refresh(List.of(added.getId()));
+
+            // Assert: Verify it took the free slot and every document is found by its own title only.
+            assertEquals(2, documentTypeaheadService.slotCount());
+            assertEquals(List.of(kept.getId()), ids(documentTypeaheadService.suggest(kept.getTitle(), 10)));
+            assertEquals(List.of(added.getId()), ids(documentTypeaheadService.suggest(added.getTitle(), 10)));
+            assertTrue(documentTypeaheadService.suggest(deleted.getTitle(), 10).isEmpty());
+        } finally {
+            // Restores the index of every document for the other tests.
+            documentTypeaheadService.rebuild();
+        }
+    }
+
+    @Test
+    void assertLimitIsValidated() {
+        // Act & Assert: Verify out-of-range limits are rejected and blank queries return nothing.
+        assertThrows(BadRequestException.class, () -> documentTypeaheadService.suggest("abc", 0));
+        assertThrows(BadRequestException.class, () -> documentTypeaheadService.suggest("abc", DocumentTypeaheadService.MAX_SUGGESTIONS + 1));
+        assertTrue(documentTypeaheadService.suggest("  ", 10).isEmpty());
+    }
+
+    private static DocumentSuggestionDto suggestionOf(Document document) {
+        return new DocumentSuggestionDto(document.getId(), document.getTitle(), document.getAcronym(), document.getVersion(), document.getPhase());
+    }
+
+    private static List<Long> ids(List<DocumentSuggestionDto> suggestions) {
+        return suggestions.stream().map(DocumentSuggestionDto::id).toList();
+    }
+}
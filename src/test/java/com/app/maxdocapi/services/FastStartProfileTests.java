@@ -0,0 +1,61 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.Routes;
+import com.app.maxdocapi.filters.FirstRequestTimingFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureEmbeddedDatabase
+@ActiveProfiles("fast-start")
+@TestPropertySource(properties = {
+        // The embedded database starts empty, so the schema is still created here.
+        "spring.jpa.hibernate.ddl-auto=update",
+        "spring.sql.init.mode=always"
+})
+public class FastStartProfileTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void assertBeansAreCreatedOnFirstUseExceptTheStartupCriticalOnes() throws Exception {
+        // Arrange: The context started with lazy initialization.
+        var timeToFirstRequest = meterRegistry.get(FirstRequestTimingFilter.METRIC_NAME).timeGauge();
+
+        // Assert: Verify Hibernate and the scheduled beans were created, but not the ones only requests need.
+        assertTrue(beanFactory.containsSingleton("entityManagerFactory"));
+        assertTrue(beanFactory.containsSingleton("bulkJobService"));
+        assertFalse(beanFactory.containsSingleton("modelMapper"));
+        assertFalse(beanFactory.containsSingleton("documentController"));
+        assertTrue(timeToFirstRequest.value(TimeUnit.MILLISECONDS) < 0);
+
+        // Act: Serve the first request.
+        mockMvc.perform(get(Routes.Documents.path)).andExpect(status().isOk());
+
+        // Assert: Verify the request created what it needed and the time to first request was measured.
+        assertTrue(beanFactory.containsSingleton("documentController"));
+        assertTrue(timeToFirstRequest.value(TimeUnit.MILLISECONDS) > 0);
+    }
+}
@@ -0,0 +1,57 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.common.ResponseResult;
+import com.app.maxdocapi.common.ResponseResultJsonWriter;
+import com.app.maxdocapi.common.ResultPageDto;
+import com.app.maxdocapi.enums.Phase;
+import com.app.maxdocapi.models.dtos.DocumentListDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase
+public class ResponseResultJsonWriterTests {
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void assertDocumentResultsAreWrittenLikeJackson() throws Exception {
+        // Arrange: Documents with every kind of date fraction, a missing description and escaped characters.
+        var writer = new ResponseResultJsonWriter(objectMapper.getFactory());
+        var documents = List.of(
+                new DocumentListDto(1L, "Relatório \"Técnico\"", "Análise\nPreventiva", "RT-001", 1, Phase.ACTIVE,
+                        LocalDateTime.of(2024, 1, 2, 3, 4), LocalDateTime.of(2024, 1, 2, 3, 4, 5, 120_000_000)),
+                new DocumentListDto(2L, "Gestão", null, "GE-002", 12, Phase.OBSOLETE,
+                        LocalDateTime.of(999, 12, 31, 23, 59, 59, 1_000), LocalDateTime.of(2024, 6, 30, 0, 0, 0, 123_456_789)));
+        var page = ResponseResult.success(new ResultPageDto<>(3, 1, 25, documents));
+        var single = ResponseResult.success("Found", documents.get(1));
+        var other = ResponseResult.success(List.of("not", "documents"));
+
+        // Act: Write the results with the writer and with Jackson.
+        var writtenPage = write(writer, page);
+        var writtenSingle = write(writer, single);
+
+        // Assert: Verify both produce the same JSON, and only document results are taken by the writer.
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsString(page)), objectMapper.readTree(writtenPage));
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsString(single)), objectMapper.readTree(writtenSingle));
+        assertTrue(writtenPage.contains("\"createdAt\":\"2024-01-02T03:04:00\""));
+        assertFalse(writer.supports(other));
+    }
+
+    private static String write(ResponseResultJsonWriter writer, ResponseResult<?> result) throws Exception {
+        var output = new ByteArrayOutputStream();
+        writer.write(result, output);
+        return output.toString();
+    }
+}
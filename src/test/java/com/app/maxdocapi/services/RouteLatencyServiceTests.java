@@ -0,0 +1,92 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.models.records.LatencyWindowDto;
+import com.app.maxdocapi.models.records.RouteLatencyDto;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import io.zonky.test.db.util.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase
+public class RouteLatencyServiceTests {
+    @Autowired
+    private RouteLatencyService routeLatencyService;
+
+    @Test
+    void assertPercentilesAndMaxAreReportedPerRouteAndStatus() {
+        // Arrange: A thousand requests taking 1 to 1000 ms, and one failed request.
+        var route = "/api/" + RandomStringUtils.randomAlphabetic(10);
+        var now = System.nanoTime();
+        for (int millis = 1; millis <= 1000; millis++) {
+            routeLatencyService.record("GET", route, 200, now - Duration.ofMillis(millis).toNanos(), now);
+        }
+        routeLatencyService.record("GET", route, 500, now - Duration.ofMillis(3).toNanos(), now);
+
+        // Act: Read the latencies.
+        var routes = routeLatencyService.findAll(now);
+
+        // Assert: Verify each status has its own distribution, within the precision of the buckets.
+        var lastMinute = find(routes, route, 200).orElseThrow().windows().getFirst();
+        assertEquals(1, lastMinute.minutes());
+        assertEquals(1000, lastMinute.count());
+        assertWithinBucket(500, lastMinute.p50Ms());
+        assertWithinBucket(990, lastMinute.p99Ms());
+        assertEquals(1000, lastMinute.maxMs());
+        assertEquals(1, find(routes, route, 500).orElseThrow().windows().getFirst().count());
+    }
+
+    @Test
+    void assertOnlyTheRequestsOfEachWindowAreCounted() {
+        // Arrange: One request ten minutes ago and one now.
+        var route = "/api/" + RandomStringUtils.randomAlphabetic(10);
+        var now = System.nanoTime();
+        var tenMinutesAgo = now - Duration.ofMinutes(10).toNanos();
+        routeLatencyService.record("POST", route, 200, tenMinutesAgo - Duration.ofMillis(40).toNanos(), tenMinutesAgo);
+        routeLatencyService.record("POST", route, 200, now - Duration.ofMillis(20).toNanos(), now);
+
+        // Act: Read the latencies now and once both requests are older than 15 minutes.
+        var windows = find(routeLatencyService.findAll(now), route, 200).orElseThrow().windows();
+        var later = find(routeLatencyService.findAll(now + Duration.ofMinutes(16).toNanos()), route, 200);
+
+        // Assert: Verify the old request only counts in the 15 minute window, and neither does later.
+        assertEquals(List.of(1L, 1L, 2L), windows.stream().map(LatencyWindowDto::count).toList());
+        assertEquals(20, windows.get(1).maxMs());
+        assertEquals(40, windows.get(2).maxMs());
+        assertTrue(later.isEmpty());
+    }
+
+    @Test
+    void assertNonStandardMethodsShareOneEntry() {
+        // Arrange: Requests with made-up methods, and one GET.
+        var route = "/api/" + RandomStringUtils.randomAlphabetic(10);
+        var now = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            routeLatencyService.record(RandomStringUtils.randomAlphabetic(8), route, 405, now - Duration.ofMillis(1).toNanos(), now);
+        }
+        routeLatencyService.record("GET", route, 405, now - Duration.ofMillis(1).toNanos(), now);
+
+        // Act: Read the latencies.
+        var entries = routeLatencyService.findAll(now).stream().filter(it -> it.route().equals(route)).toList();
+
+        // Assert: Verify the made-up methods were counted together, apart from the GET.
+        assertEquals(List.of("GET", RouteLatencyService.OTHER_METHOD), entries.stream().map(RouteLatencyDto::method).toList());
+        assertEquals(100, entries.get(1).windows().getFirst().count());
+    }
+
+    private static Optional<RouteLatencyDto> find(List<RouteLatencyDto> routes, String route, int status) {
+        return routes.stream().filter(it -> it.route().equals(route) && it.status() == status).findFirst();
+    }
+
+    private static void assertWithinBucket(double expectedMs, double actualMs) {
+        assertTrue(actualMs >= expectedMs && actualMs <= expectedMs * 1.0625, actualMs + " ms is not within a bucket of " + expectedMs + " ms");
+    }
+}
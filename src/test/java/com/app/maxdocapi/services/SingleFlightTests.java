@@ -0,0 +1,123 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.common.SingleFlight;
+import com.app.maxdocapi.exceptions.errors.NotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SingleFlightTests {
+    private static final int CALLERS = 8;
+
+    @Test
+    void assertConcurrentCallsForTheSameKeyRunOnce() throws Exception {
+        // Arrange: A loader that blocks until every caller has arrived.
+        var meterRegistry = new SimpleMeterRegistry();
+        var singleFlight = new SingleFlight<Long, String>("test", meterRegistry);
+        var loads = new AtomicInteger();
+        var release = new CountDownLatch(1);
+        Supplier<String> loader = () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "document-" + loads.get();
+        };
+
+        try (var executor = Executors.newFixedThreadPool(CALLERS)) {
+            // Act: Call with the same key from every thread, then let the first call finish.
+            var calls = callConcurrently(executor, meterRegistry, () -> singleFlight.execute(1L, loader));
+            release.countDown();
+
+            // Assert: Verify the loader ran once and every caller got its result.
+            for (var call : calls) {
+                assertEquals("document-1", call.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+            assertEquals(1, count(meterRegistry, "executed"));
+            assertEquals(CALLERS - 1, count(meterRegistry, "deduplicated"));
+        }
+
+        // Act: Call again once nothing is in flight.
+        var again = singleFlight.execute(1L, () -> "document-" + loads.incrementAndGet());
+
+        // Assert: Verify the result was not kept.
+        assertEquals("document-2", again);
+        assertEquals(2, count(meterRegistry, "executed"));
+    }
+
+    @Test
+    void assertFailureIsRethrownToEveryWaitingCaller() throws Exception {
+        // Arrange: A loader that fails once every caller has arrived.
+        var meterRegistry = new SimpleMeterRegistry();
+        var singleFlight = new SingleFlight<Long, String>("test", meterRegistry);
+        var failure = new NotFoundException("Document not found");
+        var release = new CountDownLatch(1);
+        Supplier<String> loader = () -> {
+            await(release);
+            throw failure;
+        };
+
+        try (var executor = Executors.newFixedThreadPool(CALLERS)) {
+            // Act: Call with the same key from every thread, then let the first call fail.
+            var calls = callConcurrently(executor, meterRegistry, () -> singleFlight.execute(1L, loader));
+            release.countDown();
+
+            // Assert: Verify every caller got the same exception, not a wrapped one.
+            for (var call : calls) {
+                var thrown = assertThrows(ExecutionException.class, () -> call.get(10, TimeUnit.SECONDS));
+                assertSame(failure, thrown.getCause());
+            }
+            assertEquals(1, count(meterRegistry, "executed"));
+            assertEquals(CALLERS - 1, count(meterRegistry, "deduplicated"));
+        }
+    }
+
+    /**
+     * Starts {@link #CALLERS} calls and returns once all but the first are waiting on it.
+     */
+    private static <V> List<Future<V>> callConcurrently(ExecutorService executor,
+                                                                MeterRegistry meterRegistry,
+                                                                Callable<V> call) throws InterruptedException {
+        var calls = new ArrayList<Future<V>>();
+        for (int i = 0; i < CALLERS; i++) {
+            calls.add(executor.submit(call));
+        }
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (count(meterRegistry, "deduplicated") < CALLERS - 1 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertTrue(count(meterRegistry, "deduplicated") >= CALLERS - 1, "Callers did not arrive in time");
+        return calls;
+    }
+
+    private static double count(MeterRegistry meterRegistry, String result) {
+        return meterRegistry.get(SingleFlight.METRIC_NAME)
+                .tags("operation", "test", "result", result)
+                .counter()
+                .count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.app.maxdocapi.services;
+
+import com.app.maxdocapi.config.SlowQueryProperties;
+import com.app.maxdocapi.database.monitoring.StatementCapture;
+import com.app.maxdocapi.models.dtos.DocumentCreateDto;
+import com.app.maxdocapi.models.records.SlowQueryDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import io.zonky.test.db.util.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase
+@TestPropertySource(properties = {
+        "app.slow-queries.threshold=0ms",
+        "app.slow-queries.explain-sample-rate=1",
+        "app.slow-queries.redact-parameters=false"
+})
+public class SlowQueryServiceTests {
+
+    @Autowired
+    private SlowQueryService slowQueryService;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void assertRepositoryCallsAreRecordedWithParametersAndPlan() throws InterruptedException {
+        // Arrange: A filter value that identifies this call.
+        var randomTitle = RandomStringUtils.randomAlphabetic(12).toLowerCase();
+
+        // Act: List documents, which goes through DocumentRepository.findAllWithFilters.
+        documentService.findAllPaginated(randomTitle, "", "", 0, 10, Sort.Direction.DESC);
+
+        // Assert: Verify the call was recorded with its SQL, bound parameters, rows and plan.
+        var slowQuery = await(it -> it.operation().equals("DocumentRepository.findAllWithFilters")
+                && it.statements().stream().anyMatch(statement -> statement.parameters().contains(randomTitle)));
+        assertEquals(0, slowQuery.rows());
+        assertTrue(slowQuery.statements().get(0).sql().contains("title_norm"));
+        assertTrue(slowQuery.plan().contains("Execution Time"), slowQuery.plan());
+    }
+
+    @Test
+    void assertRedactionHidesParametersAndPlanLiterals() throws InterruptedException {
+        // Arrange: A service that redacts and explains every recorded call.
+        var redactingService = new SlowQueryService(new SlowQueryProperties(true, Duration.ZERO, 1, 10, true), jdbcTemplate, meterRegistry);
+        var statement = new StatementCapture.Statement("SELECT * FROM documents WHERE title_norm LIKE ?", List.of("%secret%"), 1);
+
+        // Act: Record a call that ran the statement.
+        redactingService.record("DocumentRepository.findAll", Duration.ofSeconds(1).toNanos(), 0L, List.of(statement));
+
+        // Assert: Verify neither the parameters nor the plan show the value.
+        var slowQuery = await(redactingService, it -> it.plan() != null);
+        assertEquals(List.of("<redacted>"), slowQuery.statements().get(0).parameters());
+        assertFalse(slowQuery.plan().contains("secret"), slowQuery.plan());
+        redactingService.destroy();
+    }
+
+    @Test
+    void assertStatementsThatWriteOrLockAreNotRunAgain() throws InterruptedException {
+        // Arrange: A service that explains every recorded call, and a document a data-modifying CTE would delete.
+        var explainingService = new SlowQueryService(new SlowQueryProperties(true, Duration.ZERO, 1, 10, false), jdbcTemplate, meterRegistry);
+        var document = documentService.save(new DocumentCreateDto(null, "Título", "Descrição", RandomStringUtils.randomAlphabetic(10), 1));
+        var deleting = new StatementCapture.Statement(
+                "WITH removed AS (DELETE FROM documents WHERE id = ? RETURNING id) SELECT count(*) FROM removed", List.of(document.getId()), 1);
+        var locking = new StatementCapture.Statement("SELECT * FROM documents WHERE id = ? FOR UPDATE", List.of(document.getId()), 1);
+
+        // Act: Record a call for each statement.
+        explainingService.record("deleting", Duration.ofSeconds(1).toNanos(), 1L, List.of(deleting));
+        explainingService.record("locking", Duration.ofSeconds(1).toNanos(), 1L, List.of(locking));
+
+        // Assert: Verify both got an estimated plan only, and the document was not deleted.
+        for (var operation : List.of("deleting", "locking")) {
+            var slowQuery = await(explainingService, it -> it.operation().equals(operation) && it.plan() != null);
+            assertFalse(slowQuery.plan().contains("Execution Time"), slowQuery.plan());
+            assertFalse(slowQuery.plan().startsWith("EXPLAIN failed"), slowQuery.plan());
+        }
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM documents WHERE id = ?", Integer.class, document.getId()));
+        explainingService.destroy();
+    }
+
+    @Test
+    void assertFunctionsWithSideEffectsAreNotRunAgain() throws InterruptedException {
+        // Arrange: A service that explains every recorded call, and a SELECT that advances a sequence.
+        var explainingService = new SlowQueryService(new SlowQueryProperties(true, Duration.ZERO, 1, 10, false), jdbcTemplate, meterRegistry);
+        var sequence = "slow_query_" + RandomStringUtils.randomAlphabetic(10).toLowerCase();
+        jdbcTemplate.execute("CREATE SEQUENCE " + sequence);
+        var advancing = new StatementCapture.Statement("SELECT nextval('" + sequence + "')", List.of(), 1);
+
+        // Act: Record a call that ran the statement.
+        explainingService.record("advancing", Duration.ofSeconds(1).toNanos(), 1L, List.of(advancing));
+
+        // Assert: Verify it got an estimated plan only, and the sequence did not move.
+        var slowQuery = await(explainingService, it -> it.operation().equals("advancing") && it.plan() != null);
+        assertFalse(slowQuery.plan().contains("Execution Time"), slowQuery.plan());
+        assertFalse(slowQuery.plan().startsWith("EXPLAIN failed"), slowQuery.plan());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT nextval('" + sequence + "')", Long.class));
+        explainingService.destroy();
+    }
+
+    @Test
+    void assertBufferKeepsOnlyTheMostRecentCalls() {
+        // Arrange: A service with a small buffer that never explains.
+        var service = new SlowQueryService(new SlowQueryProperties(true, Duration.ofMillis(10), 0, 3, true), jdbcTemplate, meterRegistry);
+
+        // Act: Record a fast call and then more slow calls than the buffer holds.
+        service.record("fast", Duration.ofMillis(1).toNanos(), 1L, List.of());
+        for (int i = 0; i < 5; i++) {
+            service.record("slow" + i, Duration.ofSeconds(1).toNanos(), 1L, List.of());
+        }
+
+        // Assert: Verify the fast call was skipped and only the three most recent slow calls are kept, newest first.
+        assertEquals(List.of("slow4", "slow3", "slow2"), service.findAll().stream().map(SlowQueryDto::operation).toList());
+        service.destroy();
+    }
+
+    private SlowQueryDto await(Predicate<SlowQueryDto> condition) throws InterruptedException {
+        return await(slowQueryService, condition);
+    }
+
+    private static SlowQueryDto await(SlowQueryService service, Predicate<SlowQueryDto> condition) throws InterruptedException {
+        // Plans are captured on a background thread, so the record may show up a little later.
+        for (int attempt = 0; attempt < 100; attempt++) {
+            var found = service.findAll().stream().filter(condition).findFirst();
+            if (found.isPresent()) return found.get();
+            Thread.sleep(50);
+        }
+        return fail("Timed out waiting for the slow query record");
+    }
+}